@@ -0,0 +1,78 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Benchmark da serialização JSON do DashboardResponseDTO (GET /api/dashboard/empresa),
+ * com o tamanho que o Service monta: rankings, top 5 vendas e 12 meses de histórico.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DashboardResponseDTO dashboard;
+
+    @Setup
+    public void setUp() {
+        // Mesma configuração base do ObjectMapper do Spring MVC (datas ISO-8601)
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<VendedorRankingDTO> ranking = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            ranking.add(new VendedorRankingDTO("Vendedor " + i, i, new BigDecimal("15000.00").multiply(BigDecimal.valueOf(i)), 20 + i));
+        }
+
+        List<VendaDetalheDTO> vendas = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            vendas.add(new VendaDetalheDTO(5000 + i, "Vendedor " + i, i, new BigDecimal("5200.00"),
+                    LocalDateTime.of(2024, 10, (int) i, 10, 30)));
+        }
+
+        List<HistoricoRendimentoDTO> historico = new ArrayList<>();
+        for (int mes = 1; mes <= 12; mes++) {
+            historico.add(new HistoricoRendimentoDTO(String.format("2024-%02d", mes),
+                    new BigDecimal("55890.50"), new BigDecimal("3890.75")));
+        }
+
+        this.dashboard = DashboardResponseDTO.builder()
+                .totalVendasMes(new BigDecimal("55890.50"))
+                .totalComissoesMes(new BigDecimal("3890.75"))
+                .qtdVendasMes(125L)
+                .mediaVendaMes(new BigDecimal("447.12"))
+                .mediaComissaoMes(new BigDecimal("31.13"))
+                .rankingVendedores(ranking)
+                .maioresVendas(vendas)
+                .ultimasVendas(vendas)
+                .historicoVendasMensal(historico)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dashboard);
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+
+/**
+ * Benchmark do mapeamento Entidade -> DTO (VendaResponseDTO e VendedorResponseDTO),
+ * executado para cada item das listagens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMapeamentoBenchmark {
+
+    private Venda venda;
+    private Vendedor vendedor;
+
+    @Setup
+    public void setUp() {
+        User usuario = User.builder()
+                .id(7L).nome("Julia Campos").email("julia.campos@empresa.com")
+                .role(Role.ROLE_VENDEDOR).build();
+
+        this.vendedor = Vendedor.builder()
+                .id(101L).percentualComissao(new BigDecimal("7.00")).usuario(usuario).build();
+
+        this.venda = Venda.builder()
+                .id(5012L)
+                .valorVenda(new BigDecimal("5200.00"))
+                .valorComissaoCalculado(new BigDecimal("364.00"))
+                .dataVenda(LocalDateTime.of(2024, 10, 25, 3, 5))
+                .status(VendaStatus.CONFIRMADA)
+                .versao(0L)
+                .vendedor(vendedor)
+                .build();
+    }
+
+    @Benchmark
+    public VendaResponseDTO vendaResponseFromEntity() {
+        return VendaResponseDTO.fromEntity(venda);
+    }
+
+    @Benchmark
+    public VendedorResponseDTO vendedorResponseFromEntity() {
+        return VendedorResponseDTO.fromEntity(vendedor, 42L, new BigDecimal("98765.43"));
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark da fórmula de comissão usada em VendaService.lancar,
+ * lancarPeloVendedor, atualizarVenda e nos lotes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculadoraComissaoBenchmark {
+
+    // Valores típicos: venda pequena e venda grande, percentual "redondo" e quebrado
+    @Param({ "149.90", "125430.57" })
+    private String valor;
+
+    @Param({ "10.00", "7.35" })
+    private String percentual;
+
+    private BigDecimal valorVenda;
+    private BigDecimal percentualComissao;
+
+    @Setup
+    public void setUp() {
+        this.valorVenda = new BigDecimal(valor);
+        this.percentualComissao = new BigDecimal(percentual);
+    }
+
+    @Benchmark
+    public BigDecimal calcular() {
+        return CalculadoraComissao.calcular(valorVenda, percentualComissao);
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.andrebrandao.comissoes_api.security.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Benchmark do JwtService.extractAllClaims, executado em toda requisição autenticada:
+ * - "comCache": o mesmo token repetido (cliente fazendo polling), só o SHA-256 + lookup;
+ * - "semCache": verificação completa (HMAC + parse do JSON) a cada chamada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "osObnAHgpgRkzdjkj2gCkoMNUvfCxXZ9+Fp71dClvr4=";
+
+    private JwtService comCache;
+    private JwtService semCache;
+    private String token;
+    private String[] tokensAlternados;
+    private int proximo;
+
+    @Setup
+    public void setUp() {
+        this.comCache = novoJwtService(10_000);
+        // Limite 1 + dois tokens alternados: cada chamada esvazia o cache do outro token
+        this.semCache = novoJwtService(1);
+
+        Empresa empresa = new Empresa();
+        empresa.setId(1L);
+        User admin = User.builder()
+                .id(10L).nome("Admin Benchmark").email("admin@benchmark.com")
+                .role(Role.ROLE_ADMIN).empresa(empresa).build();
+        User outro = User.builder()
+                .id(11L).nome("Outro Admin").email("outro@benchmark.com")
+                .role(Role.ROLE_ADMIN).empresa(empresa).build();
+
+        this.token = comCache.generateToken(admin, List.of("COMISSAO_CORE"));
+        this.tokensAlternados = new String[] {
+                semCache.generateToken(admin, List.of("COMISSAO_CORE")),
+                semCache.generateToken(outro, List.of("COMISSAO_CORE"))
+        };
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsComCache() {
+        return comCache.extractAllClaims(token);
+    }
+
+    @Benchmark
+    public Claims extractAllClaimsSemCache() {
+        proximo ^= 1;
+        return semCache.extractAllClaims(tokensAlternados[proximo]);
+    }
+
+    private static JwtService novoJwtService(int cacheMaxSize) {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", cacheMaxSize);
+        jwtService.init();
+        return jwtService;
+    }
+}
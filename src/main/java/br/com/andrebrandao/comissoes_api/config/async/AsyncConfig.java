@@ -0,0 +1,30 @@
+package br.com.andrebrandao.comissoes_api.config.async;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+/**
+ * Configuração das tarefas @Async.
+ *
+ * O executor é o "applicationTaskExecutor" do Spring Boot: com
+ * spring.threads.virtual.enabled=true cada tarefa roda em uma virtual thread;
+ * sem a propriedade, em um pool de threads de plataforma (spring.task.execution.*).
+ *
+ * O SecurityContextHolder guarda o usuário logado por thread (ThreadLocal), então
+ * a tarefa não o enxergaria. O TaskDecorator abaixo copia o contexto de quem chamou,
+ * e o TenantService continua resolvendo a empresa certa dentro da tarefa.
+ * A transação de quem chamou NÃO é propagada: o método @Async abre a sua (@Transactional).
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    @Bean
+    public TaskDecorator contextoSegurancaTaskDecorator() {
+        // Capturado no momento do envio (thread de quem chamou) e limpo ao final da tarefa
+        return tarefa -> DelegatingSecurityContextRunnable.create(tarefa, null);
+    }
+}
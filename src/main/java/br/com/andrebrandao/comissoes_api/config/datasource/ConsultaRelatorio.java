@@ -0,0 +1,22 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um método @Transactional(readOnly = true) como consulta pesada de relatório
+ * (Dashboard, listagens, exportação). Com application.datasource.relatorios.enabled=true,
+ * as conexões dele vêm do pool "relatorios", e uma rajada de relatórios não ocupa as
+ * conexões do pool "primario" (lançamento e aprovação de vendas, login).
+ *
+ * Sem o pool de relatórios, não muda nada. Com a réplica ligada, todas as transações
+ * somente leitura já vão para o pool da réplica.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConsultaRelatorio {
+}
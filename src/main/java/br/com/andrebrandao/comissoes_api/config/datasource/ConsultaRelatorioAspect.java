@@ -0,0 +1,42 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registra, na thread atual, que um método @ConsultaRelatorio está em execução.
+ * O RoteamentoLeituraDataSource consulta essa marca quando a conexão física é pedida
+ * (no primeiro comando SQL, já dentro do método), então a ordem em relação ao
+ * @Transactional não importa.
+ */
+@Aspect
+@Component
+public class ConsultaRelatorioAspect {
+
+    private static final ThreadLocal<Boolean> EM_RELATORIO = new ThreadLocal<>();
+
+    @Around("@annotation(br.com.andrebrandao.comissoes_api.config.datasource.ConsultaRelatorio)")
+    public Object marcar(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean anterior = EM_RELATORIO.get();
+        EM_RELATORIO.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            // Restaura a marca anterior (chamadas aninhadas)
+            if (anterior == null) {
+                EM_RELATORIO.remove();
+            } else {
+                EM_RELATORIO.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * @return true se a thread atual está dentro de um método @ConsultaRelatorio.
+     */
+    public static boolean isEmRelatorio() {
+        return Boolean.TRUE.equals(EM_RELATORIO.get());
+    }
+}
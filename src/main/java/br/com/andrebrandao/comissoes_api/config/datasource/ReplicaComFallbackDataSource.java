@@ -0,0 +1,123 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DataSource das transações somente leitura: entrega conexões da RÉPLICA enquanto
+ * ela estiver saudável e, se não estiver, do PRIMÁRIO.
+ *
+ * "Saudável" = a última verificação conseguiu consultar a réplica e o atraso de
+ * replicação medido ficou dentro do tolerado (application.datasource.replica.atraso-maximo-segundos).
+ * Uma falha ao abrir conexão na réplica também a tira de uso até a próxima verificação.
+ */
+@Slf4j
+public class ReplicaComFallbackDataSource extends AbstractDataSource {
+
+    private final DataSource primario;
+    private final DataSource replica;
+    private final String consultaAtraso;
+    private final double atrasoMaximoSegundos;
+
+    // Começa fora de uso: a primeira verificação roda na inicialização
+    private volatile boolean replicaDisponivel = false;
+    private volatile Double ultimoAtrasoSegundos;
+
+    public ReplicaComFallbackDataSource(DataSource primario, DataSource replica, String consultaAtraso,
+            double atrasoMaximoSegundos) {
+        this.primario = primario;
+        this.replica = replica;
+        this.consultaAtraso = consultaAtraso;
+        this.atrasoMaximoSegundos = atrasoMaximoSegundos;
+        verificar();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (replicaDisponivel) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                marcarIndisponivel("falha ao conectar: " + e.getMessage());
+            }
+        }
+        return primario.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Mesmo destino do getConnection(); o pool decide se aceita outras credenciais
+        // (o HikariCP não aceita: SQLFeatureNotSupportedException, que não derruba a réplica)
+        if (replicaDisponivel) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLFeatureNotSupportedException e) {
+                throw e;
+            } catch (SQLException e) {
+                marcarIndisponivel("falha ao conectar: " + e.getMessage());
+            }
+        }
+        return primario.getConnection(username, password);
+    }
+
+    /**
+     * Mede o atraso de replicação e decide se a réplica pode ser usada.
+     * Um resultado nulo (atraso desconhecido) conta como fora do tolerado.
+     */
+    @Scheduled(fixedDelayString = "${application.datasource.replica.verificacao-ms:1000}")
+    public void verificar() {
+        try (Connection conexao = replica.getConnection();
+                Statement comando = conexao.createStatement();
+                ResultSet resultado = comando.executeQuery(consultaAtraso)) {
+
+            Double atraso = null;
+            if (resultado.next()) {
+                double valor = resultado.getDouble(1);
+                atraso = resultado.wasNull() ? null : valor;
+            }
+            ultimoAtrasoSegundos = atraso;
+
+            if (atraso != null && atraso <= atrasoMaximoSegundos) {
+                if (!replicaDisponivel) {
+                    log.info("Réplica de leitura em uso (atraso {} s)", atraso);
+                }
+                replicaDisponivel = true;
+            } else {
+                marcarIndisponivel(atraso == null ? "atraso desconhecido" : "atraso de " + atraso + " s");
+            }
+        } catch (SQLException e) {
+            ultimoAtrasoSegundos = null;
+            marcarIndisponivel("falha na verificação: " + e.getMessage());
+        }
+    }
+
+    public boolean isReplicaDisponivel() {
+        return replicaDisponivel;
+    }
+
+    /**
+     * @return O atraso medido na última verificação (em segundos), ou null se desconhecido.
+     */
+    public Double getUltimoAtrasoSegundos() {
+        return ultimoAtrasoSegundos;
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private void marcarIndisponivel(String motivo) {
+        if (replicaDisponivel) {
+            log.warn("Réplica de leitura fora de uso ({}): leituras no primário", motivo);
+        }
+        replicaDisponivel = false;
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Réplica de leitura: as transações @Transactional(readOnly = true) (listagens,
+ * Dashboard, detalhes) usam um pool próprio apontado para a réplica, e os relatórios
+ * deixam de disputar conexões e CPU do primário com o lançamento de vendas.
+ *
+ * Conexões somente leitura vêm do ReplicaComFallbackDataSource, que volta para o
+ * primário se a réplica estiver atrasada demais ou fora do ar. O roteamento entre
+ * primário e réplica fica no RoteamentoDataSourceConfig.
+ *
+ * Desligado por padrão (application.datasource.replica.enabled=false).
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "application.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    // Atraso de replicação (s) no Postgres; 0 se a réplica já aplicou tudo o que recebeu
+    private static final String CONSULTA_ATRASO_POSTGRES = "SELECT CASE"
+            + " WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Pool da réplica (application.datasource.replica.* e application.datasource.replica.hikari.*).
+     */
+    @Bean
+    @ConfigurationProperties("application.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${application.datasource.replica.url}") String url,
+            @Value("${application.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${application.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        // Réplica fora do ar: desiste rápido e a leitura vai para o primário
+        dataSource.setConnectionTimeout(2000);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaComFallbackDataSource leituraDataSource(
+            @Qualifier("primarioDataSource") HikariDataSource primario,
+            @Qualifier("replicaDataSource") HikariDataSource replica,
+            @Value("${application.datasource.replica.consulta-atraso:}") String consultaAtraso,
+            @Value("${application.datasource.replica.atraso-maximo-segundos:5}") double atrasoMaximoSegundos) {
+        return new ReplicaComFallbackDataSource(primario, replica,
+                consultaAtraso.isBlank() ? CONSULTA_ATRASO_POSTGRES : consultaAtraso, atrasoMaximoSegundos);
+    }
+
+    /**
+     * Estado da réplica nas métricas: "comissoes.replica.disponivel" (1 = leituras na réplica,
+     * 0 = no primário) e "comissoes.replica.atraso" (última medição, em segundos; NaN se desconhecido).
+     */
+    @Bean
+    public MeterBinder replicaMetricas(ReplicaComFallbackDataSource leituraDataSource) {
+        return registry -> {
+            Gauge.builder("comissoes.replica.disponivel", leituraDataSource,
+                    leitura -> leitura.isReplicaDisponivel() ? 1 : 0)
+                    .description("1 se as leituras estão indo para a réplica, 0 se para o primário")
+                    .register(registry);
+            Gauge.builder("comissoes.replica.atraso", leituraDataSource, leitura -> {
+                Double atraso = leitura.getUltimoAtrasoSegundos();
+                return atraso == null ? Double.NaN : atraso;
+            })
+                    .description("Atraso de replicação medido na última verificação")
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import javax.sql.DataSource;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Pools separados por carga de trabalho. Ligado com a réplica de leitura
+ * (application.datasource.replica.enabled, ver ReplicaDataSourceConfig) e/ou com o
+ * pool de relatórios (application.datasource.relatorios.enabled).
+ *
+ * - "primario" (spring.datasource.hikari.*): escritas (lançamento, aprovação, outbox),
+ *   login e leituras curtas;
+ * - "relatorios" (application.datasource.relatorios.hikari.*), no mesmo banco: os métodos
+ *   @ConsultaRelatorio (Dashboard, listagens, exportação). Com o pool cheio, os relatórios
+ *   esperam (ou recebem 503) e o lançamento de vendas continua com as conexões do primário;
+ * - "replica": todas as transações somente leitura (substitui o pool de relatórios).
+ *
+ * Como funciona:
+ * - O DataSource da aplicação é um LazyConnectionDataSourceProxy sobre o
+ *   RoteamentoLeituraDataSource: a conexão física só é obtida no primeiro comando, quando
+ *   a transação já está registrada como somente leitura, e o roteamento escolhe o pool;
+ * - O Hibernate devolve a conexão ao fim de cada transação (em vez de segurá-la até o
+ *   fim da requisição, por causa do open-in-view): assim uma escrita depois de uma
+ *   leitura na mesma requisição não cai no pool de leitura, e o detector de vazamento
+ *   (leak-detection-threshold) mede o tempo da transação, não o da requisição.
+ *
+ * Desligado por padrão: o DataSource continua sendo o do Spring Boot (spring.datasource.*).
+ */
+@Configuration
+@ConditionalOnExpression("${application.datasource.replica.enabled:false} or ${application.datasource.relatorios.enabled:false}")
+public class RoteamentoDataSourceConfig {
+
+    /**
+     * Pool do primário (spring.datasource.* e spring.datasource.hikari.*).
+     * O limite curto por comando (application.datasource.primario.connection-init-sql) só
+     * vale aqui: sem os pools separados, relatórios e exportação também rodam no primário.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties properties,
+            @Value("${application.datasource.primario.connection-init-sql:}") String connectionInitSql) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        if (!connectionInitSql.isBlank()) {
+            dataSource.setConnectionInitSql(connectionInitSql);
+        }
+        return dataSource;
+    }
+
+    /**
+     * Pool de relatórios, no mesmo banco do primário (application.datasource.relatorios.hikari.*).
+     * Com a réplica ligada, não é criado: os relatórios já vão para a réplica.
+     */
+    @Bean
+    @ConditionalOnExpression("${application.datasource.relatorios.enabled:false} and !${application.datasource.replica.enabled:false}")
+    @ConfigurationProperties("application.datasource.relatorios.hikari")
+    public HikariDataSource relatoriosDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("relatorios");
+        return dataSource;
+    }
+
+    /**
+     * O DataSource usado pelo JPA (e por qualquer outro componente que injete DataSource).
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primarioDataSource") HikariDataSource primario,
+            ObjectProvider<ReplicaComFallbackDataSource> leitura,
+            @Qualifier("relatoriosDataSource") ObjectProvider<HikariDataSource> relatorios) {
+        return new LazyConnectionDataSourceProxy(new RoteamentoLeituraDataSource(
+                primario, leitura.getIfAvailable(), relatorios.getIfAvailable()));
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer conexaoPorTransacaoCustomizer() {
+        return propriedades -> propriedades.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
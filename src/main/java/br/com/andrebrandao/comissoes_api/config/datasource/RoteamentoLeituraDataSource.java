@@ -0,0 +1,63 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Escolhe o pool pela transação corrente:
+ * - escrita (ou fora de transação): primário;
+ * - somente leitura, com réplica: DataSource de leitura (réplica, com volta ao primário);
+ * - somente leitura dentro de um @ConsultaRelatorio, sem réplica: pool de relatórios;
+ * - demais leituras: primário.
+ *
+ * A decisão acontece quando a conexão física é pedida. Por isso este DataSource fica
+ * atrás de um LazyConnectionDataSourceProxy (ver RoteamentoDataSourceConfig): a conexão
+ * só é pedida no primeiro comando, quando a transação já está marcada como readOnly.
+ */
+public class RoteamentoLeituraDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARIO = "primario";
+    private static final String LEITURA = "leitura";
+    private static final String RELATORIOS = "relatorios";
+
+    private final boolean comLeitura;
+    private final boolean comRelatorios;
+
+    /**
+     * @param leitura    DataSource da réplica (null = sem réplica).
+     * @param relatorios Pool de relatórios no primário (null = sem pool separado).
+     */
+    public RoteamentoLeituraDataSource(DataSource primario, DataSource leitura, DataSource relatorios) {
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIO, primario);
+        if (leitura != null) {
+            destinos.put(LEITURA, leitura);
+        }
+        if (relatorios != null) {
+            destinos.put(RELATORIOS, relatorios);
+        }
+        this.comLeitura = leitura != null;
+        this.comRelatorios = relatorios != null;
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean somenteLeitura = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!somenteLeitura) {
+            return PRIMARIO;
+        }
+        if (comLeitura) {
+            return LEITURA;
+        }
+        return comRelatorios && ConsultaRelatorioAspect.isEmRelatorio() ? RELATORIOS : PRIMARIO;
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tempo máximo de cada comando SQL (statement_timeout do Postgres) em tarefas longas.
+ *
+ * Os pools limitam cada comando pelo connection-init-sql (10 s no primário, 60 s nos
+ * relatórios). A reconstrução do resumo, a reconciliação dos contadores e a exportação
+ * percorrem todas as vendas da empresa e podem passar disso: elas chamam
+ * ampliarParaTarefaLonga() no início da transação, que vale só até o fim dela (SET LOCAL).
+ */
+@Service
+@RequiredArgsConstructor
+public class TempoLimiteComandoService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Formato do Postgres (ex: "30min", "1h"); "0" = sem limite
+    @Value("${application.datasource.tarefas-longas.statement-timeout:30min}")
+    private String limiteTarefasLongas;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Aplica o limite de tarefas longas à transação atual.
+     * Não faz nada fora de uma transação ou fora do Postgres (ex: H2 nos testes).
+     */
+    public void ampliarParaTarefaLonga() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive() || !isPostgres()) {
+            return;
+        }
+        jdbcTemplate.execute("SET LOCAL statement_timeout = '" + limiteTarefasLongas + "'");
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private boolean isPostgres() {
+        Boolean resultado = postgres;
+        if (resultado == null) {
+            resultado = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = resultado;
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,36 @@
+package br.com.andrebrandao.comissoes_api.config.job;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaParticionamentoService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Manutenção diária das partições da tabela venda: cria as dos próximos meses
+ * (antes de alguma venda precisar delas) e arquiva as que saíram da retenção.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "application.vendas.particionamento.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ParticionamentoVendaJob {
+
+    private final VendaParticionamentoService vendaParticionamentoService;
+
+    @Scheduled(cron = "${application.vendas.particionamento.cron:0 0 2 * * *}")
+    public void manter() {
+        try {
+            vendaParticionamentoService.criarParticoesFuturas();
+            vendaParticionamentoService.arquivar();
+        } catch (RuntimeException e) {
+            // Ex: lock da tabela venda não obtido; as partições já existem com meses de folga,
+            // mas uma falha que se repete esgota essa folga: ERROR, com a causa
+            log.error("Manutenção das partições de venda falhou; nova tentativa na próxima execução", e);
+        }
+    }
+}
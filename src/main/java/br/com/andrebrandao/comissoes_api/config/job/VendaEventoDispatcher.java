@@ -0,0 +1,191 @@
+package br.com.andrebrandao.comissoes_api.config.job;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaEventoService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Despachante do outbox de eventos de venda (VendaEvento).
+ *
+ * A cada intervalo, procura as empresas com eventos pendentes e entrega cada uma
+ * a um pool PRÓPRIO e limitado (threads + fila): uma empresa é processada por
+ * no máximo uma tarefa por vez, e empresas diferentes rodam em paralelo.
+ * Se a fila estiver cheia, a empresa simplesmente fica para a próxima rodada.
+ *
+ * Uma empresa cujo lote falha é tentada de novo com espera crescente (o dobro a cada
+ * falha seguida, até backoff-maximo-ms). As falhas aparecem nas métricas
+ * "comissoes.outbox.falhas" e "comissoes.outbox.empresas_com_falha".
+ *
+ * O pool não é um bean do Spring de propósito: um Executor registrado no contexto
+ * substituiria o "applicationTaskExecutor" usado pelo @Async (ver AsyncConfig).
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+public class VendaEventoDispatcher {
+
+    private final VendaEventoService vendaEventoService;
+    private final MeterRegistry meterRegistry;
+
+    // false = ninguém consome em segundo plano (ex: testes, que chamam processarPendentes())
+    @Value("${application.vendas.outbox.dispatcher.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${application.vendas.outbox.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Value("${application.vendas.outbox.threads:2}")
+    private int threads;
+
+    @Value("${application.vendas.outbox.fila:100}")
+    private int capacidadeFila;
+
+    @Value("${application.vendas.outbox.intervalo-ms:500}")
+    private long intervaloMs;
+
+    @Value("${application.vendas.outbox.backoff-maximo-ms:60000}")
+    private long backoffMaximoMs;
+
+    private ThreadPoolTaskExecutor executor;
+
+    // Empresas já entregues ao pool (na fila ou rodando)
+    private final Set<Long> emProcessamento = ConcurrentHashMap.newKeySet();
+
+    // Empresas cujo último lote falhou: falhas seguidas, quando tentar de novo
+    // e quando a falha foi logada como ERROR pela última vez
+    private final Map<Long, FalhasEmpresa> falhas = new ConcurrentHashMap<>();
+
+    private record FalhasEmpresa(int consecutivas, long proximaTentativaMillis, long ultimoErroLogadoMillis) {
+    }
+
+    @PostConstruct
+    void iniciar() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setThreadNamePrefix("venda-evento-");
+        // No desligamento, termina os lotes em andamento (os não iniciados ficam na tabela)
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        Gauge.builder("comissoes.outbox.empresas_com_falha", falhas, Map::size)
+                .description("Empresas cujo último lote de eventos de venda falhou")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${application.vendas.outbox.intervalo-ms:500}")
+    public void despachar() {
+        if (!habilitado) {
+            return;
+        }
+        long agora = System.currentTimeMillis();
+        for (Long empresaId : vendaEventoService.empresasPendentes()) {
+            FalhasEmpresa falhasEmpresa = falhas.get(empresaId);
+            if (falhasEmpresa != null && falhasEmpresa.proximaTentativaMillis() > agora) {
+                continue; // Falhou há pouco: espera o backoff
+            }
+            if (!emProcessamento.add(empresaId)) {
+                continue; // Já está com o pool
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        esvaziar(empresaId);
+                        falhas.remove(empresaId);
+                    } catch (RuntimeException e) {
+                        // O lote que falhou continua na tabela e é tentado de novo após o backoff
+                        registrarFalha(empresaId, e);
+                    } finally {
+                        emProcessamento.remove(empresaId);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                emProcessamento.remove(empresaId); // Fila cheia: fica para a próxima rodada
+            }
+        }
+    }
+
+    /**
+     * Processa todos os eventos pendentes na thread atual (manutenção e testes).
+     *
+     * @return Quantos eventos foram processados.
+     */
+    public int processarPendentes() {
+        int total = 0;
+        for (Long empresaId : vendaEventoService.empresasPendentes()) {
+            total += esvaziar(empresaId);
+        }
+        return total;
+    }
+
+    /**
+     * @return Quantas vezes seguidas o processamento da empresa falhou (0 = sem falha pendente).
+     */
+    public int getFalhasConsecutivas(Long empresaId) {
+        FalhasEmpresa falhasEmpresa = falhas.get(empresaId);
+        return falhasEmpresa == null ? 0 : falhasEmpresa.consecutivas();
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    /**
+     * Conta a falha e agenda a próxima tentativa: intervalo-ms * 2^(falhas-1), até backoff-maximo-ms.
+     * ERROR (com o stack trace) na primeira falha e no máximo uma vez a cada backoff-maximo-ms
+     * enquanto a empresa continuar falhando; as tentativas intermediárias vão como WARN.
+     */
+    private void registrarFalha(Long empresaId, RuntimeException e) {
+        long agora = System.currentTimeMillis();
+        boolean[] logarErro = new boolean[1];
+        FalhasEmpresa atual = falhas.compute(empresaId, (id, anterior) -> {
+            int consecutivas = anterior == null ? 1 : anterior.consecutivas() + 1;
+            long espera = Math.min(backoffMaximoMs, intervaloMs << Math.min(consecutivas - 1, 20));
+            logarErro[0] = anterior == null || agora - anterior.ultimoErroLogadoMillis() >= backoffMaximoMs;
+            long ultimoErro = logarErro[0] ? agora : anterior.ultimoErroLogadoMillis();
+            return new FalhasEmpresa(consecutivas, agora + espera, ultimoErro);
+        });
+        meterRegistry.counter("comissoes.outbox.falhas").increment();
+
+        long esperaMs = atual.proximaTentativaMillis() - agora;
+        if (logarErro[0]) {
+            log.error("Falha ao processar eventos de venda da empresa {} ({} falha(s) seguida(s); nova tentativa em {} ms)",
+                    empresaId, atual.consecutivas(), esperaMs, e);
+        } else {
+            log.warn("Falha ao processar eventos de venda da empresa {} ({} falha(s) seguida(s); nova tentativa em {} ms): {}",
+                    empresaId, atual.consecutivas(), esperaMs, e.toString());
+        }
+    }
+
+    private int esvaziar(Long empresaId) {
+        int total = 0;
+        int processados;
+        do {
+            // Cada lote é uma transação
+            processados = vendaEventoService.processarLote(empresaId, tamanhoLote);
+            total += processados;
+        } while (processados == tamanhoLote);
+        return total;
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.andrebrandao.comissoes_api.config.job;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendedorEstatisticasService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verificação periódica dos contadores por vendedor (VendedorEstatisticas).
+ * Recalcula cada empresa a partir da tabela venda e corrige o que estiver divergente
+ * (ex: alteração feita direto no banco). Cada empresa roda na sua própria transação.
+ */
+@Slf4j
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "application.vendedor-estatisticas.verificacao.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class VendedorEstatisticasVerificacaoJob {
+
+    private final VendedorRepository vendedorRepository;
+    private final VendedorEstatisticasService vendedorEstatisticasService;
+
+    @Scheduled(cron = "${application.vendedor-estatisticas.verificacao.cron:0 30 3 * * *}")
+    public void verificar() {
+        for (Long empresaId : vendedorRepository.findEmpresaIdsComVendedores()) {
+            try {
+                int divergentes = vendedorEstatisticasService.reconciliar(empresaId);
+                if (divergentes > 0) {
+                    // Correção = os contadores tinham divergido da tabela venda
+                    log.warn("Contadores de vendas corrigidos: empresa {}, {} vendedor(es) divergente(s)",
+                            empresaId, divergentes);
+                }
+            } catch (RuntimeException e) {
+                // Ex: o despachante do outbox alterou os contadores durante a leitura; tenta na próxima execução
+                log.warn("Verificação dos contadores adiada: empresa {}", empresaId, e);
+            }
+        }
+    }
+}
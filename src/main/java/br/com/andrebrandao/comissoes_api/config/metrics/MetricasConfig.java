@@ -0,0 +1,42 @@
+package br.com.andrebrandao.comissoes_api.config.metrics;
+
+import java.util.function.Function;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * Configuração das métricas (Micrometer).
+ *
+ * - @Timed nos services: TimedAspect com as tags da requisição (endpoint/empresa);
+ * - Repositórios: o Actuator já cronometra cada método (métrica
+ *   "spring.data.repository.invocations"); aqui só acrescentamos as mesmas tags.
+ * Hibernate (generate_statistics) e HikariCP são ligados automaticamente pelo Actuator.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry, TagsMetricas tagsMetricas) {
+        Function<ProceedingJoinPoint, Iterable<Tag>> tagsDaRequisicao = joinPoint -> tagsMetricas.daRequisicaoAtual();
+        return new TimedAspect(registry, tagsDaRequisicao);
+    }
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider(TagsMetricas tagsMetricas) {
+        return new DefaultRepositoryTagsProvider() {
+            @Override
+            public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+                return tagsMetricas.daRequisicaoAtual().and(super.repositoryTags(invocation));
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.andrebrandao.comissoes_api.config.metrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.model.UsuarioAutenticado;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Tags comuns das métricas da aplicação, tiradas da requisição atual:
+ * - "endpoint": método + padrão da URL (ex: "PUT /api/vendas/{id}"), nunca a URL crua;
+ * - "empresa": ID da empresa logada, só se habilitado e limitado a N empresas
+ *   distintas (as demais viram "outras"), para não explodir a cardinalidade.
+ */
+@Component
+public class TagsMetricas {
+
+    static final String SEM_ENDPOINT = "nenhum"; // Fora de uma requisição (ex: jobs, inicialização)
+    static final String OUTRAS_EMPRESAS = "outras";
+
+    @Value("${application.metrics.tag-empresa.enabled:false}")
+    private boolean tagEmpresa;
+
+    @Value("${application.metrics.tag-empresa.max-empresas:50}")
+    private int maxEmpresas;
+
+    // Empresas que já ganharam série própria (até maxEmpresas)
+    private final Set<String> empresasComTag = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Tags da requisição atual (endpoint e, opcionalmente, empresa).
+     */
+    public Tags daRequisicaoAtual() {
+        HttpServletRequest request = requisicaoAtual();
+        Tags tags = Tags.of("endpoint", endpoint(request));
+        if (tagEmpresa) {
+            tags = tags.and("empresa", empresa());
+        }
+        return tags;
+    }
+
+    /**
+     * Padrão da URL já resolvido pelo Spring MVC. Em filtros, só existe
+     * depois que a requisição passou pelo DispatcherServlet.
+     */
+    public String endpoint(HttpServletRequest request) {
+        if (request == null) {
+            return SEM_ENDPOINT;
+        }
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (padrao != null ? padrao : "desconhecido");
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private String empresa() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long empresaId = null;
+        if (authentication != null && authentication.getPrincipal() instanceof User user && user.getEmpresa() != null) {
+            empresaId = user.getEmpresa().getId();
+        } else if (authentication != null && authentication.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            empresaId = usuario.getEmpresaId();
+        }
+        if (empresaId == null) {
+            return "nenhuma";
+        }
+
+        // Guarda de cardinalidade: novas empresas só entram enquanto houver vaga
+        String valor = empresaId.toString();
+        if (empresasComTag.contains(valor)) {
+            return valor;
+        }
+        if (empresasComTag.size() < maxEmpresas && empresasComTag.add(valor)) {
+            return valor;
+        }
+        return OUTRAS_EMPRESAS;
+    }
+
+    private static HttpServletRequest requisicaoAtual() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos instanceof ServletRequestAttributes servletAtributos) {
+            return servletAtributos.getRequest();
+        }
+        return null;
+    }
+}
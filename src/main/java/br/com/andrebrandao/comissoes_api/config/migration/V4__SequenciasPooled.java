@@ -0,0 +1,63 @@
+package br.com.andrebrandao.comissoes_api.config.migration;
+
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migração V4 (Flyway): IDs de empresa, modulo, usuario, vendedor e venda_resumo_mensal
+ * passam de IDENTITY para sequences "pooled" (allocationSize 50), como venda e venda_evento.
+ * O Hibernate reserva 50 IDs por ida ao banco e agrupa os INSERTs em lotes JDBC.
+ *
+ * Em Java (e não em SQL) porque o início de cada sequence depende dos dados:
+ * com o otimizador "pooled", o valor da sequence é o TOPO do bloco reservado, então
+ * MAX(id) + 50 faz o primeiro bloco começar depois de todos os IDs atuais.
+ * Os IDs existentes não mudam.
+ *
+ * Também substitui o antigo SequenciaVendaInitializer: avança venda_seq e venda_evento_seq
+ * para depois do maior ID (nunca para trás), o que ele fazia a cada inicialização.
+ *
+ * Registrada como Bean: o Spring Boot entrega as JavaMigration do contexto ao Flyway.
+ */
+@Component
+public class V4__SequenciasPooled extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABELAS_IDENTITY = List.of(
+            "empresa", "modulo", "usuario", "vendedor", "venda_resumo_mensal");
+
+    private static final List<String> TABELAS_COM_SEQUENCE = List.of("venda", "venda_evento");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+
+        // 1. Tabelas IDENTITY: cria a sequence depois do maior ID e tira o autoincremento da coluna
+        for (String tabela : TABELAS_IDENTITY) {
+            long inicio = maiorId(jdbcTemplate, tabela) + ALLOCATION_SIZE;
+            jdbcTemplate.execute("CREATE SEQUENCE " + tabela + "_seq START WITH " + inicio
+                    + " INCREMENT BY " + ALLOCATION_SIZE);
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " ALTER COLUMN id DROP IDENTITY");
+        }
+
+        // 2. Sequences já existentes: só avançam. O nextval consome o topo atual; reiniciar
+        //    acima dele não reaproveita blocos que alguma instância ainda esteja usando.
+        for (String tabela : TABELAS_COM_SEQUENCE) {
+            String sequence = tabela + "_seq";
+            long atual = jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class);
+            long inicio = Math.max(maiorId(jdbcTemplate, tabela), atual) + ALLOCATION_SIZE;
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + inicio);
+        }
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static long maiorId(JdbcTemplate jdbcTemplate, String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabela, Long.class);
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.andrebrandao.comissoes_api.config.startup;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaParticionamentoService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Executado uma única vez na inicialização, com application.vendas.particionamento.enabled=true.
+ * Converte a tabela venda em particionada por mês (se ainda não for) e garante as
+ * partições dos próximos meses. Só tem efeito no Postgres.
+ */
+@Component
+@ConditionalOnProperty(name = "application.vendas.particionamento.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ParticionamentoVendaInitializer implements CommandLineRunner {
+
+    private final VendaParticionamentoService vendaParticionamentoService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // 1. Tabela comum -> particionada (uma vez só)
+        vendaParticionamentoService.converter();
+
+        // 2. Partições do mês corrente e dos próximos meses
+        vendaParticionamentoService.criarParticoesFuturas();
+    }
+}
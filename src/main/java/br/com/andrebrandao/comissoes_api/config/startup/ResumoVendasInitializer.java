@@ -0,0 +1,36 @@
+package br.com.andrebrandao.comissoes_api.config.startup;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Executado uma única vez na inicialização (como o AdminUserInitializer).
+ * Garante que toda empresa que já possui vendas tenha o resumo mensal
+ * (VendaResumoMensal) do Dashboard preenchido — ex: vendas lançadas antes
+ * de o resumo materializado existir.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResumoVendasInitializer implements CommandLineRunner {
+
+    private final VendaRepository vendaRepository;
+    private final VendaResumoMensalRepository vendaResumoMensalRepository;
+    private final DashboardService dashboardService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // 1. Empresas com vendas, mas ainda sem nenhuma linha de resumo
+        for (Long empresaId : vendaRepository.findEmpresaIdsComVendas()) {
+            if (!vendaResumoMensalRepository.existsByEmpresaId(empresaId)) {
+                // 2. Reconstrói o resumo a partir da tabela venda
+                System.out.println(">>> Construindo resumo mensal de vendas da empresa ID " + empresaId);
+                dashboardService.reconstruirResumo(empresaId);
+            }
+        }
+    }
+}
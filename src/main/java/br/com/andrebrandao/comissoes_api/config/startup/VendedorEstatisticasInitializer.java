@@ -0,0 +1,29 @@
+package br.com.andrebrandao.comissoes_api.config.startup;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendedorEstatisticasService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Executado uma única vez na inicialização (como o ResumoVendasInitializer).
+ * Garante que todo vendedor tenha a sua linha de contadores (VendedorEstatisticas)
+ * — ex: vendedores cadastrados antes de os contadores existirem.
+ */
+@Component
+@RequiredArgsConstructor
+public class VendedorEstatisticasInitializer implements CommandLineRunner {
+
+    private final VendedorEstatisticasService vendedorEstatisticasService;
+
+    @Override
+    public void run(String... args) throws Exception {
+        // 1. Empresas com algum vendedor ainda sem linha de contadores
+        for (Long empresaId : vendedorEstatisticasService.empresasPendentesDeInicializacao()) {
+            // 2. Calcula os contadores a partir da tabela venda
+            System.out.println(">>> Construindo contadores de vendas dos vendedores da empresa ID " + empresaId);
+            vendedorEstatisticasService.reconciliar(empresaId);
+        }
+    }
+}
@@ -21,7 +21,7 @@ public class ContaService {
     // --- Dependências Injetadas ---
     private final TenantService tenantService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder; // O BCrypt que definimos no SecurityConfig
+    private final PasswordEncoder passwordEncoder; // O encoder (delegating) definido no SecurityConfig
 
     /**
      * Altera a senha do usuário atualmente logado,
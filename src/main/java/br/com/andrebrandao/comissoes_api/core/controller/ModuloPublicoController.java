@@ -1,8 +1,11 @@
 // src/main/java/br/com/andrebrandao/comissoes_api/core/controller/ModuloPublicoController.java
 package br.com.andrebrandao.comissoes_api.core.controller; // <-- Pacote CORRETO
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -21,14 +24,18 @@ public class ModuloPublicoController {
 
     private final ModuloService moduloService;
 
+    // O catálogo é igual para todos: navegadores e CDNs podem guardá-lo por um minuto
+    private static final CacheControl CACHE_PUBLICO = CacheControl.maxAge(Duration.ofSeconds(60)).cachePublic();
+
     /**
      * Endpoint PÚBLICO para listar o catálogo de módulos disponíveis para venda.
      * Mapeado para: GET /api/modulos/catalogo
+     * Não consulta o banco: a lista vem do cache do catálogo (CatalogoModulosCacheService).
      *
      * @return Lista de ModuloCatalogoDTO.
      */
     @GetMapping("/catalogo")
-    public List<ModuloCatalogoDTO> listarCatalogoPublico() {
-        return moduloService.listarCatalogoPublico();
+    public ResponseEntity<List<ModuloCatalogoDTO>> listarCatalogoPublico() {
+        return ResponseEntity.ok().cacheControl(CACHE_PUBLICO).body(moduloService.listarCatalogoPublico());
     }
 }
\ No newline at end of file
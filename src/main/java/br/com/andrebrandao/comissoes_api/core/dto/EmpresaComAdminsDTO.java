@@ -28,15 +28,24 @@ public class EmpresaComAdminsDTO {
     public static EmpresaComAdminsDTO fromEntity(Empresa empresa, List<User> admins) {
         if (empresa == null) return null;
 
-        List<UsuarioAdminInfoDTO> adminDTOs = admins.stream()
-            .map(UsuarioAdminInfoDTO::fromEntity)
-            .collect(Collectors.toList());
-
         // Acessar modulosAtivos aqui dentro do builder para inicializar LAZY loading se necessário
         Set<Modulo> modulosCarregados = empresa.getModulosAtivos();
         // Para garantir que foi carregado (opcional, mas seguro)
         if (modulosCarregados != null) modulosCarregados.size();
 
+        return fromEntity(empresa, modulosCarregados, admins);
+    }
+
+    /**
+     * Monta o DTO com módulos e admins já carregados em lote (listagem paginada),
+     * sem tocar na coleção LAZY da empresa.
+     */
+    public static EmpresaComAdminsDTO fromEntity(Empresa empresa, Set<Modulo> modulosAtivos, List<User> admins) {
+        if (empresa == null) return null;
+
+        List<UsuarioAdminInfoDTO> adminDTOs = admins.stream()
+            .map(UsuarioAdminInfoDTO::fromEntity)
+            .collect(Collectors.toList());
 
         return EmpresaComAdminsDTO.builder()
             .id(empresa.getId())
@@ -44,7 +53,7 @@ public class EmpresaComAdminsDTO {
             .cnpj(empresa.getCnpj())
             .dataCadastro(empresa.getDataCadastro())
             .razaoSocial(empresa.getRazaoSocial())
-            .modulosAtivos(modulosCarregados) // Usa a coleção inicializada
+            .modulosAtivos(modulosAtivos)
             .usuariosAdmin(adminDTOs)
             .build();
     }
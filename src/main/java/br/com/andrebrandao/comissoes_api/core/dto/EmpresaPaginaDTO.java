@@ -0,0 +1,21 @@
+package br.com.andrebrandao.comissoes_api.core.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO de resposta da listagem paginada de Empresas (GET /api/superadmin/empresas).
+ */
+@Data
+@AllArgsConstructor
+public class EmpresaPaginaDTO {
+
+    private List<EmpresaComAdminsDTO> itens;
+
+    private int pagina; // Começa em 0
+    private int tamanho;
+    private long totalItens;
+    private int totalPaginas;
+}
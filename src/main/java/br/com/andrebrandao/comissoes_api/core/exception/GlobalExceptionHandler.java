@@ -1,13 +1,17 @@
 package br.com.andrebrandao.comissoes_api.core.exception; // Ajuste o package se necessário
 
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import jakarta.persistence.EntityNotFoundException; // Importa a exceção específica
 
+import java.sql.SQLTransientConnectionException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -45,6 +49,97 @@ public class GlobalExceptionHandler {
         // return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Captura IllegalArgumentException (ex: cursor de paginação inválido).
+     *
+     * @param ex A exceção capturada.
+     * @param request O contexto da requisição web.
+     * @return Uma ResponseEntity com status 400 (Bad Request) e uma mensagem de erro.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Object> handleIllegalArgumentException(
+            IllegalArgumentException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.BAD_REQUEST.value());
+        body.put("error", "Bad Request");
+        body.put("message", ex.getMessage());
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Captura conflitos de "optimistic locking" (a entidade foi alterada por
+     * outra requisição depois de ser lida).
+     *
+     * @param ex A exceção capturada.
+     * @param request O contexto da requisição web.
+     * @return Uma ResponseEntity com status 409 (Conflict) e uma mensagem de erro.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(
+            ObjectOptimisticLockingFailureException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.CONFLICT.value());
+        body.put("error", "Conflict");
+        body.put("message", "O registro foi alterado por outra operação. Recarregue e tente novamente.");
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Captura tarefas recusadas por um pool limitado cheio (ex: rajada de logins).
+     *
+     * @param ex A exceção capturada.
+     * @param request O contexto da requisição web.
+     * @return Uma ResponseEntity com status 503 (Service Unavailable) e o cabeçalho Retry-After.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<Object> handleTaskRejected(
+            TaskRejectedException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "Servidor ocupado. Tente novamente em instantes.");
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    /**
+     * Captura a espera esgotada por uma conexão do pool (connection-timeout do Hikari),
+     * ex: pool de relatórios cheio durante uma rajada de Dashboards. Também casa quando
+     * ela chega embrulhada (JDBCConnectionException, DataAccessResourceFailureException).
+     *
+     * @param ex A exceção capturada.
+     * @param request O contexto da requisição web.
+     * @return Uma ResponseEntity com status 503 (Service Unavailable) e o cabeçalho Retry-After.
+     */
+    @ExceptionHandler(SQLTransientConnectionException.class)
+    public ResponseEntity<Object> handleConexaoIndisponivel(
+            SQLTransientConnectionException ex, WebRequest request) {
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", System.currentTimeMillis());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "Banco de dados ocupado. Tente novamente em instantes.");
+        body.put("path", request.getDescription(false).replace("uri=", ""));
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
     // Você pode adicionar outros métodos @ExceptionHandler aqui para tratar outras exceções
     // (ex: DataIntegrityViolationException, etc.)
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -25,7 +26,8 @@ import org.hibernate.annotations.CreationTimestamp;
 public class Empresa {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "empresa_seq")
+    @SequenceGenerator(name = "empresa_seq", sequenceName = "empresa_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
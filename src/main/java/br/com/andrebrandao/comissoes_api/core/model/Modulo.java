@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Data; // Importa o Lombok
 import java.math.BigDecimal;
@@ -24,8 +25,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class Modulo {
 
     @Id // 4. Define que este campo é a Chave Primária (PK)
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // 5. Define que o banco (Postgres)
-                                                        // vai autoincrementar este número
+    // 5. O número vem da sequence "modulo_seq" (o Hibernate reserva 50 por ida ao banco)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "modulo_seq")
+    @SequenceGenerator(name = "modulo_seq", sequenceName = "modulo_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true) // 6. Campo não-nulo e único
@@ -1,7 +1,17 @@
 package br.com.andrebrandao.comissoes_api.core.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.repository.projection.EmpresaModuloProjection;
 
 /**
  * Repositório para a entidade Empresa.
@@ -9,4 +19,29 @@ import br.com.andrebrandao.comissoes_api.core.model.Empresa;
 public interface EmpresaRepository extends JpaRepository<Empresa, Long> {
     // Spring Data JPA vai prover os métodos:
     // save(), findById(), findAll(), deleteById(), ...
-}
\ No newline at end of file
+
+    /**
+     * Busca apenas as chaves (ex: "COMISSAO_CORE") dos módulos ativos da empresa.
+     * Usado pelo cache de permissões, sem carregar as entidades Modulo.
+     */
+    @Query("SELECT m.chave FROM Empresa e JOIN e.modulosAtivos m WHERE e.id = :empresaId")
+    List<String> findChavesModulosAtivosByEmpresaId(@Param("empresaId") Long empresaId);
+
+    /**
+     * Busca uma página de empresas cujo nome fantasia, razão social ou CNPJ contenha o termo.
+     *
+     * @param padrao O termo já em minúsculas e entre '%' (ex: "%loja%").
+     */
+    @Query(value = "SELECT e FROM Empresa e WHERE LOWER(e.nomeFantasia) LIKE :padrao "
+            + "OR LOWER(e.razaoSocial) LIKE :padrao OR e.cnpj LIKE :padrao",
+            countQuery = "SELECT COUNT(e) FROM Empresa e WHERE LOWER(e.nomeFantasia) LIKE :padrao "
+            + "OR LOWER(e.razaoSocial) LIKE :padrao OR e.cnpj LIKE :padrao")
+    Page<Empresa> buscarPorNomeOuCnpj(@Param("padrao") String padrao, Pageable pageable);
+
+    /**
+     * Busca os módulos ativos de várias empresas de uma vez (evita o LAZY por empresa).
+     */
+    @Query("SELECT NEW br.com.andrebrandao.comissoes_api.core.repository.projection.EmpresaModuloProjection(e.id, m) "
+            + "FROM Empresa e JOIN e.modulosAtivos m WHERE e.id IN :empresaIds")
+    List<EmpresaModuloProjection> findModulosAtivosByEmpresaIdIn(@Param("empresaIds") Collection<Long> empresaIds);
+}
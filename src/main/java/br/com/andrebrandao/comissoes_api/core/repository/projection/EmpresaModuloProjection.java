@@ -0,0 +1,28 @@
+package br.com.andrebrandao.comissoes_api.core.repository.projection;
+
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+
+/**
+ * Projeção de um vínculo Empresa -> Módulo ativo (tabela empresa_modulos_ativos).
+ * Usada para carregar os módulos de uma página inteira de empresas em uma única consulta.
+ */
+public class EmpresaModuloProjection {
+
+    private final Long empresaId;
+    private final Modulo modulo;
+
+    // Construtor usado na consulta JPQL (SELECT NEW ...)
+    public EmpresaModuloProjection(Long empresaId, Modulo modulo) {
+        this.empresaId = empresaId;
+        this.modulo = modulo;
+    }
+
+    // Getters
+    public Long getEmpresaId() {
+        return empresaId;
+    }
+
+    public Modulo getModulo() {
+        return modulo;
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.andrebrandao.comissoes_api.core.service;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import br.com.andrebrandao.comissoes_api.core.dto.ModuloCatalogoDTO;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.core.util.TransacaoUtils;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cache em memória do catálogo de módulos (a tabela modulo inteira, que muda poucas
+ * vezes por ano). Atende a listagem do Super Admin, os módulos à venda, o catálogo
+ * público (/api/modulos/catalogo, anônimo) e os módulos ativos de cada empresa
+ * (combinado com as chaves do ModulosAtivosCacheService), sem ir ao banco.
+ *
+ * Os módulos são carregados de uma vez, na subida da aplicação e depois de cada
+ * invalidação (ModuloService.criar/atualizar). O TTL é uma rede de segurança para
+ * o caso de várias instâncias da API.
+ *
+ * As entidades do cache são compartilhadas entre requisições: só para leitura.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogoModulosCacheService {
+
+    private final ModuloRepository moduloRepository;
+
+    @Value("${application.cache.catalogo-modulos.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private volatile Catalogo catalogo;
+
+    // Incrementada a cada invalidação: impede que uma carga concorrente
+    // (iniciada antes da invalidação) grave um catálogo antigo no cache.
+    private final AtomicLong geracao = new AtomicLong();
+
+    private record Catalogo(List<Modulo> todos, List<Modulo> disponiveis, List<ModuloCatalogoDTO> publico,
+            Map<String, Modulo> porChave, long expiraEmMillis) {
+    }
+
+    /**
+     * Carrega o catálogo antes da primeira requisição (picos no catálogo público
+     * não disputam a primeira carga).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        getCatalogo();
+    }
+
+    /**
+     * @return Todos os módulos cadastrados (lista imutável).
+     */
+    public List<Modulo> getTodos() {
+        return getCatalogo().todos();
+    }
+
+    /**
+     * @return Os módulos PRONTO_PARA_PRODUCAO (lista imutável).
+     */
+    public List<Modulo> getDisponiveisParaVenda() {
+        return getCatalogo().disponiveis();
+    }
+
+    /**
+     * @return O catálogo público: módulos PRONTO_PARA_PRODUCAO já convertidos em DTO.
+     */
+    public List<ModuloCatalogoDTO> getCatalogoPublico() {
+        return getCatalogo().publico();
+    }
+
+    /**
+     * Converte chaves de módulos (ex: as chaves ativas de uma empresa) nas entidades.
+     * Uma chave fora do catálogo indica que ele está desatualizado (módulo criado em
+     * outra instância): o catálogo é recarregado uma vez.
+     *
+     * @param chaves As chaves dos módulos.
+     * @return Os módulos encontrados (conjunto imutável).
+     */
+    public Set<Modulo> getPorChaves(Collection<String> chaves) {
+        // 1. Cache hit
+        Catalogo atual = getCatalogo();
+        if (!atual.porChave().keySet().containsAll(chaves)) {
+            // 2. Alguma chave não existe no catálogo em memória: recarrega
+            atual = recarregar();
+        }
+
+        // 3. Monta o conjunto na ordem das chaves
+        Set<Modulo> modulos = new LinkedHashSet<>();
+        for (String chave : chaves) {
+            Modulo modulo = atual.porChave().get(chave);
+            if (modulo != null) {
+                modulos.add(modulo);
+            }
+        }
+        return Set.copyOf(modulos);
+    }
+
+    /**
+     * Invalida o catálogo (após o commit da transação atual). A próxima leitura recarrega.
+     */
+    public void invalidar() {
+        TransacaoUtils.executarAposCommit(() -> {
+            geracao.incrementAndGet();
+            catalogo = null;
+        });
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private Catalogo getCatalogo() {
+        Catalogo atual = catalogo;
+        if (atual != null && atual.expiraEmMillis() > System.currentTimeMillis()) {
+            return atual;
+        }
+        return carregarSeExpirado();
+    }
+
+    /**
+     * Uma carga por vez: num pico de requisições com o cache vazio,
+     * só a primeira vai ao banco e as demais esperam o resultado.
+     */
+    private synchronized Catalogo carregarSeExpirado() {
+        Catalogo atual = catalogo;
+        if (atual != null && atual.expiraEmMillis() > System.currentTimeMillis()) {
+            return atual;
+        }
+        return carregar();
+    }
+
+    private synchronized Catalogo recarregar() {
+        return carregar();
+    }
+
+    private Catalogo carregar() {
+        // 1. Busca a tabela inteira (poucas linhas)
+        long geracaoAntes = geracao.get();
+        List<Modulo> todos = List.copyOf(moduloRepository.findAll());
+
+        // 2. Deriva as visões usadas pelos endpoints
+        List<Modulo> disponiveis = todos.stream()
+                .filter(modulo -> modulo.getStatus() == ModuloStatus.PRONTO_PARA_PRODUCAO)
+                .toList();
+        Catalogo novo = new Catalogo(
+                todos,
+                disponiveis,
+                disponiveis.stream().map(ModuloCatalogoDTO::fromEntity).toList(),
+                todos.stream().collect(Collectors.toUnmodifiableMap(Modulo::getChave, Function.identity())),
+                System.currentTimeMillis() + ttlSeconds * 1000);
+
+        // 3. Só grava se ninguém invalidou durante a consulta
+        if (geracao.get() == geracaoAntes) {
+            catalogo = novo;
+        }
+        return novo;
+    }
+}
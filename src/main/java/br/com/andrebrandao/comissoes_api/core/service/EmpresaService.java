@@ -3,8 +3,15 @@ package br.com.andrebrandao.comissoes_api.core.service;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 // --- IMPORTS ADICIONADOS ---
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -16,6 +23,7 @@ import br.com.andrebrandao.comissoes_api.core.model.Empresa;
 import br.com.andrebrandao.comissoes_api.core.model.Modulo;
 import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
 import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.projection.EmpresaModuloProjection;
 import br.com.andrebrandao.comissoes_api.security.model.Role; // Import de Segurança
 import br.com.andrebrandao.comissoes_api.security.model.User; // Import de Segurança
 import br.com.andrebrandao.comissoes_api.security.repository.UserRepository; // Import de Segurança
@@ -23,6 +31,7 @@ import br.com.andrebrandao.comissoes_api.security.service.TenantService;
 import br.com.andrebrandao.comissoes_api.core.dto.AdminUsuarioRequestDTO;
 import br.com.andrebrandao.comissoes_api.core.dto.EmpresaDetalhesDTO;
 import br.com.andrebrandao.comissoes_api.core.dto.EmpresaComAdminsDTO;
+import br.com.andrebrandao.comissoes_api.core.dto.EmpresaPaginaDTO;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 
@@ -38,36 +47,63 @@ public class EmpresaService {
     private final PasswordEncoder passwordEncoder;
 
     private final TenantService tenantService;
+
+    private final ModulosAtivosCacheService modulosAtivosCacheService;
     
+    private static final int TAMANHO_MAXIMO_PAGINA = 100;
+
     /**
-     * Lista todas as Empresas cadastradas, incluindo seus módulos ativos e
+     * Lista as Empresas cadastradas (paginado), incluindo seus módulos ativos e
      * a lista de usuários ROLE_ADMIN associados.
-     * Garante o carregamento dos dados LAZY (módulos).
+     * Usa um número fixo de consultas por página (empresas + contagem, admins e módulos),
+     * independente da quantidade de empresas.
      *
-     * @return Lista de DTOs EmpresaComAdminsDTO.
+     * @param busca   Termo opcional: parte do nome fantasia, razão social ou CNPJ.
+     * @param pagina  Número da página (começa em 0).
+     * @param tamanho Itens por página (máximo 100).
+     * @return A página de DTOs EmpresaComAdminsDTO.
+     * @throws IllegalArgumentException se a página ou o tamanho forem inválidos.
      */
-    @Transactional(readOnly = true) // <-- Adicionar @Transactional para gerenciar a sessão e LAZY loading
-    public List<EmpresaComAdminsDTO> listarTodas() { // <-- TIPO DE RETORNO ALTERADO
-        // 1. Busca todas as entidades Empresa
-        List<Empresa> empresas = empresaRepository.findAll();
-        List<EmpresaComAdminsDTO> dtos = new ArrayList<>();
-
-        // 2. Itera sobre cada empresa para buscar seus admins e carregar módulos
-        for (Empresa empresa : empresas) {
-            // 3. Busca a lista de usuários ROLE_ADMIN para esta empresa
-            List<User> admins = userRepository.findByEmpresaIdAndRole(empresa.getId(), Role.ROLE_ADMIN);
-
-            // 4. Acessa a coleção LAZY de módulos DENTRO da transação para carregá-la
-            // O próprio DTO já faz isso no método fromEntity, mas podemos garantir aqui também (opcional)
-            // empresa.getModulosAtivos().size(); // Força o carregamento
-
-            // 5. Constrói o DTO usando o método de fábrica
-            EmpresaComAdminsDTO dto = EmpresaComAdminsDTO.fromEntity(empresa, admins);
-            dtos.add(dto);
+    @Transactional(readOnly = true)
+    public EmpresaPaginaDTO listar(String busca, int pagina, int tamanho) {
+        if (pagina < 0 || tamanho < 1) {
+            throw new IllegalArgumentException("Parâmetros de paginação inválidos: pagina >= 0 e tamanho >= 1.");
+        }
+        Pageable pageable = PageRequest.of(pagina, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA),
+                Sort.by("nomeFantasia").and(Sort.by("id")));
+
+        // 1. Busca a página de empresas (com ou sem filtro)
+        Page<Empresa> empresas = (busca == null || busca.isBlank())
+                ? empresaRepository.findAll(pageable)
+                : empresaRepository.buscarPorNomeOuCnpj("%" + busca.trim().toLowerCase(Locale.ROOT) + "%", pageable);
+
+        List<Long> empresaIds = empresas.getContent().stream().map(Empresa::getId).toList();
+        if (empresaIds.isEmpty()) {
+            return new EmpresaPaginaDTO(List.of(), empresas.getNumber(), empresas.getSize(),
+                    empresas.getTotalElements(), empresas.getTotalPages());
         }
 
-        // 6. Retorna a lista de DTOs
-        return dtos;
+        // 2. Busca os admins de TODAS as empresas da página em uma única consulta
+        Map<Long, List<User>> adminsPorEmpresa = userRepository
+                .findByEmpresaIdInAndRole(empresaIds, Role.ROLE_ADMIN).stream()
+                .collect(Collectors.groupingBy(admin -> admin.getEmpresa().getId()));
+
+        // 3. Busca os módulos ativos de TODAS as empresas da página em uma única consulta
+        Map<Long, Set<Modulo>> modulosPorEmpresa = empresaRepository
+                .findModulosAtivosByEmpresaIdIn(empresaIds).stream()
+                .collect(Collectors.groupingBy(EmpresaModuloProjection::getEmpresaId,
+                        Collectors.mapping(EmpresaModuloProjection::getModulo, Collectors.toSet())));
+
+        // 4. Monta os DTOs em memória, na ordem da página
+        List<EmpresaComAdminsDTO> dtos = new ArrayList<>(empresaIds.size());
+        for (Empresa empresa : empresas.getContent()) {
+            dtos.add(EmpresaComAdminsDTO.fromEntity(empresa,
+                    modulosPorEmpresa.getOrDefault(empresa.getId(), Set.of()),
+                    adminsPorEmpresa.getOrDefault(empresa.getId(), List.of())));
+        }
+
+        return new EmpresaPaginaDTO(dtos, empresas.getNumber(), empresas.getSize(),
+                empresas.getTotalElements(), empresas.getTotalPages());
     }
 
     
@@ -143,7 +179,11 @@ public class EmpresaService {
         }
         
         empresa.setModulosAtivos(novosModulos);
-        return empresaRepository.save(empresa);
+        Empresa empresaSalva = empresaRepository.save(empresa);
+
+        // As permissões da empresa mudaram: descarta o cache de módulos dela
+        modulosAtivosCacheService.invalidar(empresaId);
+        return empresaSalva;
     }
 
 /**
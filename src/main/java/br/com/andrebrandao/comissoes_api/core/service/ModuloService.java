@@ -1,11 +1,12 @@
 package br.com.andrebrandao.comissoes_api.core.service;
 
 import java.util.List;
+import java.util.Set;
+
 import org.springframework.stereotype.Service;
 
 import br.com.andrebrandao.comissoes_api.core.dto.ModuloRequestDTO;
 import br.com.andrebrandao.comissoes_api.core.model.Modulo;
-import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
 import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
 import br.com.andrebrandao.comissoes_api.core.dto.ModuloCatalogoDTO;
 import jakarta.persistence.EntityNotFoundException;
@@ -21,13 +22,17 @@ public class ModuloService {
 
     private final ModuloRepository moduloRepository; // 3. Injeta o repositório
 
+    private final ModulosAtivosCacheService modulosAtivosCacheService;
+
+    private final CatalogoModulosCacheService catalogoModulosCacheService;
+
     /**
-     * Lista todos os módulos cadastrados no sistema.
+     * Lista todos os módulos cadastrados no sistema (do cache do catálogo).
      *
      * @return Lista de entidades Modulo.
      */
     public List<Modulo> listarTodos() {
-        return moduloRepository.findAll();
+        return catalogoModulosCacheService.getTodos();
     }
 
     /**
@@ -60,8 +65,12 @@ public class ModuloService {
         novoModulo.setPrecoMensal(dto.getPrecoMensal());
         novoModulo.setPadrao(dto.getIsPadrao());
 
-        // 3. Salva a nova entidade no banco e a retorna
-        return moduloRepository.save(novoModulo);
+        // 3. Salva a nova entidade no banco
+        Modulo moduloSalvo = moduloRepository.save(novoModulo);
+
+        // 4. O catálogo ganhou um módulo: descarta o cache do catálogo
+        catalogoModulosCacheService.invalidar();
+        return moduloSalvo;
     }
 
     /**
@@ -87,7 +96,13 @@ public class ModuloService {
 
         // 3. Salva a entidade atualizada (o JPA/Hibernate entende que é um
         // UPDATE)
-        return moduloRepository.save(moduloExistente);
+        Modulo moduloSalvo = moduloRepository.save(moduloExistente);
+
+        // 4. A chave pode ter mudado: descarta o cache de módulos de todas as empresas
+        //    e o cache do catálogo
+        modulosAtivosCacheService.invalidarTodos();
+        catalogoModulosCacheService.invalidar();
+        return moduloSalvo;
     }
 
     // Você pode adicionar um método de "delete" aqui se quiser
@@ -101,29 +116,35 @@ public class ModuloService {
      * Lista todos os módulos que estão prontos para serem vendidos
      * (status = PRONTO_PARA_PRODUCAO).
      * Usado pelo painel do Super Admin para "vender" módulos a uma empresa.
+     * Vem do cache do catálogo (já filtrado por PRONTO_PARA_PRODUCAO).
      *
      * @return Lista de módulos disponíveis para venda.
      */
     public List<Modulo> listarDisponiveisParaVenda() {
-        // 1. Chama o novo método do repositório
-        // 2. Filtra especificamente pelo status PRONTO_PARA_PRODUCAO
-        return moduloRepository.findByStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        return catalogoModulosCacheService.getDisponiveisParaVenda();
     }
 
     /**
      * Lista os módulos disponíveis para o público (catálogo).
      * Retorna apenas módulos com status PRONTO_PARA_PRODUCAO e mapeados
      * para o DTO simplificado ModuloCatalogoDTO.
+     * O endpoint é anônimo: a lista vem pronta do cache do catálogo, sem ir ao banco.
      *
      * @return Lista de ModuloCatalogoDTO.
      */
     public List<ModuloCatalogoDTO> listarCatalogoPublico() {
-        // 1. Busca os módulos PRONTO_PARA_PRODUCAO usando o método existente no repositório
-        List<Modulo> modulosDisponiveis = moduloRepository.findByStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        return catalogoModulosCacheService.getCatalogoPublico();
+    }
 
-        // 2. Mapeia a lista de entidades para a lista de DTOs do catálogo
-        return modulosDisponiveis.stream()
-                .map(ModuloCatalogoDTO::fromEntity) // Usa o método de fábrica do DTO
-                .toList();
+    /**
+     * Lista os módulos ativos de uma empresa: as chaves vêm do cache de permissões
+     * e as entidades do cache do catálogo (sem carregar Empresa.modulosAtivos).
+     *
+     * @param empresaId O ID da empresa.
+     * @return Os módulos ativos da empresa.
+     */
+    public Set<Modulo> listarModulosAtivos(Long empresaId) {
+        return catalogoModulosCacheService.getPorChaves(
+                modulosAtivosCacheService.getChavesModulosAtivos(empresaId));
     }
 }
\ No newline at end of file
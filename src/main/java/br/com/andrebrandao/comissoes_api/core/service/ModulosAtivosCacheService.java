@@ -0,0 +1,94 @@
+package br.com.andrebrandao.comissoes_api.core.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.util.TransacaoUtils;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Cache em memória das chaves dos módulos ativos de cada empresa.
+ * É consultado em TODA requisição protegida (via CustomSecurityService.hasModulo),
+ * então a verificação precisa custar apenas um lookup em hash.
+ *
+ * Invalidado quando os módulos de uma empresa mudam (EmpresaService) ou
+ * quando um módulo é alterado (ModuloService). O TTL é uma rede de
+ * segurança para o caso de várias instâncias da API.
+ */
+@Service
+@RequiredArgsConstructor
+public class ModulosAtivosCacheService {
+
+    private final EmpresaRepository empresaRepository;
+
+    @Value("${application.cache.modulos-ativos.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final ConcurrentHashMap<Long, Entrada> cache = new ConcurrentHashMap<>();
+
+    // Incrementada a cada invalidação: impede que uma carga concorrente
+    // (iniciada antes da invalidação) grave um valor antigo no cache.
+    private final AtomicLong geracao = new AtomicLong();
+
+    private record Entrada(Set<String> chaves, long expiraEmMillis) {
+    }
+
+    /**
+     * Retorna as chaves dos módulos ativos da empresa (conjunto imutável).
+     *
+     * @param empresaId O ID da empresa.
+     * @return As chaves (ex: "COMISSAO_CORE"); vazio se não houver nenhuma.
+     */
+    public Set<String> getChavesModulosAtivos(Long empresaId) {
+        long agora = System.currentTimeMillis();
+
+        // 1. Cache hit
+        Entrada entrada = cache.get(empresaId);
+        if (entrada != null && entrada.expiraEmMillis() > agora) {
+            return entrada.chaves();
+        }
+
+        // 2. Cache miss: busca só as chaves no banco
+        long geracaoAntes = geracao.get();
+        Set<String> chaves = Set.copyOf(empresaRepository.findChavesModulosAtivosByEmpresaId(empresaId));
+
+        // 3. Só grava se ninguém invalidou durante a consulta
+        if (geracao.get() == geracaoAntes) {
+            cache.put(empresaId, new Entrada(chaves, agora + ttlSeconds * 1000));
+        }
+        return chaves;
+    }
+
+    /**
+     * Verifica se a empresa possui o módulo ativo.
+     */
+    public boolean possuiModulo(Long empresaId, String chaveModulo) {
+        return getChavesModulosAtivos(empresaId).contains(chaveModulo);
+    }
+
+    /**
+     * Invalida o cache de uma empresa (após o commit da transação atual).
+     */
+    public void invalidar(Long empresaId) {
+        TransacaoUtils.executarAposCommit(() -> {
+            geracao.incrementAndGet();
+            cache.remove(empresaId);
+        });
+    }
+
+    /**
+     * Invalida o cache de todas as empresas (após o commit da transação atual).
+     * Usado quando um módulo muda (ex: a chave foi alterada).
+     */
+    public void invalidarTodos() {
+        TransacaoUtils.executarAposCommit(() -> {
+            geracao.incrementAndGet();
+            cache.clear();
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.andrebrandao.comissoes_api.core.util;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Utilitários para respostas HTTP condicionais (ETag + If-None-Match).
+ */
+public final class RespostaCondicionalUtils {
+
+    // "private, no-cache": o navegador guarda a resposta, mas sempre revalida com
+    // If-None-Match (o padrão do Spring Security, "no-store", impediria o 304)
+    private static final CacheControl SEMPRE_REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    private RespostaCondicionalUtils() {
+    }
+
+    /**
+     * Responde 304 (sem corpo) se o cliente já tiver a versão informada;
+     * senão monta o corpo e responde 200 com a ETag.
+     *
+     * @param request A requisição (lê o If-None-Match).
+     * @param etag A ETag forte da versão atual (sem aspas), ou null para responder 200 sem ETag.
+     * @param corpo Monta o corpo; só é chamado quando a versão mudou.
+     * @return A resposta (200 ou 304).
+     */
+    public static <T> ResponseEntity<T> responder(WebRequest request, String etag, Supplier<T> corpo) {
+        // 0. Sem versão confiável (ex: réplica possivelmente atrasada): sempre o corpo, sem ETag
+        if (etag == null) {
+            return ResponseEntity.ok().cacheControl(SEMPRE_REVALIDAR).body(corpo.get());
+        }
+
+        // 1. O cliente já tem esta versão: nada é consultado
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(SEMPRE_REVALIDAR).build();
+        }
+
+        // 2. Versão nova (ou primeira requisição)
+        return ResponseEntity.ok().eTag(etag).cacheControl(SEMPRE_REVALIDAR).body(corpo.get());
+    }
+}
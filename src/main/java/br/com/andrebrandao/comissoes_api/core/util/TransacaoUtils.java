@@ -0,0 +1,35 @@
+package br.com.andrebrandao.comissoes_api.core.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilitários relacionados a transações do Spring.
+ */
+public final class TransacaoUtils {
+
+    private TransacaoUtils() {
+    }
+
+    /**
+     * Executa a ação somente depois do COMMIT da transação atual.
+     * Se não houver transação ativa, executa imediatamente.
+     *
+     * Útil para invalidar caches: se invalidarmos antes do commit, outra
+     * requisição pode recarregar o valor antigo do banco.
+     *
+     * @param acao A ação a ser executada.
+     */
+    public static void executarAposCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+}
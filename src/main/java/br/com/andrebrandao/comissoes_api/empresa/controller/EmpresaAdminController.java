@@ -20,6 +20,7 @@ import lombok.RequiredArgsConstructor;
 import br.com.andrebrandao.comissoes_api.core.dto.AdminUsuarioRequestDTO; // Importar DTO Request
 import br.com.andrebrandao.comissoes_api.core.dto.EmpresaDetalhesDTO;
 import br.com.andrebrandao.comissoes_api.core.service.EmpresaService;
+import br.com.andrebrandao.comissoes_api.core.service.ModuloService;
 import br.com.andrebrandao.comissoes_api.security.dto.UsuarioResponseDTO; // Importar DTO Response
 
 /**
@@ -32,14 +33,16 @@ public class EmpresaAdminController {
 
     private final TenantService tenantService;
     private final EmpresaService empresaService;
+    private final ModuloService moduloService;
 
     @GetMapping("/meus-modulos")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
     public Set<Modulo> listarMeusModulosAtivos() {
         User adminLogado = tenantService.getUsuarioLogado();
-        // Adicionar tratamento se getEmpresa for null ou getModulosAtivos for null
+        // Os módulos vêm dos caches (chaves da empresa + catálogo), sem carregar
+        // a coleção Empresa.modulosAtivos do banco
         if (adminLogado != null && adminLogado.getEmpresa() != null) {
-             return adminLogado.getEmpresa().getModulosAtivos();
+             return moduloService.listarModulosAtivos(adminLogado.getEmpresa().getId());
         }
         return Set.of(); // Retorna conjunto vazio se não encontrar
     }
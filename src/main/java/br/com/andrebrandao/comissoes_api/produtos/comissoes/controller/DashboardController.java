@@ -1,13 +1,20 @@
 // src/main/java/br/com/andrebrandao/comissoes_api/produtos/comissoes/controller/DashboardController.java
 package br.com.andrebrandao.comissoes_api.produtos.comissoes.controller;
 
+import java.time.YearMonth;
+
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import br.com.andrebrandao.comissoes_api.core.util.RespostaCondicionalUtils;
 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.DashboardResponseDTO;
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaService; // Injetamos o serviço de Venda
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.DashboardService; // Dashboard materializado
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VersaoDadosService;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -21,17 +28,25 @@ import lombok.RequiredArgsConstructor;
 @PreAuthorize("hasAuthority('ROLE_ADMIN') and @customSecurityService.hasModulo(authentication, 'COMISSAO_CORE')")
 public class DashboardController {
 
-    private final VendaService vendaService; 
+    private final DashboardService dashboardService;
+    private final VersaoDadosService versaoDadosService;
 
     /**
      * Endpoint para gerar e retornar o Dashboard de Métricas e Ranking da Empresa.
      * Mapeado para: GET /api/dashboard/empresa
      *
-     * @return O DTO DashboardResponseDTO preenchido.
+     * Responde 304 se o If-None-Match trouxer a versão atual (ver VersaoDadosService).
+     *
+     * @param request A requisição (para o GET condicional).
+     * @return O DTO DashboardResponseDTO preenchido (ou 304 sem corpo).
      */
     @GetMapping("/empresa")
-    public DashboardResponseDTO gerarDashboardEmpresa() {
-        // Chama o método de serviço que criamos anteriormente
-        return vendaService.gerarDashboard();
+    public ResponseEntity<DashboardResponseDTO> gerarDashboardEmpresa(WebRequest request) {
+        // O mês entra na ETag: na virada do mês o Dashboard muda sem nenhuma venda nova
+        String versao = versaoDadosService.etag();
+        String etag = versao == null ? null : versao + "-" + YearMonth.now();
+
+        // Montado a partir do resumo mensal materializado (ver DashboardService)
+        return RespostaCondicionalUtils.responder(request, etag, dashboardService::gerarDashboard);
     }
 }
\ No newline at end of file
@@ -1,25 +1,41 @@
 // src/main/java/br/com.andrebrandao.comissoes_api/produtos/comissoes/controller/VendaController.java
 package br.com.andrebrandao.comissoes_api.produtos.comissoes.controller;
 
+import java.io.IOException;
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
+
+import br.com.andrebrandao.comissoes_api.core.util.RespostaCondicionalUtils;
 
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaFiltroDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaLoteResultadoDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaLoteUpdateRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaPaginaDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaRequestDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaExportacaoService;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaService;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VersaoDadosService;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaResponseDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaUpdateRequestDTO;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -37,6 +53,8 @@ import lombok.RequiredArgsConstructor;
 public class VendaController {
 
     private final VendaService vendaService; // Injeta o serviço de lógica
+    private final VendaExportacaoService vendaExportacaoService;
+    private final VersaoDadosService versaoDadosService; // ETag da listagem
 
     /**
      * Endpoint para LANÇAR uma nova venda para um vendedor.
@@ -51,6 +69,18 @@ public class VendaController {
         return vendaService.lancar(dto);
     }
 
+    /**
+     * Endpoint para LANÇAR várias vendas de uma vez (ex: sincronização do ERP).
+     * Mapeado para: POST /api/vendas/lote
+     *
+     * @param dtos O JSON com a lista de vendas (mesmo formato do VendaRequestDTO).
+     * @return O resultado por item (ID da venda criada ou mensagem de erro).
+     */
+    @PostMapping("/lote")
+    public VendaLoteResultadoDTO lancarVendasEmLote(@RequestBody List<VendaRequestDTO> dtos) {
+        return vendaService.lancarEmLote(dtos);
+    }
+
     /**
      * Endpoint para ATUALIZAR uma venda existente.
      * Mapeado para: PUT /api/vendas/{id}
@@ -68,12 +98,58 @@ public class VendaController {
     }
 
     /**
-     * Endpoint para LISTAR TODAS as vendas da empresa do ADMIN logado.
-     * Mapeado para: GET /api/vendas
+     * Endpoint para ATUALIZAR várias vendas de uma vez (mesma transação).
+     * Mapeado para: PUT /api/vendas/batch
+     *
+     * @param dto O JSON com a lista de edições (VendaLoteUpdateRequestDTO).
+     * @return Os DTOs das vendas atualizadas.
+     */
+    @PutMapping("/batch")
+    public List<VendaResponseDTO> atualizarVendasEmLote(@Valid @RequestBody VendaLoteUpdateRequestDTO dto) {
+        return vendaService.atualizarVendasEmLote(dto);
+    }
+
+    /**
+     * Endpoint para LISTAR as vendas da empresa do ADMIN logado (paginado por cursor).
+     * Mapeado para: GET /api/vendas?status=&vendedorId=&dataInicio=&dataFim=&valorMin=&valorMax=&cursor=&limite=
+     *
+     * Responde 304 se o If-None-Match trouxer a versão atual (ver VersaoDadosService).
+     * A ETag vale por URL, então cada combinação de filtros/cursor tem a sua.
+     *
+     * @param filtro Os filtros opcionais, vindos da query string.
+     * @param request A requisição (para o GET condicional).
+     * @return A página de vendas e o "proximoCursor" (null na última página), ou 304 sem corpo.
      */
     @GetMapping
-    public List<VendaResponseDTO> listarVendas() {
-        return vendaService.listar();
+    public ResponseEntity<VendaPaginaDTO> listarVendas(@ModelAttribute VendaFiltroDTO filtro, WebRequest request) {
+        return RespostaCondicionalUtils.responder(request, versaoDadosService.etag(), () -> vendaService.listar(filtro));
+    }
+
+    /**
+     * Endpoint para EXPORTAR as vendas da empresa (sem paginação), em streaming.
+     * Mapeado para: GET /api/vendas/export?format=csv|ndjson (+ os mesmos filtros da listagem)
+     *
+     * @param filtro O filtro opcional (cursor e limite são ignorados).
+     * @param format "csv" (padrão) ou "ndjson" (um JSON de VendaResponseDTO por linha).
+     * @param response A resposta HTTP, escrita diretamente linha a linha.
+     */
+    @GetMapping("/export")
+    public void exportarVendas(
+        @ModelAttribute VendaFiltroDTO filtro,
+        @RequestParam(name = "format", defaultValue = "csv") String format,
+        HttpServletResponse response) throws IOException {
+
+        // 1. Valida o formato ANTES de escrever qualquer coisa (formato inválido = 400)
+        VendaExportacaoService.Formato formato = VendaExportacaoService.Formato.fromParametro(format);
+
+        // 2. Cabeçalhos do download
+        response.setContentType(formato.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"vendas." + formato.getExtensao() + "\"");
+
+        // 3. As linhas vão direto do cursor do banco para a resposta
+        vendaExportacaoService.exportar(filtro, formato, response.getOutputStream());
     }
 
     // ========================================================================
@@ -1,9 +1,13 @@
 // src/main/java/br/com.andrebrandao.comissoes_api/produtos/comissoes/controller/VendedorController.java
 package br.com.andrebrandao.comissoes_api.produtos.comissoes.controller;
 
+import java.io.IOException;
 import java.util.List; 
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable; 
@@ -11,17 +15,26 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping; 
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import br.com.andrebrandao.comissoes_api.core.util.RespostaCondicionalUtils;
 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorCriadoResponseDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorDetalhadoResponseDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorLoteItemDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorRequestDTO; 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorUpdateRequestDTO; 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorResponseDTO; // <-- NOVO IMPORT
 // import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor; // Não é mais o retorno
 
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaExportacaoService;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendedorLoteService;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendedorService;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VersaoDadosService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -39,6 +52,8 @@ import lombok.RequiredArgsConstructor;
 public class VendedorController {
 
     private final VendedorService vendedorService; // Injeta o serviço
+    private final VersaoDadosService versaoDadosService; // ETag das listagens
+    private final VendedorLoteService vendedorLoteService; // Cadastro em lote
 
     /**
      * Endpoint para CRIAR um novo vendedor (e seu usuário associado).
@@ -50,13 +65,51 @@ public class VendedorController {
         return vendedorService.criar(dto);
     }
 
+    /**
+     * Endpoint para CRIAR vários vendedores de uma vez, a partir de um JSON.
+     * Mapeado para: POST /api/vendedores/lote?format=csv|ndjson
+     *
+     * @param dtos A lista de vendedores (mesmo formato do VendedorRequestDTO).
+     * @param format Formato da resposta: "csv" (padrão) ou "ndjson".
+     * @param response A resposta HTTP: uma linha por item, com a senha temporária ou o erro.
+     */
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void criarVendedoresEmLote(
+        @RequestBody List<VendedorRequestDTO> dtos,
+        @RequestParam(name = "format", defaultValue = "csv") String format,
+        HttpServletResponse response) throws IOException {
+
+        VendaExportacaoService.Formato formato = VendaExportacaoService.Formato.fromParametro(format);
+        responderLote(vendedorLoteService.criarEmLote(dtos), formato, response);
+    }
+
+    /**
+     * Endpoint para CRIAR vários vendedores de uma vez, a partir de um CSV
+     * (cabeçalho: nome,email,percentualComissao).
+     * Mapeado para: POST /api/vendedores/lote?format=csv|ndjson (Content-Type: text/csv)
+     *
+     * @param csv O conteúdo do arquivo.
+     * @param format Formato da resposta: "csv" (padrão) ou "ndjson".
+     * @param response A resposta HTTP: uma linha por item, com a senha temporária ou o erro.
+     */
+    @PostMapping(value = "/lote", consumes = "text/csv")
+    public void criarVendedoresEmLoteCsv(
+        @RequestBody String csv,
+        @RequestParam(name = "format", defaultValue = "csv") String format,
+        HttpServletResponse response) throws IOException {
+
+        VendaExportacaoService.Formato formato = VendaExportacaoService.Formato.fromParametro(format);
+        responderLote(vendedorLoteService.criarEmLote(vendedorLoteService.lerCsv(csv)), formato, response);
+    }
+
     /**
      * Endpoint para LISTAR TODOS os vendedores da empresa do ADMIN logado.
-     * @return Uma lista de DTOs VendedorResponseDTO.
+     * Responde 304 se o If-None-Match trouxer a versão atual (ver VersaoDadosService).
+     * @return Uma lista de DTOs VendedorResponseDTO (ou 304 sem corpo).
      */
     @GetMapping
-    public List<VendedorResponseDTO> listarVendedores() { // <-- TIPO DE RETORNO ALTERADO
-        return vendedorService.listar();
+    public ResponseEntity<List<VendedorResponseDTO>> listarVendedores(WebRequest request) {
+        return RespostaCondicionalUtils.responder(request, versaoDadosService.etag(), vendedorService::listar);
     }
 
     /**
@@ -89,4 +142,23 @@ public class VendedorController {
     public VendedorDetalhadoResponseDTO buscarDetalhesVendedorPorId(@PathVariable("id") Long idDoVendedor) { 
         return vendedorService.buscarDetalhesPorId(idDoVendedor);
     }
-}
\ No newline at end of file
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    /**
+     * Escreve o resultado do lote (já gravado no banco) direto na resposta.
+     * As senhas temporárias só aparecem aqui: o arquivo não é guardado no servidor.
+     */
+    private void responderLote(List<VendedorLoteItemDTO> resultados, VendaExportacaoService.Formato formato,
+        HttpServletResponse response) throws IOException {
+        // 201 se ao menos um vendedor foi criado (os itens com erro vêm na mesma resposta)
+        boolean algumCriado = resultados.stream().anyMatch(item -> item.getIdVendedor() != null);
+        response.setStatus(algumCriado ? HttpStatus.CREATED.value() : HttpStatus.OK.value());
+        response.setContentType(formato.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"vendedores-criados." + formato.getExtensao() + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store"); // Contém senhas
+        vendedorLoteService.escrever(resultados, formato, response.getOutputStream());
+    }
+}
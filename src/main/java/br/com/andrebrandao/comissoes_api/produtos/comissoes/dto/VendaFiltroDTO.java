@@ -0,0 +1,49 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import lombok.Data;
+
+/**
+ * DTO para *receber* os filtros da listagem de Vendas (query string).
+ * Ex: GET /api/vendas?status=CONFIRMADA&dataInicio=2024-06-01&limite=100
+ * Todos os campos são opcionais.
+ */
+@Data
+public class VendaFiltroDTO {
+
+    private VendaStatus status;
+
+    private Long vendedorId;
+
+    /**
+     * Primeiro dia (inclusive) do período.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataInicio;
+
+    /**
+     * Último dia (inclusive) do período.
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dataFim;
+
+    private BigDecimal valorMin;
+
+    private BigDecimal valorMax;
+
+    /**
+     * Cursor opaco devolvido em "proximoCursor" da página anterior.
+     * Ausente = primeira página.
+     */
+    private String cursor;
+
+    /**
+     * Quantidade máxima de itens na página (padrão 50, máximo 500).
+     */
+    private Integer limite;
+}
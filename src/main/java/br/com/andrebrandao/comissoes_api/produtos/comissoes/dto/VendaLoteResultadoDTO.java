@@ -0,0 +1,40 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO de resposta do lançamento de vendas em lote (POST /api/vendas/lote).
+ * Traz um resultado por item, na mesma ordem (índice) do envio.
+ */
+@Data
+@AllArgsConstructor
+public class VendaLoteResultadoDTO {
+
+    private int total;
+    private int sucesso;
+    private int erros;
+    private List<Item> resultados;
+
+    /**
+     * Resultado de um item do lote: o ID da venda criada, ou a mensagem de erro.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+
+        private int indice; // Posição do item na lista enviada (começa em 0)
+        private Long vendaId; // null se o item falhou
+        private String erro; // null se o item foi lançado
+
+        public static Item sucesso(int indice, Long vendaId) {
+            return new Item(indice, vendaId, null);
+        }
+
+        public static Item erro(int indice, String mensagem) {
+            return new Item(indice, null, mensagem);
+        }
+    }
+}
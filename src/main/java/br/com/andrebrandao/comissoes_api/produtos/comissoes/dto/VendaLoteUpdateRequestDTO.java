@@ -0,0 +1,43 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * DTO para *receber* a edição de várias Vendas de uma vez (PUT /api/vendas/batch).
+ * Todas as edições são aplicadas na mesma transação: ou todas, ou nenhuma.
+ */
+@Data
+public class VendaLoteUpdateRequestDTO {
+
+    @NotEmpty(message = "Informe ao menos uma venda.")
+    @Size(max = 1000, message = "No máximo 1000 vendas por requisição.")
+    @Valid
+    private List<Item> itens;
+
+    /**
+     * Uma venda a ser editada (mesmos campos do VendaUpdateRequestDTO, mais o ID).
+     */
+    @Data
+    public static class Item {
+
+        @NotNull(message = "O ID da venda não pode ser nulo.")
+        private Long id;
+
+        @NotNull(message = "O valor da venda não pode ser nulo.")
+        @Positive(message = "O valor da venda deve ser positivo (maior que zero).")
+        private BigDecimal valorVenda;
+
+        @Size(max = 500, message = "A descrição não pode exceder 500 caracteres.")
+        private String descricaoVenda;
+
+        private Long versao; // Opcional: versão lida pelo cliente (optimistic locking)
+    }
+}
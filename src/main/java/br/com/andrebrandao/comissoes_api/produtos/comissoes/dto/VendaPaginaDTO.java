@@ -0,0 +1,22 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * DTO de resposta da listagem paginada de Vendas (paginação por cursor).
+ * Para a próxima página, reenvie os mesmos filtros com cursor=proximoCursor.
+ */
+@Data
+@AllArgsConstructor
+public class VendaPaginaDTO {
+
+    private List<VendaResponseDTO> itens;
+
+    /**
+     * Cursor da próxima página, ou null se esta for a última.
+     */
+    private String proximoCursor;
+}
@@ -2,6 +2,8 @@
 package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendaListagemProjection;
 import lombok.Builder;
 import lombok.Data;
 
@@ -17,6 +19,8 @@ public class VendaResponseDTO {
     private String descricaoVenda;
     private BigDecimal valorComissaoCalculado;
     private LocalDateTime dataVenda;
+    private VendaStatus status;
+    private Long versao; // Enviar de volta no PUT para "optimistic locking"
     private VendedorSimplesDTO vendedor;
 
     // Método estático para conversão
@@ -27,7 +31,28 @@ public class VendaResponseDTO {
             .descricaoVenda(venda.getDescricaoVenda())
             .valorComissaoCalculado(venda.getValorComissaoCalculado())
             .dataVenda(venda.getDataVenda())
+            .status(venda.getStatus())
+            .versao(venda.getVersao())
             .vendedor(VendedorSimplesDTO.fromEntity(venda.getVendedor()))
             .build();
     }
+
+    // Conversão a partir da projeção da listagem paginada (sem entidades)
+    public static VendaResponseDTO fromProjection(VendaListagemProjection projecao) {
+        return VendaResponseDTO.builder()
+            .id(projecao.getId())
+            .valorVenda(projecao.getValorVenda())
+            .descricaoVenda(projecao.getDescricaoVenda())
+            .valorComissaoCalculado(projecao.getValorComissaoCalculado())
+            .dataVenda(projecao.getDataVenda())
+            .status(projecao.getStatus())
+            .versao(projecao.getVersao())
+            .vendedor(VendedorSimplesDTO.builder()
+                .idVendedor(projecao.getVendedorId())
+                .nome(projecao.getNomeVendedor())
+                .email(projecao.getEmailVendedor())
+                .percentualComissao(projecao.getPercentualComissao())
+                .build())
+            .build();
+    }
 }
\ No newline at end of file
@@ -22,4 +22,10 @@ public class VendaUpdateRequestDTO {
     // Descrição é opcional, mas se enviada, pode ter um limite de tamanho
     @Size(max = 500, message = "A descrição não pode exceder 500 caracteres.")
     private String descricaoVenda; // Pode ser null se não for alterada
+
+    /**
+     * Opcional: a "versao" que o cliente leu. Se a venda mudou desde então,
+     * a edição é recusada com 409 Conflict em vez de sobrescrever a outra.
+     */
+    private Long versao;
 }
\ No newline at end of file
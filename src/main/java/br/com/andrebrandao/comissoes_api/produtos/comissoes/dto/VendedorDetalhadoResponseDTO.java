@@ -6,6 +6,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendedorEstatisticas;
 import lombok.Builder;
 import lombok.Data;
 
@@ -29,6 +30,9 @@ public class VendedorDetalhadoResponseDTO {
     private Long qtdVendas;
     private BigDecimal valorTotalVendas;
     private BigDecimal mediaComissao; // (valorTotalComissao / qtdVendas)
+    private Long qtdVendasPendentes;
+    private Long qtdVendasConfirmadas;
+    private Long qtdVendasCanceladas;
 
     // --- Estrutura para dados de gráfico ---
     private List<HistoricoRendimentoDTO> historicoRendimentos;
@@ -36,22 +40,17 @@ public class VendedorDetalhadoResponseDTO {
 
     public static VendedorDetalhadoResponseDTO fromEntity(
             Vendedor vendedor, 
-            Long qtdVendas,
-            BigDecimal valorTotalVendas,
+            VendedorEstatisticas estatisticas,
             List<HistoricoRendimentoDTO> historicoRendimentos) {
 
         if (vendedor == null) return null;
         
-        // 1. Calcular Valor Total de Comissão e Média
-        BigDecimal valorTotalComissao = historicoRendimentos.stream()
-                .map(HistoricoRendimentoDTO::getValorComissao)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        // 1. Média de comissão por venda, a partir dos contadores do vendedor
+        long qtdVendas = estatisticas.getQtdVendas();
         BigDecimal mediaComissao = BigDecimal.ZERO;
-        if (qtdVendas != null && qtdVendas > 0) {
-            // Reutiliza a soma para obter a média por venda
-            mediaComissao = valorTotalComissao
-                    .divide(new BigDecimal(qtdVendas), 2, java.math.RoundingMode.HALF_UP);
+        if (qtdVendas > 0) {
+            mediaComissao = estatisticas.getValorTotalComissao()
+                    .divide(BigDecimal.valueOf(qtdVendas), 2, java.math.RoundingMode.HALF_UP);
         }
 
         // 2. Cria o DTO
@@ -59,8 +58,11 @@ public class VendedorDetalhadoResponseDTO {
                 .id(vendedor.getId())
                 .percentualComissao(vendedor.getPercentualComissao())
                 .idEmpresa(vendedor.getEmpresa() != null ? vendedor.getEmpresa().getId() : null)
-                .qtdVendas(qtdVendas != null ? qtdVendas : 0L)
-                .valorTotalVendas(valorTotalVendas != null ? valorTotalVendas : BigDecimal.ZERO)
+                .qtdVendas(qtdVendas)
+                .valorTotalVendas(estatisticas.getValorTotalVendas())
+                .qtdVendasPendentes(estatisticas.getQtdPendentes())
+                .qtdVendasConfirmadas(estatisticas.getQtdConfirmadas())
+                .qtdVendasCanceladas(estatisticas.getQtdCanceladas())
                 .mediaComissao(mediaComissao)
                 .historicoRendimentos(historicoRendimentos)
                 // Dados do User (Nome e Email)
@@ -0,0 +1,41 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.dto;
+
+import java.math.BigDecimal;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Resultado de um item do cadastro de vendedores em lote (POST /api/vendedores/lote):
+ * os dados do vendedor criado com a senha temporária, ou a mensagem de erro.
+ * É escrito um por linha na resposta (CSV ou NDJSON).
+ */
+@Data
+@AllArgsConstructor
+public class VendedorLoteItemDTO {
+
+    private int indice; // Posição do item no envio (começa em 0; no CSV, sem contar o cabeçalho)
+    private Long idVendedor; // null se o item falhou
+    private Long idUsuario; // null se o item falhou
+    private String nome;
+    private String email;
+    private BigDecimal percentualComissao;
+    private String senhaTemporaria; // A senha gerada que o Admin deve passar ao Vendedor
+    private String erro; // null se o vendedor foi criado
+
+    public static VendedorLoteItemDTO sucesso(int indice, Vendedor vendedor, String senhaGerada) {
+        User usuario = vendedor.getUsuario();
+        return new VendedorLoteItemDTO(indice, vendedor.getId(), usuario.getId(), usuario.getNome(),
+                usuario.getEmail(), vendedor.getPercentualComissao(), senhaGerada, null);
+    }
+
+    public static VendedorLoteItemDTO erro(int indice, VendedorRequestDTO dto, String mensagem) {
+        return new VendedorLoteItemDTO(indice, null, null,
+                dto != null ? dto.getNome() : null,
+                dto != null ? dto.getEmail() : null,
+                dto != null ? dto.getPercentualComissao() : null,
+                null, mensagem);
+    }
+}
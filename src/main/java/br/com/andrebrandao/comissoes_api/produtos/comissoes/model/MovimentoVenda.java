@@ -0,0 +1,40 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import lombok.Value;
+
+/**
+ * Variação (delta) a ser aplicada nos agregados de vendas (VendaResumoMensal
+ * e VendedorEstatisticas). Cada evento do outbox (VendaEvento) gera um ou mais movimentos.
+ * Objeto imutável: NÃO é uma entidade.
+ */
+@Value
+public class MovimentoVenda {
+
+    Long empresaId;
+    Long vendedorId;
+    String mesAno; // Ex: "2024-06"
+    VendaStatus status;
+    long qtdVendas; // +1, -1 ou 0
+    BigDecimal valorVenda;
+    BigDecimal valorComissao;
+
+    /**
+     * O movimento inverso (desfaz este delta). Usado na reconciliação, para
+     * descontar os eventos do outbox que ainda não foram aplicados.
+     */
+    public MovimentoVenda negado() {
+        return new MovimentoVenda(empresaId, vendedorId, mesAno, status,
+                -qtdVendas, valorVenda.negate(), valorComissao.negate());
+    }
+
+    /**
+     * Formata o mês no padrão usado pelo resumo ("YYYY-MM").
+     */
+    public static String formatarMesAno(LocalDateTime data) {
+        return YearMonth.from(data).toString();
+    }
+}
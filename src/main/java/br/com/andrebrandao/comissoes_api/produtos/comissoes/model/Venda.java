@@ -13,9 +13,12 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -27,15 +30,25 @@ import org.hibernate.annotations.CreationTimestamp; // Para data automática
  * incluindo o valor da comissão calculado.
  */
 @Entity
-@Table(name = "venda")
+@Table(name = "venda", indexes = {
+        // Dashboard/relatórios: vendas da empresa em um intervalo de datas
+        @Index(name = "idx_venda_empresa_data", columnList = "empresa_id, data_venda"),
+        // Portal/detalhes do vendedor: vendas do vendedor por período
+        @Index(name = "idx_venda_vendedor_data", columnList = "vendedor_id, data_venda"),
+        // "Maiores vendas" da empresa (ORDER BY valor_venda DESC)
+        @Index(name = "idx_venda_empresa_valor", columnList = "empresa_id, valor_venda")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Venda {
 
+    // SEQUENCE "pooled": o Hibernate reserva 50 IDs por ida ao banco e consegue
+    // agrupar os INSERTs em lotes JDBC (com IDENTITY isso não é possível).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venda_seq")
+    @SequenceGenerator(name = "venda_seq", sequenceName = "venda_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, precision = 15, scale = 2) // Maior precisão para valor
@@ -44,6 +57,15 @@ public class Venda {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal valorComissaoCalculado;
 
+    /**
+     * Versão para "optimistic locking": duas edições concorrentes da mesma venda
+     * não se sobrescrevem (a segunda recebe 409 Conflict).
+     * O default 0 preenche as linhas já existentes quando a coluna é criada.
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long versao;
+
     @CreationTimestamp // 2. O Hibernate preenche a data/hora automaticamente
     @Column(nullable = false, updatable = false)
     private LocalDateTime dataVenda;
@@ -0,0 +1,153 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Evento do ciclo de vida de uma Venda, gravado no "outbox" na MESMA transação
+ * da venda (ou os dois são gravados, ou nenhum).
+ *
+ * O VendaEventoDispatcher consome os eventos em lotes, aplica os movimentos nos
+ * agregados (resumo mensal do Dashboard e contadores por vendedor) e apaga os
+ * eventos, tudo em uma única transação: se o processo cair no meio, o lote
+ * continua na tabela e é processado de novo.
+ *
+ * Guarda apenas IDs e valores (e não relacionamentos), como o VendaResumoMensal.
+ */
+@Entity
+@Table(name = "venda_evento",
+        indexes = @Index(name = "idx_venda_evento_empresa", columnList = "empresa_id, id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendaEvento {
+
+    // Mesmo esquema da Venda: IDs reservados em blocos, INSERTs em lote
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venda_evento_seq")
+    @SequenceGenerator(name = "venda_evento_seq", sequenceName = "venda_evento_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private VendaEventoTipo tipo;
+
+    @Column(name = "empresa_id", nullable = false)
+    private Long empresaId;
+
+    @Column(name = "vendedor_id", nullable = false)
+    private Long vendedorId;
+
+    @Column(name = "venda_id", nullable = false)
+    private Long vendaId;
+
+    @Column(name = "mes_ano", nullable = false, length = 7)
+    private String mesAno; // Mês da venda (ex: "2024-06")
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private VendaStatus status; // Status da venda depois do evento
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status_anterior", length = 20)
+    private VendaStatus statusAnterior; // Só em APROVADA/CANCELADA
+
+    @Column(name = "valor_venda", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valorVenda;
+
+    @Column(name = "valor_comissao", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valorComissao;
+
+    @Column(name = "valor_venda_anterior", precision = 15, scale = 2)
+    private BigDecimal valorVendaAnterior; // Só em VALOR_ALTERADO
+
+    @Column(name = "valor_comissao_anterior", precision = 15, scale = 2)
+    private BigDecimal valorComissaoAnterior; // Só em VALOR_ALTERADO
+
+    @CreationTimestamp
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    /**
+     * Uma nova venda foi lançada.
+     */
+    public static VendaEvento criada(Venda venda) {
+        return base(VendaEventoTipo.CRIADA, venda).build();
+    }
+
+    /**
+     * A venda mudou de status (aprovação ou cancelamento).
+     */
+    public static VendaEvento mudancaStatus(Venda venda, VendaStatus statusAnterior) {
+        VendaEventoTipo tipo = venda.getStatus() == VendaStatus.CANCELADA
+                ? VendaEventoTipo.CANCELADA
+                : VendaEventoTipo.APROVADA;
+        return base(tipo, venda).statusAnterior(statusAnterior).build();
+    }
+
+    /**
+     * O valor (e a comissão) da venda mudou.
+     */
+    public static VendaEvento valorAlterado(Venda venda, BigDecimal valorAnterior, BigDecimal comissaoAnterior) {
+        return base(VendaEventoTipo.VALOR_ALTERADO, venda)
+                .valorVendaAnterior(valorAnterior)
+                .valorComissaoAnterior(comissaoAnterior)
+                .build();
+    }
+
+    /**
+     * Converte o evento nos deltas (MovimentoVenda) a aplicar nos agregados.
+     */
+    public List<MovimentoVenda> movimentos() {
+        return switch (tipo) {
+            // Soma 1 venda no status dela
+            case CRIADA -> List.of(movimento(status, 1, valorVenda, valorComissao));
+            // Sai do status anterior e entra no novo
+            case APROVADA, CANCELADA -> List.of(
+                    movimento(statusAnterior, -1, valorVenda.negate(), valorComissao.negate()),
+                    movimento(status, 1, valorVenda, valorComissao));
+            // Aplica apenas a diferença
+            case VALOR_ALTERADO -> List.of(movimento(status, 0,
+                    valorVenda.subtract(valorVendaAnterior), valorComissao.subtract(valorComissaoAnterior)));
+        };
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private MovimentoVenda movimento(VendaStatus statusMovimento, long qtd, BigDecimal valor, BigDecimal comissao) {
+        return new MovimentoVenda(empresaId, vendedorId, mesAno, statusMovimento, qtd, valor, comissao);
+    }
+
+    private static VendaEventoBuilder base(VendaEventoTipo tipo, Venda venda) {
+        // dataVenda é preenchida pelo @CreationTimestamp no persist
+        LocalDateTime data = venda.getDataVenda() != null ? venda.getDataVenda() : LocalDateTime.now();
+        return VendaEvento.builder()
+                .tipo(tipo)
+                .empresaId(venda.getEmpresa().getId())
+                .vendedorId(venda.getVendedor().getId())
+                .vendaId(venda.getId())
+                .mesAno(MovimentoVenda.formatarMesAno(data))
+                .status(venda.getStatus())
+                .valorVenda(venda.getValorVenda())
+                .valorComissao(venda.getValorComissaoCalculado());
+    }
+}
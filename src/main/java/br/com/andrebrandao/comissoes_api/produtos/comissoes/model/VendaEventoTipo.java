@@ -0,0 +1,27 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.model;
+
+/**
+ * Tipos de evento do ciclo de vida de uma Venda gravados no outbox (VendaEvento).
+ */
+public enum VendaEventoTipo {
+
+    /**
+     * Uma nova venda foi lançada (pelo Admin, pelo Vendedor ou em lote).
+     */
+    CRIADA,
+
+    /**
+     * A venda PENDENTE foi aprovada pelo Admin (passou a CONFIRMADA).
+     */
+    APROVADA,
+
+    /**
+     * A venda foi cancelada pelo Admin.
+     */
+    CANCELADA,
+
+    /**
+     * O valor da venda (e, portanto, a comissão) foi alterado.
+     */
+    VALOR_ALTERADO
+}
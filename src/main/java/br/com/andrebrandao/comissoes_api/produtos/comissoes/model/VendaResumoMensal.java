@@ -0,0 +1,66 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.model;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Agregado mensal (materializado) das vendas de uma empresa, por vendedor e status.
+ * É mantido incrementalmente pelo DashboardService a cada lançamento, aprovação,
+ * cancelamento ou alteração de valor, para que o Dashboard não precise
+ * reagrupar todo o histórico de vendas a cada requisição.
+ *
+ * Guarda apenas IDs (e não relacionamentos): é uma tabela de leitura/relatório.
+ */
+@Entity
+@Table(name = "venda_resumo_mensal",
+        uniqueConstraints = @UniqueConstraint(name = "uk_venda_resumo_mensal",
+                columnNames = { "empresa_id", "vendedor_id", "mes_ano", "status" }),
+        indexes = @Index(name = "idx_venda_resumo_empresa_mes", columnList = "empresa_id, mes_ano"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendaResumoMensal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venda_resumo_mensal_seq")
+    @SequenceGenerator(name = "venda_resumo_mensal_seq", sequenceName = "venda_resumo_mensal_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "empresa_id", nullable = false)
+    private Long empresaId;
+
+    @Column(name = "vendedor_id", nullable = false)
+    private Long vendedorId;
+
+    @Column(name = "mes_ano", nullable = false, length = 7)
+    private String mesAno; // Ex: "2024-06"
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VendaStatus status;
+
+    @Column(nullable = false)
+    private long qtdVendas;
+
+    @Column(nullable = false, precision = 17, scale = 2)
+    private BigDecimal valorTotal;
+
+    @Column(nullable = false, precision = 17, scale = 2)
+    private BigDecimal valorComissao;
+}
@@ -14,6 +14,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -33,7 +34,8 @@ import lombok.NoArgsConstructor;
 public class Vendedor {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vendedor_seq")
+    @SequenceGenerator(name = "vendedor_seq", sequenceName = "vendedor_seq", allocationSize = 50)
     private Long id;
 
     @Column(precision = 5, scale = 2) // Ex: 123.45% (precisa ajustar se quiser > 999%)
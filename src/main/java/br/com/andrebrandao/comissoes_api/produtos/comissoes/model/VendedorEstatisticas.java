@@ -0,0 +1,69 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.model;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contadores (materializados) das vendas de um Vendedor: uma linha por vendedor.
+ * Mantidos pelo VendedorEstatisticasService na mesma transação de cada lançamento,
+ * aprovação, cancelamento ou alteração de valor, para que os endpoints de vendedor
+ * leiam uma linha em vez de agregar a tabela venda.
+ *
+ * Os totais consideram TODAS as vendas (qualquer status), como as antigas
+ * consultas COUNT/SUM por vendedor; a divisão por status fica nos campos qtdXxx.
+ */
+@Entity
+@Table(name = "vendedor_estatisticas",
+        indexes = @Index(name = "idx_vendedor_estatisticas_empresa", columnList = "empresa_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class VendedorEstatisticas {
+
+    @Id
+    @Column(name = "vendedor_id")
+    private Long vendedorId; // Mesmo ID do Vendedor (relação 1-para-1, sem FK de entidade)
+
+    @Column(name = "empresa_id", nullable = false)
+    private Long empresaId;
+
+    @Column(nullable = false)
+    private long qtdVendas;
+
+    @Column(nullable = false, precision = 17, scale = 2)
+    private BigDecimal valorTotalVendas;
+
+    @Column(nullable = false, precision = 17, scale = 2)
+    private BigDecimal valorTotalComissao;
+
+    @Column(nullable = false)
+    private long qtdPendentes;
+
+    @Column(nullable = false)
+    private long qtdConfirmadas;
+
+    @Column(nullable = false)
+    private long qtdCanceladas;
+
+    /**
+     * Linha zerada para um vendedor sem vendas.
+     */
+    public static VendedorEstatisticas vazia(Long vendedorId, Long empresaId) {
+        return VendedorEstatisticas.builder()
+                .vendedorId(vendedorId)
+                .empresaId(empresaId)
+                .valorTotalVendas(BigDecimal.ZERO)
+                .valorTotalComissao(BigDecimal.ZERO)
+                .build();
+    }
+}
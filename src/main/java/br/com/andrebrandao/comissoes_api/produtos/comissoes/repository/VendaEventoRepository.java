@@ -0,0 +1,38 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaEvento;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repositório do outbox de eventos de venda (VendaEvento).
+ */
+public interface VendaEventoRepository extends JpaRepository<VendaEvento, Long> {
+
+    /**
+     * Próximo lote de eventos da empresa, em ordem de gravação, com lock de escrita.
+     * "lock.timeout = -2" = SKIP LOCKED: linhas já travadas por outro despachante
+     * (outra instância da aplicação) são puladas, em vez de esperar por elas.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM VendaEvento e WHERE e.empresaId = :empresaId ORDER BY e.id")
+    List<VendaEvento> findLoteParaProcessar(@Param("empresaId") Long empresaId, Pageable pageable);
+
+    /**
+     * Empresas com eventos ainda não processados.
+     */
+    @Query("SELECT DISTINCT e.empresaId FROM VendaEvento e")
+    List<Long> findEmpresaIdsPendentes();
+
+    List<VendaEvento> findByEmpresaId(Long empresaId);
+}
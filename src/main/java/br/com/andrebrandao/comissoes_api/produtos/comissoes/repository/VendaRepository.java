@@ -1,17 +1,20 @@
 package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List; // 1. Importar List
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
 
 /**
  * Repositório para a entidade Venda.
  */
-public interface VendaRepository extends JpaRepository<Venda, Long> {
+public interface VendaRepository extends JpaRepository<Venda, Long>, VendaRepositoryCustom {
 
     /**
      * Busca todas as Vendas que pertencem a uma Empresa específica.
@@ -43,8 +46,10 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
     // TODO: Adicionar métodos com filtros de data (findByEmpresaIdAndDataVendaBetween)
     // quando formos fazer os relatórios.
 
-    // SQL Nativo para agregados do mês atual
-    @Query(value = "SELECT " +
+    // SQL Nativo para agregados de um mês.
+    // Filtro em intervalo semiaberto [inicio, fim) sobre a coluna "crua" data_venda:
+    // assim o Postgres usa o índice idx_venda_empresa_data (com TO_CHAR(...) não usava).
+    String SQL_TOTAIS_DO_MES = "SELECT " +
            "    COALESCE(SUM(v.valor_venda), 0) AS totalVendas, " +
            "    COALESCE(SUM(v.valor_comissao_calculado), 0) AS totalComissoes, " +
            "    COUNT(v.id) AS qtdVendas " +
@@ -52,12 +57,10 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
            "    venda v " +
            "WHERE " +
            "    v.empresa_id = :empresaId AND " +
-           "    TO_CHAR(v.data_venda, 'YYYY-MM') = TO_CHAR(CURRENT_TIMESTAMP, 'YYYY-MM')",
-           nativeQuery = true)
-    List<Object[]> findTotaisDoMes(Long empresaId);
+           "    v.data_venda >= :inicio AND v.data_venda < :fim";
 
-    // SQL Nativo para Ranking de Vendedores (mês atual)
-    @Query(value = "SELECT " +
+    // SQL Nativo para Ranking de Vendedores de um mês (mesmo filtro por intervalo)
+    String SQL_RANKING_VENDEDORES = "SELECT " +
            "    u.nome AS nomeVendedor, " +
            "    vendedor.id AS idVendedor, " +
            "    COALESCE(SUM(venda.valor_venda), 0) AS valorTotal, " +
@@ -70,14 +73,26 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
            "    usuario u ON u.id = vendedor.user_id " +
            "WHERE " +
            "    venda.empresa_id = :empresaId AND " +
-           "    TO_CHAR(venda.data_venda, 'YYYY-MM') = TO_CHAR(CURRENT_TIMESTAMP, 'YYYY-MM') " +
+           "    venda.data_venda >= :inicio AND venda.data_venda < :fim " +
            "GROUP BY " +
            "    u.nome, vendedor.id " +
            "ORDER BY " +
            "    valorTotal DESC, qtdVendas DESC " +
-           "LIMIT 5",
-           nativeQuery = true)
-    List<Object[]> findRankingVendedores(Long empresaId);
+           "LIMIT 5";
+
+    /**
+     * Totais (valor, comissão e quantidade) das vendas da empresa no intervalo [inicio, fim).
+     */
+    @Query(value = SQL_TOTAIS_DO_MES, nativeQuery = true)
+    List<Object[]> findTotaisDoMes(@Param("empresaId") Long empresaId,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
+
+    /**
+     * Top 5 vendedores (por valor vendido) da empresa no intervalo [inicio, fim).
+     */
+    @Query(value = SQL_RANKING_VENDEDORES, nativeQuery = true)
+    List<Object[]> findRankingVendedores(@Param("empresaId") Long empresaId,
+            @Param("inicio") LocalDateTime inicio, @Param("fim") LocalDateTime fim);
 
     // HQL para buscar as N maiores vendas (necessita JOIN FETCH)
     // Ordena por valor e limita o resultado (ex: 5)
@@ -125,4 +140,59 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
      */
     Optional<Venda> findByEmpresaIdAndId(Long empresaId, Long id);
 
-}
\ No newline at end of file
+    /**
+     * Busca várias Vendas da empresa de uma vez (IN), já com Vendedor e User.
+     * Usado na edição em lote (PUT /api/vendas/batch).
+     */
+    @Query("SELECT v FROM Venda v JOIN FETCH v.vendedor vend JOIN FETCH vend.usuario u " +
+           "WHERE v.empresa.id = :empresaId AND v.id IN :ids")
+    List<Venda> findByEmpresaIdAndIdInComVendedor(@Param("empresaId") Long empresaId,
+            @Param("ids") Collection<Long> ids);
+
+    /**
+     * Agrupa TODAS as vendas da empresa por vendedor, mês e status.
+     * Usado apenas para (re)construir o resumo mensal (VendaResumoMensal),
+     * nunca no caminho de leitura do Dashboard.
+     * Colunas: vendedorId, ano, mes, status, qtdVendas, valorTotal, valorComissao.
+     */
+    @Query("SELECT v.vendedor.id, YEAR(v.dataVenda), MONTH(v.dataVenda), v.status, " +
+           "    COUNT(v), SUM(v.valorVenda), SUM(v.valorComissaoCalculado) " +
+           "FROM Venda v " +
+           "WHERE v.empresa.id = :empresaId " +
+           "GROUP BY v.vendedor.id, YEAR(v.dataVenda), MONTH(v.dataVenda), v.status")
+    List<Object[]> findAgregadoMensalPorEmpresa(Long empresaId);
+
+    /**
+     * Agrupa as vendas da empresa por vendedor e status (quantidade, valor e comissão).
+     * Usado para (re)construir e conferir os contadores de VendedorEstatisticas.
+     */
+    @Query("SELECT v.vendedor.id, v.status, COUNT(v), SUM(v.valorVenda), SUM(v.valorComissaoCalculado) " +
+           "FROM Venda v WHERE v.empresa.id = :empresaId GROUP BY v.vendedor.id, v.status")
+    List<Object[]> findAgregadoPorVendedorEStatus(@Param("empresaId") Long empresaId);
+
+    /**
+     * Totais das vendas já arquivadas (fora da tabela venda), por vendedor e status.
+     * Somados aos de findAgregadoPorVendedorEStatus na reconciliação dos contadores.
+     * Colunas: vendedorId, status (texto), qtdVendas, valorTotal, valorComissao.
+     */
+    @Query(value = "SELECT vendedor_id, status, SUM(qtd_vendas), SUM(valor_total), SUM(valor_comissao) " +
+           "FROM venda_arquivada_resumo WHERE empresa_id = :empresaId GROUP BY vendedor_id, status",
+           nativeQuery = true)
+    List<Object[]> findAgregadoArquivadoPorVendedorEStatus(@Param("empresaId") Long empresaId);
+
+    /**
+     * Totais das vendas já arquivadas, por vendedor, mês e status.
+     * Somados aos de findAgregadoMensalPorEmpresa na reconstrução do resumo mensal.
+     * Colunas: vendedorId, mesAno ("yyyy-MM"), status (texto), qtdVendas, valorTotal, valorComissao.
+     */
+    @Query(value = "SELECT vendedor_id, mes_ano, status, qtd_vendas, valor_total, valor_comissao " +
+           "FROM venda_arquivada_resumo WHERE empresa_id = :empresaId", nativeQuery = true)
+    List<Object[]> findAgregadoMensalArquivadoPorEmpresa(@Param("empresaId") Long empresaId);
+
+    /**
+     * IDs das empresas que possuem ao menos uma venda.
+     */
+    @Query("SELECT DISTINCT v.empresa.id FROM Venda v")
+    List<Long> findEmpresaIdsComVendas();
+
+}
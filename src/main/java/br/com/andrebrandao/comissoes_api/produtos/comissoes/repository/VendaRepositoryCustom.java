@@ -0,0 +1,42 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaFiltroDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendaListagemProjection;
+
+/**
+ * Consultas de Venda que não cabem em um @Query fixo (filtros opcionais).
+ * Implementada em VendaRepositoryImpl e exposta pelo próprio VendaRepository.
+ */
+public interface VendaRepositoryCustom {
+
+    /**
+     * Busca uma página de vendas da empresa, ordenada por (dataVenda DESC, id DESC),
+     * usando paginação por cursor (keyset): em vez de OFFSET, começa logo
+     * "depois" da última venda da página anterior.
+     *
+     * @param empresaId  O ID da Empresa (Multi-Tenant).
+     * @param filtro     Os filtros opcionais (status, vendedor, período, valor).
+     * @param cursorData A dataVenda da última venda da página anterior (ou null).
+     * @param cursorId   O id da última venda da página anterior (ou null).
+     * @param limite     Quantidade máxima de linhas.
+     * @return As linhas da página, já projetadas em DTO.
+     */
+    List<VendaListagemProjection> buscarPagina(Long empresaId, VendaFiltroDTO filtro,
+            LocalDateTime cursorData, Long cursorId, int limite);
+
+    /**
+     * Percorre TODAS as vendas da empresa que atendem aos filtros, em fluxo
+     * (cursor JDBC "forward-only" com fetch size), sem montar uma lista em memória.
+     * Deve ser consumido dentro de uma transação e fechado ao final (try-with-resources).
+     *
+     * @param empresaId O ID da Empresa (Multi-Tenant).
+     * @param filtro    Os filtros opcionais (cursor e limite são ignorados).
+     * @param fetchSize Quantas linhas o driver busca por ida ao banco.
+     * @return O Stream das linhas, já projetadas em DTO (não gerenciadas).
+     */
+    Stream<VendaListagemProjection> streamExportacao(Long empresaId, VendaFiltroDTO filtro, int fetchSize);
+}
@@ -0,0 +1,115 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaFiltroDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendaListagemProjection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Implementação das consultas customizadas de Venda (ver VendaRepositoryCustom).
+ * O Spring Data encontra esta classe pelo sufixo "Impl".
+ */
+class VendaRepositoryImpl implements VendaRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Mesma projeção da listagem e da exportação
+    private static final String SELECT_LISTAGEM =
+            "SELECT new br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendaListagemProjection(" +
+            "    v.id, v.valorVenda, v.descricaoVenda, v.valorComissaoCalculado, v.dataVenda, v.status, v.versao, " +
+            "    vend.id, vend.percentualComissao, u.nome, u.email) " +
+            "FROM Venda v JOIN v.vendedor vend JOIN vend.usuario u " +
+            "WHERE v.empresa.id = :empresaId";
+
+    @Override
+    public List<VendaListagemProjection> buscarPagina(Long empresaId, VendaFiltroDTO filtro,
+            LocalDateTime cursorData, Long cursorId, int limite) {
+
+        // 1. Base da consulta: projeção direto em DTO (sem entidades gerenciadas)
+        StringBuilder jpql = new StringBuilder(SELECT_LISTAGEM);
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("empresaId", empresaId);
+
+        // 2. Filtros opcionais
+        adicionarFiltros(jpql, parametros, filtro);
+
+        // 3. Keyset: só linhas "depois" do cursor na ordem (dataVenda DESC, id DESC)
+        if (cursorData != null && cursorId != null) {
+            jpql.append(" AND (v.dataVenda < :cursorData OR (v.dataVenda = :cursorData AND v.id < :cursorId))");
+            parametros.put("cursorData", cursorData);
+            parametros.put("cursorId", cursorId);
+        }
+
+        jpql.append(" ORDER BY v.dataVenda DESC, v.id DESC");
+
+        // 4. Executa com LIMIT
+        TypedQuery<VendaListagemProjection> query = entityManager
+                .createQuery(jpql.toString(), VendaListagemProjection.class)
+                .setMaxResults(limite);
+        parametros.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @Override
+    public Stream<VendaListagemProjection> streamExportacao(Long empresaId, VendaFiltroDTO filtro, int fetchSize) {
+        // 1. Mesma consulta da listagem, sem cursor e sem LIMIT
+        StringBuilder jpql = new StringBuilder(SELECT_LISTAGEM);
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("empresaId", empresaId);
+        adicionarFiltros(jpql, parametros, filtro);
+        jpql.append(" ORDER BY v.dataVenda DESC, v.id DESC");
+
+        // 2. Fetch size: o driver traz as linhas aos poucos (no Postgres, exige transação aberta).
+        //    A projeção em DTO não passa pelo cache de primeiro nível do Hibernate.
+        TypedQuery<VendaListagemProjection> query = entityManager
+                .createQuery(jpql.toString(), VendaListagemProjection.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        parametros.forEach(query::setParameter);
+        return query.getResultStream();
+    }
+
+    /**
+     * Acrescenta ao WHERE apenas os filtros informados.
+     * Período: [dataInicio 00:00, dia seguinte a dataFim 00:00), índice-friendly.
+     */
+    static void adicionarFiltros(StringBuilder jpql, Map<String, Object> parametros, VendaFiltroDTO filtro) {
+        if (filtro == null) {
+            return;
+        }
+        if (filtro.getStatus() != null) {
+            jpql.append(" AND v.status = :status");
+            parametros.put("status", filtro.getStatus());
+        }
+        if (filtro.getVendedorId() != null) {
+            jpql.append(" AND vend.id = :vendedorId");
+            parametros.put("vendedorId", filtro.getVendedorId());
+        }
+        if (filtro.getDataInicio() != null) {
+            jpql.append(" AND v.dataVenda >= :dataInicio");
+            parametros.put("dataInicio", filtro.getDataInicio().atStartOfDay());
+        }
+        if (filtro.getDataFim() != null) {
+            jpql.append(" AND v.dataVenda < :dataFim");
+            parametros.put("dataFim", filtro.getDataFim().plusDays(1).atStartOfDay());
+        }
+        if (filtro.getValorMin() != null) {
+            jpql.append(" AND v.valorVenda >= :valorMin");
+            parametros.put("valorMin", filtro.getValorMin());
+        }
+        if (filtro.getValorMax() != null) {
+            jpql.append(" AND v.valorVenda <= :valorMax");
+            parametros.put("valorMax", filtro.getValorMax());
+        }
+    }
+}
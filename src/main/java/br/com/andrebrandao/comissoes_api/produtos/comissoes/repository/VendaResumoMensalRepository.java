@@ -0,0 +1,60 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaResumoMensal;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.HistoricoRendimentoProjection;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.ResumoMensalVendedorProjection;
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repositório para o agregado mensal de vendas (VendaResumoMensal).
+ */
+public interface VendaResumoMensalRepository extends JpaRepository<VendaResumoMensal, Long> {
+
+    /**
+     * Busca a linha do resumo com lock de escrita (SELECT ... FOR UPDATE),
+     * para que dois lançamentos simultâneos não percam incrementos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<VendaResumoMensal> findByEmpresaIdAndVendedorIdAndMesAnoAndStatus(
+            Long empresaId, Long vendedorId, String mesAno, VendaStatus status);
+
+    /**
+     * Todas as linhas do resumo da empresa, já com o nome do vendedor.
+     * O volume depende de (meses x vendedores x status), e NÃO da quantidade de vendas.
+     */
+    @Query("SELECT new br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.ResumoMensalVendedorProjection(" +
+           "    r.mesAno, r.vendedorId, u.nome, r.qtdVendas, r.valorTotal, r.valorComissao) " +
+           "FROM VendaResumoMensal r, Vendedor vend JOIN vend.usuario u " +
+           "WHERE vend.id = r.vendedorId AND r.empresaId = :empresaId")
+    List<ResumoMensalVendedorProjection> findResumoComVendedorByEmpresaId(@Param("empresaId") Long empresaId);
+
+    /**
+     * Histórico mensal de um vendedor (valor vendido e comissão por mês, todos os status),
+     * lido do resumo: o custo depende da quantidade de meses, e não de vendas, e a tabela
+     * venda (particionada ou não) não é varrida.
+     */
+    @Query("SELECT r.mesAno AS mesAno, SUM(r.valorTotal) AS valorVendido, SUM(r.valorComissao) AS valorComissao " +
+           "FROM VendaResumoMensal r " +
+           "WHERE r.empresaId = :empresaId AND r.vendedorId = :vendedorId " +
+           "GROUP BY r.mesAno " +
+           "HAVING SUM(r.qtdVendas) > 0 " +
+           "ORDER BY r.mesAno DESC")
+    List<HistoricoRendimentoProjection> findHistoricoPorVendedor(@Param("empresaId") Long empresaId,
+            @Param("vendedorId") Long vendedorId);
+
+    boolean existsByEmpresaId(Long empresaId);
+
+    @Modifying
+    @Query("DELETE FROM VendaResumoMensal r WHERE r.empresaId = :empresaId")
+    void deleteByEmpresaId(@Param("empresaId") Long empresaId);
+}
@@ -0,0 +1,42 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendedorEstatisticas;
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repositório para os contadores por vendedor (VendedorEstatisticas).
+ */
+public interface VendedorEstatisticasRepository extends JpaRepository<VendedorEstatisticas, Long> {
+
+    /**
+     * Busca a linha do vendedor com lock de escrita (SELECT ... FOR UPDATE),
+     * para que duas operações simultâneas não percam incrementos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM VendedorEstatisticas e WHERE e.vendedorId = :vendedorId")
+    Optional<VendedorEstatisticas> findByIdParaAtualizar(@Param("vendedorId") Long vendedorId);
+
+    List<VendedorEstatisticas> findByEmpresaId(Long empresaId);
+
+    /**
+     * Todas as linhas da empresa com lock de escrita, sempre na mesma ordem (reconciliação).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM VendedorEstatisticas e WHERE e.empresaId = :empresaId ORDER BY e.vendedorId")
+    List<VendedorEstatisticas> findByEmpresaIdParaAtualizar(@Param("empresaId") Long empresaId);
+
+    /**
+     * Empresas com pelo menos um vendedor ainda sem linha de estatísticas.
+     */
+    @Query("SELECT DISTINCT v.empresa.id FROM Vendedor v " +
+           "WHERE NOT EXISTS (SELECT 1 FROM VendedorEstatisticas e WHERE e.vendedorId = v.id)")
+    List<Long> findEmpresaIdsComVendedorSemEstatisticas();
+}
@@ -2,13 +2,12 @@ package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.HistoricoRendimentoProjection;
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendedorComVendasProjection; // NOVO IMPORT
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,43 +17,18 @@ public interface VendedorRepository extends JpaRepository<Vendedor, Long> {
     List<Vendedor> findByEmpresaId(Long empresaId);
     Optional<Vendedor> findByEmpresaIdAndId(Long empresaId, Long id);
 
-    // Contagem para busca individual/atualização
-    @Query("SELECT COUNT(v) FROM Venda v WHERE v.vendedor.id = :vendedorId")
-    Long contarVendasPorVendedorId(Long vendedorId);
+    // Resolve vários vendedores da empresa com UMA consulta (IN) - lançamento em lote
+    List<Vendedor> findByEmpresaIdAndIdIn(Long empresaId, Collection<Long> ids);
 
-    // Soma para busca individual/atualização
-    @Query("SELECT SUM(v.valorVenda) FROM Venda v WHERE v.vendedor.id = :vendedorId")
-    BigDecimal somarVendasPorVendedorId(Long vendedorId); // NOVO MÉTODO PARA SOMA
+    // Listagem: vendedores da empresa já com o User (nome/email), em UMA consulta.
+    // Os contadores de vendas vêm de VendedorEstatisticas (sem agregar a tabela venda).
+    @Query("SELECT v FROM Vendedor v JOIN FETCH v.usuario WHERE v.empresa.id = :empresaId")
+    List<Vendedor> findByEmpresaIdComUsuario(@Param("empresaId") Long empresaId);
 
-    // Consulta OTIMIZADA para listagem (resolve N+1)
-    @Query("SELECT NEW br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendedorComVendasProjection(" + 
-            "v, " + 
-            "COUNT(vn.id), " + 
-            "SUM(vn.valorVenda)" +
-            ") " +
-            "FROM Vendedor v " +
-            "LEFT JOIN v.usuario u " + 
-            "LEFT JOIN Venda vn ON vn.vendedor = v " +
-            "WHERE v.empresa.id = :empresaId " +
-            "GROUP BY v.id, v.percentualComissao, u.id, u.nome, u.email") // Adicionar campos do User ao GROUP BY
-    List<VendedorComVendasProjection> findAllWithVendasCount(Long empresaId);
+    // IDs das empresas com pelo menos um vendedor (verificação dos contadores)
+    @Query("SELECT DISTINCT v.empresa.id FROM Vendedor v")
+    List<Long> findEmpresaIdsComVendedores();
     
-    // VendedorRepository.java (Apenas a Query findHistoricoRendimentosMensais)
-    @Query(value = "SELECT " +
-           "    TO_CHAR(v.data_venda, 'YYYY-MM') AS mesAno, " + // Coluna 1
-           "    COALESCE(SUM(v.valor_venda), 0) AS valorVendido, " + // Coluna 2
-           "    COALESCE(SUM(v.valor_comissao_calculado), 0) AS valorComissao " + // Coluna 3
-           "FROM " +
-           "    venda v " +
-           "WHERE " +
-           "    v.vendedor_id = :vendedorId " +
-           "GROUP BY " +
-           "    TO_CHAR(v.data_venda, 'YYYY-MM') " +
-           "ORDER BY " +
-           "    mesAno DESC",
-           nativeQuery = true) // <--- ATENÇÃO: AGORA É SQL PURO
-    List<HistoricoRendimentoProjection> findHistoricoRendimentosMensais(Long vendedorId);
-
     /**
      * 2. NOVO MÉTODO:
      * Busca um Vendedor específico pelo ID do seu User (usuário) associado.
@@ -0,0 +1,53 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Projeção de uma linha do resumo mensal (VendaResumoMensal) já com o nome do vendedor.
+ * Usada pelo Dashboard para montar totais, ranking e histórico em uma única consulta.
+ */
+public class ResumoMensalVendedorProjection {
+
+    private final String mesAno;
+    private final Long vendedorId;
+    private final String nomeVendedor;
+    private final long qtdVendas;
+    private final BigDecimal valorTotal;
+    private final BigDecimal valorComissao;
+
+    // Construtor usado na consulta JPQL (SELECT NEW ...)
+    public ResumoMensalVendedorProjection(String mesAno, Long vendedorId, String nomeVendedor,
+            long qtdVendas, BigDecimal valorTotal, BigDecimal valorComissao) {
+        this.mesAno = mesAno;
+        this.vendedorId = vendedorId;
+        this.nomeVendedor = nomeVendedor;
+        this.qtdVendas = qtdVendas;
+        this.valorTotal = valorTotal;
+        this.valorComissao = valorComissao;
+    }
+
+    // Getters
+    public String getMesAno() {
+        return mesAno;
+    }
+
+    public Long getVendedorId() {
+        return vendedorId;
+    }
+
+    public String getNomeVendedor() {
+        return nomeVendedor;
+    }
+
+    public long getQtdVendas() {
+        return qtdVendas;
+    }
+
+    public BigDecimal getValorTotal() {
+        return valorTotal;
+    }
+
+    public BigDecimal getValorComissao() {
+        return valorComissao;
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+
+/**
+ * Projeção DTO usada na listagem paginada de Vendas.
+ * Traz apenas as colunas exibidas, sem carregar entidades gerenciadas.
+ */
+public class VendaListagemProjection {
+
+    private final Long id;
+    private final BigDecimal valorVenda;
+    private final String descricaoVenda;
+    private final BigDecimal valorComissaoCalculado;
+    private final LocalDateTime dataVenda;
+    private final VendaStatus status;
+    private final Long versao;
+    private final Long vendedorId;
+    private final BigDecimal percentualComissao;
+    private final String nomeVendedor;
+    private final String emailVendedor;
+
+    // Construtor usado na consulta JPQL (SELECT NEW ...)
+    public VendaListagemProjection(Long id, BigDecimal valorVenda, String descricaoVenda,
+            BigDecimal valorComissaoCalculado, LocalDateTime dataVenda, VendaStatus status, Long versao,
+            Long vendedorId, BigDecimal percentualComissao, String nomeVendedor, String emailVendedor) {
+        this.id = id;
+        this.valorVenda = valorVenda;
+        this.descricaoVenda = descricaoVenda;
+        this.valorComissaoCalculado = valorComissaoCalculado;
+        this.dataVenda = dataVenda;
+        this.status = status;
+        this.versao = versao;
+        this.vendedorId = vendedorId;
+        this.percentualComissao = percentualComissao;
+        this.nomeVendedor = nomeVendedor;
+        this.emailVendedor = emailVendedor;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public BigDecimal getValorVenda() {
+        return valorVenda;
+    }
+
+    public String getDescricaoVenda() {
+        return descricaoVenda;
+    }
+
+    public BigDecimal getValorComissaoCalculado() {
+        return valorComissaoCalculado;
+    }
+
+    public LocalDateTime getDataVenda() {
+        return dataVenda;
+    }
+
+    public VendaStatus getStatus() {
+        return status;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public Long getVendedorId() {
+        return vendedorId;
+    }
+
+    public BigDecimal getPercentualComissao() {
+        return percentualComissao;
+    }
+
+    public String getNomeVendedor() {
+        return nomeVendedor;
+    }
+
+    public String getEmailVendedor() {
+        return emailVendedor;
+    }
+}
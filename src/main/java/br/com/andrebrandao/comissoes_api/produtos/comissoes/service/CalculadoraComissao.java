@@ -0,0 +1,33 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Regra única de cálculo de comissão (antes repetida em cada método do VendaService).
+ */
+public final class CalculadoraComissao {
+
+    private static final BigDecimal CEM = new BigDecimal("100");
+
+    private CalculadoraComissao() {
+    }
+
+    /**
+     * Calcula a comissão: valorVenda * percentual / 100, com 2 casas decimais
+     * e arredondamento HALF_UP.
+     *
+     * @param valorVenda O valor da venda.
+     * @param percentualComissao O percentual do vendedor (null = 0%).
+     * @return O valor da comissão.
+     */
+    public static BigDecimal calcular(BigDecimal valorVenda, BigDecimal percentualComissao) {
+        if (percentualComissao == null) {
+            // Vendedor sem percentual definido: assume 0 por segurança
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return valorVenda
+                .multiply(percentualComissao)
+                .divide(CEM, 2, RoundingMode.HALF_UP);
+    }
+}
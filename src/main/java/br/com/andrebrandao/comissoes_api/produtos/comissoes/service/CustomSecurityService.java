@@ -2,69 +2,66 @@ package br.com.andrebrandao.comissoes_api.produtos.comissoes.service; // Verifiq
 
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional; // Importante
 
-import br.com.andrebrandao.comissoes_api.core.model.Empresa;
-import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.service.ModulosAtivosCacheService;
 import br.com.andrebrandao.comissoes_api.security.model.User; // Seu UserDetails
+import br.com.andrebrandao.comissoes_api.security.model.UsuarioAutenticado;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 
-import java.util.Set; // Import necessário para Set
-
 @Service("customSecurityService") // Define o nome do Bean para usar no @PreAuthorize
 @RequiredArgsConstructor
 public class CustomSecurityService {
 
-    @PersistenceContext
-    private EntityManager entityManager; // Para re-anexar entidades se necessário
+    // Cache das chaves dos módulos por empresa (evita merge + join a cada requisição)
+    private final ModulosAtivosCacheService modulosAtivosCacheService;
+
+    private final MeterRegistry meterRegistry;
 
     /**
      * Verifica se o usuário autenticado pertence a uma empresa que possui um módulo específico ativo.
-     * Executado dentro de uma transação para permitir o carregamento LAZY dos módulos.
+     * A consulta vai ao cache de módulos por empresa; o banco só é acessado no cache miss.
      *
      * @param authentication O objeto Authentication do Spring Security (contém o User logado).
      * @param nomeChaveModulo A 'chave' (String) do módulo a ser verificado (ex: "COMISSAO_CORE").
      * @return true se o usuário tem o módulo, false caso contrário.
      */
-    @Transactional(readOnly = true) // Abre uma transação apenas para leitura
+    @Timed("comissoes.seguranca.has_modulo")
     public boolean hasModulo(Authentication authentication, String nomeChaveModulo) {
-        // Verifica se a autenticação é válida e se o principal é do tipo User
-        if (authentication == null || !(authentication.getPrincipal() instanceof User)) {
+        boolean permitido = verificarModulo(authentication, nomeChaveModulo);
+
+        // Contagem de acessos liberados/negados por módulo (chaves são poucas: cardinalidade baixa)
+        meterRegistry.counter("comissoes.seguranca.modulo.verificacoes",
+                "modulo", nomeChaveModulo, "resultado", permitido ? "permitido" : "negado").increment();
+        return permitido;
+    }
+
+    private boolean verificarModulo(Authentication authentication, String nomeChaveModulo) {
+        if (authentication == null) {
             return false;
         }
 
-        User user = (User) authentication.getPrincipal();
-        
-        // Garante que o User está anexado à sessão atual do Hibernate.
-        // Isso é crucial se o User foi carregado em outra transação (ex: no login).
-        User managedUser = entityManager.merge(user); 
-        
-        Empresa empresa = managedUser.getEmpresa();
-        
-        // Verifica se o usuário tem uma empresa associada
-        if (empresa == null) {
-            return false;
+        // 1. Descobre a empresa do principal (entidade User ou principal stateless)
+        Long empresaId = null;
+        if (authentication.getPrincipal() instanceof User user && user.getEmpresa() != null) {
+            empresaId = user.getEmpresa().getId();
+        } else if (authentication.getPrincipal() instanceof UsuarioAutenticado usuarioAutenticado) {
+            // Modo stateless: o claim "modulos" (assinado no login) é o teto do token.
+            // Um módulo ativado depois do login só vale após um novo login.
+            if (!usuarioAutenticado.getModulos().contains(nomeChaveModulo)) {
+                return false;
+            }
+            empresaId = usuarioAutenticado.getEmpresaId();
         }
-        
-        // Carrega explicitamente a coleção de módulos dentro da transação.
-        // Isso resolve a LazyInitializationException.
-        // Usamos Hibernate.initialize ou apenas acessamos a coleção.
-        Set<Modulo> modulosAtivos = empresa.getModulosAtivos(); 
-        
-        if (modulosAtivos == null || modulosAtivos.isEmpty()) {
+
+        // 2. Usuário sem empresa (ex: Super Admin) não tem módulos
+        if (empresaId == null) {
             return false;
         }
 
-        // Itera sobre os módulos ativos (agora carregados) para encontrar a chave
-        for (Modulo modulo : modulosAtivos) {
-            if (nomeChaveModulo.equals(modulo.getChave())) {
-                return true; // Encontrou o módulo!
-            }
-        }
-        
-        return false; // Não encontrou o módulo
+        // 3. Lookup no cache (um módulo removido deixa de valer mesmo para tokens que ainda o listam)
+        return modulosAtivosCacheService.possuiModulo(empresaId, nomeChaveModulo);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,396 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.andrebrandao.comissoes_api.config.datasource.ConsultaRelatorio;
+import br.com.andrebrandao.comissoes_api.config.datasource.TempoLimiteComandoService;
+import br.com.andrebrandao.comissoes_api.core.util.TransacaoUtils;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.DashboardResponseDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.HistoricoRendimentoDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaDetalheDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorRankingDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.MovimentoVenda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaEvento;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaResumoMensal;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.ResumoMensalVendedorProjection;
+import br.com.andrebrandao.comissoes_api.security.service.TenantService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Serviço do Dashboard Gerencial.
+ *
+ * Em vez de reagrupar todas as vendas da empresa a cada requisição, o Dashboard
+ * é montado a partir do resumo mensal materializado (VendaResumoMensal), que é
+ * atualizado incrementalmente, em segundo plano, a partir do outbox de eventos
+ * de venda (VendaEventoService -> registrarMovimentos).
+ * O resultado ainda fica em um snapshot em memória por empresa, descartado
+ * após o commit de qualquer movimento daquela empresa.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardService {
+
+    private static final int TAMANHO_RANKING = 5;
+
+    private final VendaRepository vendaRepository;
+    private final VendaResumoMensalRepository vendaResumoMensalRepository;
+    private final VendaEventoRepository vendaEventoRepository;
+    private final TenantService tenantService;
+    private final VersaoDadosService versaoDadosService; // ETag do Dashboard e das listagens
+    private final TempoLimiteComandoService tempoLimiteComandoService;
+
+    // false = volta às consultas diretas na tabela venda (o resumo continua sendo mantido)
+    @Value("${application.dashboard.materializado:true}")
+    private boolean materializado;
+
+    @Value("${application.dashboard.snapshot-ttl-seconds:60}")
+    private long snapshotTtlSeconds;
+
+    private final ConcurrentHashMap<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Incrementada a cada invalidação (mesma ideia do ModulosAtivosCacheService)
+    private final AtomicLong geracao = new AtomicLong();
+
+    private record Snapshot(DashboardResponseDTO dashboard, String mesAno, long expiraEmMillis) {
+    }
+
+    private record ChaveResumo(Long empresaId, Long vendedorId, String mesAno, VendaStatus status) {
+    }
+
+    // Ordem fixa de lock das linhas: evita deadlock entre transações concorrentes
+    private static final Comparator<ChaveResumo> ORDEM_LOCK = Comparator
+            .comparing(ChaveResumo::empresaId)
+            .thenComparing(ChaveResumo::vendedorId)
+            .thenComparing(ChaveResumo::mesAno)
+            .thenComparing(ChaveResumo::status);
+
+    /**
+     * Gera o Dashboard de Vendas completo para a empresa do Admin logado (Mês Atual e Rankings).
+     * @return O DTO DashboardResponseDTO preenchido.
+     */
+    @Timed("comissoes.dashboard")
+    @ConsultaRelatorio
+    @Transactional(readOnly = true)
+    public DashboardResponseDTO gerarDashboard() {
+        Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
+
+        if (!materializado) {
+            return gerarDashboardDireto(empresaId);
+        }
+
+        String mesAtual = YearMonth.now().toString();
+        long agora = System.currentTimeMillis();
+
+        // 1. Snapshot em memória (do mesmo mês e ainda válido)
+        Snapshot snapshot = snapshots.get(empresaId);
+        if (snapshot != null && snapshot.mesAno().equals(mesAtual) && snapshot.expiraEmMillis() > agora) {
+            return snapshot.dashboard();
+        }
+
+        // 2. Monta a partir do resumo materializado
+        long geracaoAntes = geracao.get();
+        DashboardResponseDTO dashboard = montarDoResumo(empresaId, mesAtual);
+
+        // 3. Só guarda se nenhum movimento invalidou durante a montagem
+        if (geracao.get() == geracaoAntes) {
+            snapshots.put(empresaId, new Snapshot(dashboard, mesAtual, agora + snapshotTtlSeconds * 1000));
+        }
+        return dashboard;
+    }
+
+    /**
+     * Aplica os movimentos no resumo mensal, dentro da transação de quem chamou
+     * (o lote do outbox e o resumo são gravados juntos, ou nenhum dos dois).
+     *
+     * @param movimentos Os deltas gerados pelas operações sobre vendas.
+     */
+    @Transactional
+    public void registrarMovimentos(Collection<MovimentoVenda> movimentos) {
+        // 1. Consolida os deltas por linha do resumo
+        Map<ChaveResumo, MovimentoVenda> consolidados = new TreeMap<>(ORDEM_LOCK);
+        for (MovimentoVenda m : movimentos) {
+            ChaveResumo chave = new ChaveResumo(m.getEmpresaId(), m.getVendedorId(), m.getMesAno(), m.getStatus());
+            consolidados.merge(chave, m, (a, b) -> new MovimentoVenda(
+                    a.getEmpresaId(), a.getVendedorId(), a.getMesAno(), a.getStatus(),
+                    a.getQtdVendas() + b.getQtdVendas(),
+                    a.getValorVenda().add(b.getValorVenda()),
+                    a.getValorComissao().add(b.getValorComissao())));
+        }
+
+        // 2. Aplica cada delta (com lock na linha existente, ou cria a linha)
+        Set<Long> empresasAlteradas = new HashSet<>();
+        consolidados.forEach((chave, delta) -> {
+            if (delta.getQtdVendas() == 0 && delta.getValorVenda().signum() == 0
+                    && delta.getValorComissao().signum() == 0) {
+                return; // Nada mudou
+            }
+
+            VendaResumoMensal resumo = vendaResumoMensalRepository
+                    .findByEmpresaIdAndVendedorIdAndMesAnoAndStatus(
+                            chave.empresaId(), chave.vendedorId(), chave.mesAno(), chave.status())
+                    .orElseGet(() -> linhaZerada(chave));
+
+            resumo.setQtdVendas(resumo.getQtdVendas() + delta.getQtdVendas());
+            resumo.setValorTotal(resumo.getValorTotal().add(delta.getValorVenda()));
+            resumo.setValorComissao(resumo.getValorComissao().add(delta.getValorComissao()));
+            vendaResumoMensalRepository.save(resumo);
+            empresasAlteradas.add(chave.empresaId());
+        });
+
+        // 3. Descarta os snapshots afetados quando a transação confirmar
+        empresasAlteradas.forEach(this::invalidarSnapshot);
+    }
+
+    /**
+     * (Re)constrói o resumo mensal de uma empresa a partir da tabela venda
+     * (mais os totais das vendas arquivadas, ver VendaParticionamentoService.arquivar).
+     * Usado para empresas com vendas anteriores ao resumo (ver ResumoVendasInitializer).
+     *
+     * Vendas e outbox são lidos no MESMO snapshot (REPEATABLE READ): os eventos
+     * ainda não aplicados são descontados, pois o despachante os aplicará depois.
+     *
+     * @param empresaId O ID da empresa.
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void reconstruirResumo(Long empresaId) {
+        // 0. Agrupa todas as vendas da empresa: sem o limite curto por comando do pool
+        tempoLimiteComandoService.ampliarParaTarefaLonga();
+
+        // 1. Apaga o resumo atual da empresa
+        vendaResumoMensalRepository.deleteByEmpresaId(empresaId);
+
+        // 2. Regrava a partir do agrupamento completo das vendas
+        Map<ChaveResumo, VendaResumoMensal> linhas = new TreeMap<>(ORDEM_LOCK);
+        for (Object[] obj : vendaRepository.findAgregadoMensalPorEmpresa(empresaId)) {
+            VendaResumoMensal linha = linhaZerada(new ChaveResumo(empresaId, (Long) obj[0],
+                    String.format("%04d-%02d", ((Number) obj[1]).intValue(), ((Number) obj[2]).intValue()),
+                    (VendaStatus) obj[3]));
+            linha.setQtdVendas(((Number) obj[4]).longValue());
+            linha.setValorTotal(obj[5] != null ? (BigDecimal) obj[5] : BigDecimal.ZERO);
+            linha.setValorComissao(obj[6] != null ? (BigDecimal) obj[6] : BigDecimal.ZERO);
+            linhas.put(chave(linha), linha);
+        }
+
+        // 2.1. Soma os totais das vendas arquivadas (partições fora da tabela venda)
+        for (Object[] obj : vendaRepository.findAgregadoMensalArquivadoPorEmpresa(empresaId)) {
+            ChaveResumo chave = new ChaveResumo(empresaId, ((Number) obj[0]).longValue(), (String) obj[1],
+                    VendaStatus.valueOf((String) obj[2]));
+            VendaResumoMensal linha = linhas.computeIfAbsent(chave, DashboardService::linhaZerada);
+            linha.setQtdVendas(linha.getQtdVendas() + ((Number) obj[3]).longValue());
+            linha.setValorTotal(linha.getValorTotal().add((BigDecimal) obj[4]));
+            linha.setValorComissao(linha.getValorComissao().add((BigDecimal) obj[5]));
+        }
+
+        // 3. Desconta os eventos ainda não aplicados (a venda já está na tabela)
+        for (VendaEvento evento : vendaEventoRepository.findByEmpresaId(empresaId)) {
+            for (MovimentoVenda m : evento.movimentos()) {
+                ChaveResumo chave = new ChaveResumo(empresaId, m.getVendedorId(), m.getMesAno(), m.getStatus());
+                VendaResumoMensal linha = linhas.computeIfAbsent(chave, DashboardService::linhaZerada);
+                linha.setQtdVendas(linha.getQtdVendas() - m.getQtdVendas());
+                linha.setValorTotal(linha.getValorTotal().subtract(m.getValorVenda()));
+                linha.setValorComissao(linha.getValorComissao().subtract(m.getValorComissao()));
+            }
+        }
+        vendaResumoMensalRepository.saveAll(linhas.values());
+
+        invalidarSnapshot(empresaId);
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static VendaResumoMensal linhaZerada(ChaveResumo chave) {
+        return VendaResumoMensal.builder()
+                .empresaId(chave.empresaId())
+                .vendedorId(chave.vendedorId())
+                .mesAno(chave.mesAno())
+                .status(chave.status())
+                .qtdVendas(0)
+                .valorTotal(BigDecimal.ZERO)
+                .valorComissao(BigDecimal.ZERO)
+                .build();
+    }
+
+    private static ChaveResumo chave(VendaResumoMensal linha) {
+        return new ChaveResumo(linha.getEmpresaId(), linha.getVendedorId(), linha.getMesAno(), linha.getStatus());
+    }
+
+    private void invalidarSnapshot(Long empresaId) {
+        TransacaoUtils.executarAposCommit(() -> {
+            geracao.incrementAndGet();
+            snapshots.remove(empresaId);
+        });
+        // O resumo e os contadores mudam juntos (mesmo lote do outbox): nova ETag
+        versaoDadosService.invalidar(empresaId);
+    }
+
+    /**
+     * Monta o Dashboard com UMA consulta ao resumo (totais, ranking e histórico)
+     * mais as duas listas "top 5" (maiores e últimas vendas).
+     */
+    private DashboardResponseDTO montarDoResumo(Long empresaId, String mesAtual) {
+        List<ResumoMensalVendedorProjection> linhas = vendaResumoMensalRepository
+                .findResumoComVendedorByEmpresaId(empresaId);
+
+        // --- 1. Totais do mês, ranking (por vendedor) e histórico (por mês) ---
+        BigDecimal totalVendasMes = BigDecimal.ZERO;
+        BigDecimal totalComissoesMes = BigDecimal.ZERO;
+        long qtdVendasMes = 0L;
+        Map<Long, VendedorRankingDTO> rankingPorVendedor = new HashMap<>();
+        Map<String, HistoricoRendimentoDTO> historicoPorMes = new TreeMap<>(Comparator.reverseOrder());
+        Map<String, Long> qtdPorMes = new HashMap<>();
+
+        for (ResumoMensalVendedorProjection linha : linhas) {
+            HistoricoRendimentoDTO historico = historicoPorMes.computeIfAbsent(linha.getMesAno(),
+                    mes -> new HistoricoRendimentoDTO(mes, BigDecimal.ZERO, BigDecimal.ZERO));
+            historico.setValorVendido(historico.getValorVendido().add(linha.getValorTotal()));
+            historico.setValorComissao(historico.getValorComissao().add(linha.getValorComissao()));
+            qtdPorMes.merge(linha.getMesAno(), linha.getQtdVendas(), Long::sum);
+
+            if (!mesAtual.equals(linha.getMesAno())) {
+                continue;
+            }
+
+            totalVendasMes = totalVendasMes.add(linha.getValorTotal());
+            totalComissoesMes = totalComissoesMes.add(linha.getValorComissao());
+            qtdVendasMes += linha.getQtdVendas();
+
+            VendedorRankingDTO ranking = rankingPorVendedor.computeIfAbsent(linha.getVendedorId(),
+                    id -> new VendedorRankingDTO(linha.getNomeVendedor(), id, BigDecimal.ZERO, 0L));
+            ranking.setValorTotal(ranking.getValorTotal().add(linha.getValorTotal()));
+            ranking.setQtdVendas(ranking.getQtdVendas() + linha.getQtdVendas());
+        }
+
+        // Linhas "zeradas" (ex: a venda saiu de PENDENTE) não contam como mês/vendedor com vendas
+        List<HistoricoRendimentoDTO> historicoVendasMensal = historicoPorMes.values().stream()
+                .filter(h -> qtdPorMes.getOrDefault(h.getMesAno(), 0L) > 0)
+                .toList();
+
+        List<VendedorRankingDTO> rankingVendedores = rankingPorVendedor.values().stream()
+                .filter(r -> r.getQtdVendas() > 0)
+                .sorted(Comparator.comparing(VendedorRankingDTO::getValorTotal).reversed()
+                        .thenComparing(Comparator.comparing(VendedorRankingDTO::getQtdVendas).reversed()))
+                .limit(TAMANHO_RANKING)
+                .toList();
+
+        // --- 2. Maiores e Últimas Vendas (limitadas a 5) ---
+        PageRequest limit5 = PageRequest.of(0, TAMANHO_RANKING);
+        List<VendaDetalheDTO> maioresVendas = vendaRepository.findMaioresVendas(empresaId, limit5).stream()
+                .map(VendaDetalheDTO::fromEntity)
+                .toList();
+        List<VendaDetalheDTO> ultimasVendas = vendaRepository.findUltimasVendas(empresaId, limit5).stream()
+                .map(VendaDetalheDTO::fromEntity)
+                .toList();
+
+        return montarResposta(totalVendasMes, totalComissoesMes, qtdVendasMes,
+                rankingVendedores, maioresVendas, ultimasVendas, historicoVendasMensal);
+    }
+
+    /**
+     * Caminho antigo: consultas diretas na tabela venda.
+     * Mantido como fallback (application.dashboard.materializado=false).
+     */
+    private DashboardResponseDTO gerarDashboardDireto(Long empresaId) {
+        // Mês atual como intervalo semiaberto [primeiro dia, primeiro dia do mês seguinte)
+        YearMonth mesAtual = YearMonth.now();
+        LocalDateTime inicioMes = mesAtual.atDay(1).atStartOfDay();
+        LocalDateTime fimMes = mesAtual.plusMonths(1).atDay(1).atStartOfDay();
+
+        // --- 1. Busca Métricas Gerais do Mês (SQL Nativo) ---
+        List<Object[]> totaisMesResult = vendaRepository.findTotaisDoMes(empresaId, inicioMes, fimMes);
+
+        BigDecimal totalVendasMes = BigDecimal.ZERO;
+        BigDecimal totalComissoesMes = BigDecimal.ZERO;
+        long qtdVendasMes = 0L;
+
+        if (totaisMesResult != null && !totaisMesResult.isEmpty() && totaisMesResult.get(0).length == 3) {
+            Object[] result = totaisMesResult.get(0);
+            totalVendasMes = (BigDecimal) result[0];
+            totalComissoesMes = (BigDecimal) result[1];
+            // O COUNT() no SQL nativo pode retornar um BigInteger ou Long.
+            if (result[2] instanceof Number) {
+                qtdVendasMes = ((Number) result[2]).longValue();
+            }
+        }
+
+        // --- 2. Ranking de Vendedores (SQL Nativo) ---
+        List<VendedorRankingDTO> rankingVendedores = vendaRepository.findRankingVendedores(empresaId, inicioMes, fimMes).stream()
+            .map(obj -> new VendedorRankingDTO(
+                (String) obj[0], // nomeVendedor
+                ((Number) obj[1]).longValue(), // idVendedor
+                (BigDecimal) obj[2], // valorTotal
+                ((Number) obj[3]).longValue() // qtdVendas (CAST para Long)
+            )).toList();
+
+        // --- 3. Maiores e Últimas Vendas (HQL com JOIN FETCH) ---
+        PageRequest limit5 = PageRequest.of(0, TAMANHO_RANKING);
+        List<VendaDetalheDTO> maioresVendas = vendaRepository.findMaioresVendas(empresaId, limit5).stream()
+            .map(VendaDetalheDTO::fromEntity)
+            .toList();
+        List<VendaDetalheDTO> ultimasVendas = vendaRepository.findUltimasVendas(empresaId, limit5).stream()
+            .map(VendaDetalheDTO::fromEntity)
+            .toList();
+
+        // --- 4. Histórico Vendas Mensal (SQL Nativo) ---
+        List<HistoricoRendimentoDTO> historicoVendasMensal = vendaRepository.findHistoricoVendasMensal(empresaId).stream()
+            .map(obj -> new HistoricoRendimentoDTO(
+                (String) obj[0],        // mesAno
+                (BigDecimal) obj[1],    // valorVendido
+                (BigDecimal) obj[2]     // valorComissao
+            ))
+            .toList();
+
+        return montarResposta(totalVendasMes, totalComissoesMes, qtdVendasMes,
+                rankingVendedores, maioresVendas, ultimasVendas, historicoVendasMensal);
+    }
+
+    /**
+     * Calcula as médias e constrói o DTO principal.
+     */
+    private DashboardResponseDTO montarResposta(BigDecimal totalVendasMes, BigDecimal totalComissoesMes,
+            long qtdVendasMes, List<VendedorRankingDTO> rankingVendedores, List<VendaDetalheDTO> maioresVendas,
+            List<VendaDetalheDTO> ultimasVendas, List<HistoricoRendimentoDTO> historicoVendasMensal) {
+
+        BigDecimal mediaVendaMes = BigDecimal.ZERO;
+        BigDecimal mediaComissoesMes = BigDecimal.ZERO;
+        if (qtdVendasMes > 0) {
+            mediaVendaMes = totalVendasMes.divide(new BigDecimal(qtdVendasMes), 2, RoundingMode.HALF_UP);
+            mediaComissoesMes = totalComissoesMes.divide(new BigDecimal(qtdVendasMes), 2, RoundingMode.HALF_UP);
+        }
+
+        return DashboardResponseDTO.builder()
+                .totalVendasMes(totalVendasMes)
+                .totalComissoesMes(totalComissoesMes)
+                .qtdVendasMes(qtdVendasMes)
+                .mediaVendaMes(mediaVendaMes)
+                .mediaComissaoMes(mediaComissoesMes)
+                .rankingVendedores(rankingVendedores)
+                .maioresVendas(maioresVendas)
+                .ultimasVendas(ultimasVendas)
+                .historicoVendasMensal(historicoVendasMensal)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.MovimentoVenda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaEvento;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Consumo do outbox de eventos de venda (VendaEvento).
+ *
+ * Cada lote é aplicado nos agregados (resumo mensal do Dashboard e contadores
+ * por vendedor) e apagado na MESMA transação: um evento nunca é perdido nem
+ * aplicado duas vezes, mesmo que o processo caia no meio.
+ */
+@Service
+@RequiredArgsConstructor
+public class VendaEventoService {
+
+    private final VendaEventoRepository vendaEventoRepository;
+    private final DashboardService dashboardService;
+    private final VendedorEstatisticasService vendedorEstatisticasService;
+
+    /**
+     * Empresas com eventos pendentes.
+     * Sem readOnly de propósito: com a réplica de leitura ligada, a busca continua no
+     * primário (a réplica atrasada esconderia eventos recém-gravados).
+     */
+    @Transactional
+    public List<Long> empresasPendentes() {
+        return vendaEventoRepository.findEmpresaIdsPendentes();
+    }
+
+    /**
+     * Processa o próximo lote de eventos de uma empresa.
+     *
+     * @param empresaId O ID da empresa.
+     * @param tamanhoLote Quantidade máxima de eventos no lote.
+     * @return Quantos eventos foram processados (menor que o tamanho = fila esvaziada).
+     */
+    @Transactional
+    public int processarLote(Long empresaId, int tamanhoLote) {
+        // 1. Trava o lote (eventos travados por outra instância são pulados)
+        List<VendaEvento> lote = vendaEventoRepository.findLoteParaProcessar(
+                empresaId, PageRequest.of(0, tamanhoLote));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Converte em movimentos e aplica nos agregados (os deltas são consolidados)
+        List<MovimentoVenda> movimentos = new ArrayList<>();
+        lote.forEach(evento -> movimentos.addAll(evento.movimentos()));
+        dashboardService.registrarMovimentos(movimentos);
+        vendedorEstatisticasService.registrarMovimentos(movimentos);
+
+        // 3. Remove os eventos aplicados
+        vendaEventoRepository.deleteAllInBatch(lote);
+        return lote.size();
+    }
+}
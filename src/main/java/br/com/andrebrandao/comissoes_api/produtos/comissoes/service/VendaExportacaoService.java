@@ -0,0 +1,156 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.andrebrandao.comissoes_api.config.datasource.ConsultaRelatorio;
+import br.com.andrebrandao.comissoes_api.config.datasource.TempoLimiteComandoService;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaFiltroDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaResponseDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendaListagemProjection;
+import br.com.andrebrandao.comissoes_api.security.service.TenantService;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Exportação das Vendas da empresa logada (GET /api/vendas/export).
+ * As linhas saem do banco por um cursor JDBC e são escritas direto na resposta,
+ * uma a uma: o uso de memória é constante, qualquer que seja o tamanho da empresa.
+ */
+@Service
+@RequiredArgsConstructor
+public class VendaExportacaoService {
+
+    private final VendaRepository vendaRepository;
+    private final TenantService tenantService;
+    private final ObjectMapper objectMapper; // O mesmo do Spring MVC (datas em ISO-8601)
+    private final TempoLimiteComandoService tempoLimiteComandoService;
+
+    @Value("${application.vendas.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Formatos suportados pelo parâmetro "format".
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum Formato {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extensao;
+
+        /**
+         * @throws IllegalArgumentException se o formato não for suportado (vira 400).
+         */
+        public static Formato fromParametro(String valor) {
+            for (Formato formato : values()) {
+                if (formato.name().equalsIgnoreCase(valor)) {
+                    return formato;
+                }
+            }
+            throw new IllegalArgumentException("Formato de exportação inválido: " + valor + ". Use csv ou ndjson.");
+        }
+    }
+
+    private static final String CABECALHO_CSV =
+            "id,dataVenda,status,valorVenda,valorComissaoCalculado,idVendedor,nomeVendedor,emailVendedor,descricaoVenda";
+
+    /**
+     * Escreve as vendas (com os mesmos filtros da listagem) no formato pedido.
+     *
+     * @param filtro  Os filtros opcionais (cursor e limite são ignorados).
+     * @param formato CSV ou NDJSON (um JSON por linha).
+     * @param saida   O stream de saída (ex: o da resposta HTTP). Não é fechado aqui.
+     */
+    @ConsultaRelatorio
+    @Transactional(readOnly = true) // O cursor do Postgres só funciona dentro de uma transação
+    public void exportar(VendaFiltroDTO filtro, Formato formato, OutputStream saida) throws IOException {
+        // 1. Pega o ID da Empresa do ADMIN logado
+        Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
+
+        // 1.1. O cursor fica aberto enquanto o cliente baixa: sem o limite curto por comando do pool
+        tempoLimiteComandoService.ampliarParaTarefaLonga();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+
+        // 2. Percorre o cursor linha a linha (try-with-resources fecha o ResultSet)
+        try (Stream<VendaListagemProjection> linhas = vendaRepository.streamExportacao(empresaId, filtro, fetchSize)) {
+            if (formato == Formato.CSV) {
+                writer.write(CABECALHO_CSV);
+                writer.write('\n');
+            }
+
+            Iterator<VendaListagemProjection> iterator = linhas.iterator();
+            while (iterator.hasNext()) {
+                VendaListagemProjection linha = iterator.next();
+                if (formato == Formato.CSV) {
+                    escreverLinhaCsv(writer, linha);
+                } else {
+                    // Mesmo JSON do GET /api/vendas (VendaResponseDTO), um por linha
+                    writer.write(objectMapper.writeValueAsString(VendaResponseDTO.fromProjection(linha)));
+                    writer.write('\n');
+                }
+            }
+        }
+
+        // 3. Esvazia o buffer (o container fecha o stream da resposta)
+        writer.flush();
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private void escreverLinhaCsv(Writer writer, VendaListagemProjection linha) throws IOException {
+        writer.write(String.valueOf(linha.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(linha.getDataVenda()));
+        writer.write(',');
+        writer.write(String.valueOf(linha.getStatus()));
+        writer.write(',');
+        writer.write(numero(linha.getValorVenda()));
+        writer.write(',');
+        writer.write(numero(linha.getValorComissaoCalculado()));
+        writer.write(',');
+        writer.write(String.valueOf(linha.getVendedorId()));
+        writer.write(',');
+        writer.write(textoCsv(linha.getNomeVendedor()));
+        writer.write(',');
+        writer.write(textoCsv(linha.getEmailVendedor()));
+        writer.write(',');
+        writer.write(textoCsv(linha.getDescricaoVenda()));
+        writer.write('\n');
+    }
+
+    private static String numero(BigDecimal valor) {
+        return valor == null ? "" : valor.toPlainString();
+    }
+
+    /**
+     * Escapa um texto para CSV (RFC 4180): entre aspas se tiver vírgula, aspas ou quebra de linha.
+     * Também usado na resposta do cadastro de vendedores em lote (VendedorLoteService).
+     */
+    static String textoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+}
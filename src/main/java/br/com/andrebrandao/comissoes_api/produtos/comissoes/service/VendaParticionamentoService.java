@@ -0,0 +1,271 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Particionamento mensal da tabela venda (PARTITION BY RANGE (data_venda)), só no Postgres.
+ *
+ * - converter(): transforma a tabela comum em particionada. A tabela atual vira a partição
+ *   "venda_legado" (todas as vendas até o início do mês corrente), sem copiar linhas;
+ * - criarParticoesFuturas(): garante as partições do mês corrente e dos próximos meses
+ *   (application.vendas.particionamento.meses-a-frente), antes de serem necessárias;
+ * - arquivar(): desanexa as partições inteiramente anteriores à retenção
+ *   (application.vendas.particionamento.meses-retencao) e as move para o schema "arquivo".
+ *   Os totais delas ficam em venda_arquivada_resumo, somados pela reconciliação dos
+ *   contadores e pela reconstrução do resumo mensal.
+ *
+ * Com as vendas separadas por mês, as consultas com intervalo em data_venda (Dashboard,
+ * listagem com período ou cursor) só leem as partições do intervalo, e o VACUUM e os
+ * índices de cada mês fechado param de crescer.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VendaParticionamentoService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @Value("${application.vendas.particionamento.meses-a-frente:3}")
+    private int mesesAFrente;
+
+    // 0 = nunca arquiva
+    @Value("${application.vendas.particionamento.meses-retencao:0}")
+    private int mesesRetencao;
+
+    private static final DateTimeFormatter SUFIXO_MES = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern LIMITE_SUPERIOR = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})[^']*'\\)");
+    private static final String SCHEMA_ARQUIVO = "arquivo";
+    private static final String PARTICAO_PADRAO = "venda_padrao";
+
+    /**
+     * @return true se o banco é Postgres e a tabela venda já é particionada.
+     */
+    public boolean isParticionada() {
+        if (!isPostgres()) {
+            return false;
+        }
+        Boolean particionada = jdbcTemplate.queryForObject(
+                "SELECT COALESCE((SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass('venda')), false)",
+                Boolean.class);
+        return Boolean.TRUE.equals(particionada);
+    }
+
+    /**
+     * Converte a tabela venda em particionada (uma vez só; no H2 não faz nada).
+     * Tudo em uma transação: em caso de erro, a tabela continua como estava.
+     * Bloqueia a tabela venda enquanto roda (cria o índice único (id, data_venda) na
+     * partição legado): rode em uma janela de manutenção.
+     */
+    @Transactional
+    public void converter() {
+        if (!isPostgres() || isParticionada()) {
+            return;
+        }
+        LocalDate inicioMes = YearMonth.now().atDay(1);
+        log.info("Convertendo a tabela venda em particionada (vendas até {} ficam na partição venda_legado)", inicioMes);
+
+        // 1. Sem o statement_timeout do pool: o índice da partição legado pode demorar
+        jdbcTemplate.execute("SET LOCAL statement_timeout = 0");
+
+        // 2. A tabela atual vira a futura partição; índices e PK liberam os nomes para a nova tabela
+        jdbcTemplate.execute("ALTER TABLE venda RENAME TO venda_legado");
+        String pk = jdbcTemplate.queryForObject(
+                "SELECT conname FROM pg_constraint WHERE conrelid = 'venda_legado'::regclass AND contype = 'p'",
+                String.class);
+        jdbcTemplate.execute("ALTER TABLE venda_legado RENAME CONSTRAINT " + pk + " TO venda_legado_pkey");
+        for (String indice : List.of("idx_venda_empresa_data", "idx_venda_vendedor_data", "idx_venda_empresa_valor")) {
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS " + indice + " RENAME TO "
+                    + indice.replace("idx_venda_", "idx_venda_legado_"));
+        }
+
+        // 3. Tabela particionada com as mesmas colunas, defaults e CHECKs.
+        //    A chave primária precisa incluir a coluna de particionamento.
+        jdbcTemplate.execute("CREATE TABLE venda (LIKE venda_legado INCLUDING DEFAULTS INCLUDING CONSTRAINTS) "
+                + "PARTITION BY RANGE (data_venda)");
+        jdbcTemplate.execute("ALTER TABLE venda ADD CONSTRAINT venda_pkey PRIMARY KEY (id, data_venda)");
+        jdbcTemplate.execute("CREATE INDEX idx_venda_empresa_data ON venda (empresa_id, data_venda)");
+        jdbcTemplate.execute("CREATE INDEX idx_venda_vendedor_data ON venda (vendedor_id, data_venda)");
+        jdbcTemplate.execute("CREATE INDEX idx_venda_empresa_valor ON venda (empresa_id, valor_venda)");
+
+        // 4. Mesmas chaves estrangeiras (e mesmos nomes) da tabela original
+        for (Map<String, Object> fk : jdbcTemplate.queryForList(
+                "SELECT conname, pg_get_constraintdef(oid) AS definicao FROM pg_constraint "
+                        + "WHERE conrelid = 'venda_legado'::regclass AND contype = 'f'")) {
+            jdbcTemplate.execute("ALTER TABLE venda ADD CONSTRAINT " + fk.get("conname") + " " + fk.get("definicao"));
+        }
+
+        // 5. O histórico inteiro vira uma partição; linhas fora de qualquer faixa caem na padrão
+        jdbcTemplate.execute("ALTER TABLE venda ATTACH PARTITION venda_legado "
+                + "FOR VALUES FROM (MINVALUE) TO ('" + inicioMes + "')");
+        jdbcTemplate.execute("CREATE TABLE " + PARTICAO_PADRAO + " PARTITION OF venda DEFAULT");
+    }
+
+    /**
+     * Cria (se faltarem) as partições do mês corrente e dos próximos "meses-a-frente" meses.
+     * Se a partição padrão já tiver vendas do mês (ex: data_venda no futuro), elas são
+     * movidas para a partição nova; sem isso o Postgres recusaria a criação.
+     *
+     * @return Os nomes das partições criadas agora.
+     */
+    @Transactional
+    public List<String> criarParticoesFuturas() {
+        List<String> criadas = new ArrayList<>();
+        if (!isParticionada()) {
+            return criadas;
+        }
+        YearMonth mes = YearMonth.now();
+        for (int i = 0; i <= mesesAFrente; i++, mes = mes.plusMonths(1)) {
+            String nome = "venda_p" + mes.format(SUFIXO_MES);
+            if (existeTabela(nome)) {
+                continue;
+            }
+            criarParticao(nome, mes.atDay(1), mes.plusMonths(1).atDay(1));
+            criadas.add(nome);
+        }
+        if (!criadas.isEmpty()) {
+            log.info("Partições de venda criadas: {}", criadas);
+        }
+        return criadas;
+    }
+
+    /**
+     * Desanexa as partições cujas vendas são todas anteriores à retenção e as move
+     * para o schema "arquivo" (os dados continuam no banco, fora das consultas da aplicação,
+     * prontos para pg_dump/DROP). Desligado com meses-retencao=0.
+     * Antes de desanexar, os totais da partição vão para venda_arquivada_resumo: a
+     * reconciliação noturna dos contadores continua contando as vendas arquivadas.
+     *
+     * @return Os nomes das partições arquivadas agora.
+     */
+    @Transactional
+    public List<String> arquivar() {
+        List<String> arquivadas = new ArrayList<>();
+        if (mesesRetencao <= 0 || !isParticionada()) {
+            return arquivadas;
+        }
+        LocalDate corte = YearMonth.now().minusMonths(mesesRetencao).atDay(1);
+
+        for (Map<String, Object> particao : particoes()) {
+            LocalDate limite = limiteSuperior((String) particao.get("limite"));
+            if (limite == null || limite.isAfter(corte)) {
+                continue; // Partição padrão ou ainda dentro da retenção
+            }
+            String nome = (String) particao.get("nome");
+
+            // 1. Sem escritas na partição enquanto os totais são guardados (o agrupamento pode demorar)
+            jdbcTemplate.execute("SET LOCAL statement_timeout = 0");
+            jdbcTemplate.execute("LOCK TABLE " + nome + " IN EXCLUSIVE MODE");
+
+            // 2. Os totais continuam valendo para os contadores e o resumo mensal
+            guardarTotais(nome);
+
+            // 3. Desanexa e move para o schema de arquivo
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + SCHEMA_ARQUIVO);
+            jdbcTemplate.execute("ALTER TABLE venda DETACH PARTITION " + nome);
+            jdbcTemplate.execute("ALTER TABLE " + nome + " SET SCHEMA " + SCHEMA_ARQUIVO);
+            arquivadas.add(nome);
+        }
+        if (!arquivadas.isEmpty()) {
+            log.info("Partições de venda arquivadas (schema {}): {}", SCHEMA_ARQUIVO, arquivadas);
+        }
+        return arquivadas;
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Não foi possível identificar o banco de dados.", e);
+        }
+    }
+
+    /**
+     * Cria a partição do intervalo [inicio, fim). Com vendas do intervalo na partição padrão,
+     * a desanexa, cria a partição, move essas vendas e anexa a padrão de volta.
+     */
+    private void criarParticao(String nome, LocalDate inicio, LocalDate fim) {
+        String criar = "CREATE TABLE " + nome + " PARTITION OF venda FOR VALUES FROM ('"
+                + inicio + "') TO ('" + fim + "')";
+        Boolean padraoComVendas = existeTabela(PARTICAO_PADRAO) && jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + PARTICAO_PADRAO + " WHERE data_venda >= ? AND data_venda < ?)",
+                Boolean.class, inicio.atStartOfDay(), fim.atStartOfDay());
+        if (!Boolean.TRUE.equals(padraoComVendas)) {
+            jdbcTemplate.execute(criar);
+            return;
+        }
+
+        // 1. A partição padrão sai de cena: as vendas dela não bloqueiam a criação
+        jdbcTemplate.execute("SET LOCAL statement_timeout = 0");
+        jdbcTemplate.execute("ALTER TABLE venda DETACH PARTITION " + PARTICAO_PADRAO);
+        jdbcTemplate.execute(criar);
+
+        // 2. Move as vendas do intervalo (o INSERT pela tabela venda cai na partição nova)
+        int movidas = jdbcTemplate.update("INSERT INTO venda SELECT * FROM " + PARTICAO_PADRAO
+                + " WHERE data_venda >= ? AND data_venda < ?", inicio.atStartOfDay(), fim.atStartOfDay());
+        jdbcTemplate.update("DELETE FROM " + PARTICAO_PADRAO + " WHERE data_venda >= ? AND data_venda < ?",
+                inicio.atStartOfDay(), fim.atStartOfDay());
+
+        // 3. A padrão volta (o Postgres confere que não sobrou venda de outra faixa nela)
+        jdbcTemplate.execute("ALTER TABLE venda ATTACH PARTITION " + PARTICAO_PADRAO + " DEFAULT");
+        // Vendas na padrão indicam data_venda fora das partições previstas (ex: no futuro)
+        log.warn("{} venda(s) movidas de {} para {}", movidas, PARTICAO_PADRAO, nome);
+    }
+
+    /**
+     * Soma os totais da partição (por empresa, vendedor, mês e status) em venda_arquivada_resumo.
+     */
+    private void guardarTotais(String particao) {
+        jdbcTemplate.update("INSERT INTO venda_arquivada_resumo "
+                + "(empresa_id, vendedor_id, mes_ano, status, qtd_vendas, valor_total, valor_comissao) "
+                + "SELECT empresa_id, vendedor_id, to_char(data_venda, 'YYYY-MM'), status, "
+                + "COUNT(*), SUM(valor_venda), SUM(valor_comissao_calculado) "
+                + "FROM " + particao + " GROUP BY 1, 2, 3, 4 "
+                + "ON CONFLICT (empresa_id, vendedor_id, mes_ano, status) DO UPDATE SET "
+                + "qtd_vendas = venda_arquivada_resumo.qtd_vendas + EXCLUDED.qtd_vendas, "
+                + "valor_total = venda_arquivada_resumo.valor_total + EXCLUDED.valor_total, "
+                + "valor_comissao = venda_arquivada_resumo.valor_comissao + EXCLUDED.valor_comissao");
+    }
+
+    private boolean existeTabela(String nome) {
+        return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, nome);
+    }
+
+    /**
+     * Partições atuais da tabela venda: nome e expressão da faixa (ex: "FOR VALUES FROM (...) TO (...)").
+     */
+    private List<Map<String, Object>> particoes() {
+        return jdbcTemplate.queryForList("SELECT c.relname AS nome, pg_get_expr(c.relpartbound, c.oid) AS limite "
+                + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'venda'::regclass ORDER BY c.relname");
+    }
+
+    /**
+     * Data do limite superior (exclusivo) da faixa, ou null para a partição padrão.
+     */
+    private static LocalDate limiteSuperior(String faixa) {
+        Matcher matcher = LIMITE_SUPERIOR.matcher(faixa);
+        return matcher.find() ? LocalDate.parse(matcher.group(1)) : null;
+    }
+}
@@ -1,31 +1,51 @@
 package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode; // Importar RoundingMode
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List; // Importar List
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import br.com.andrebrandao.comissoes_api.config.datasource.ConsultaRelatorio;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
 import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository; // Do Core
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.DashboardResponseDTO;
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.HistoricoRendimentoDTO;
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaDetalheDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaFiltroDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaLoteResultadoDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaLoteUpdateRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaPaginaDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaRequestDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaEvento;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendaListagemProjection;
 // Adicione estas duas linhas na sua seção de imports
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaVendedorRequestDTO;
 import br.com.andrebrandao.comissoes_api.security.model.User;
 import br.com.andrebrandao.comissoes_api.security.service.TenantService; // Do Security
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaResponseDTO;
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorRankingDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaUpdateRequestDTO;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException; // Import Exception
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -41,6 +61,23 @@ public class VendaService {
     private final VendedorRepository vendedorRepository; // Para buscar o vendedor e %
     private final EmpresaRepository empresaRepository; // Para criar a referência da empresa
     private final TenantService tenantService; // Para segurança Multi-Tenant
+    private final VendaEventoRepository vendaEventoRepository; // Outbox: alimenta o Dashboard e os contadores
+    private final VersaoDadosService versaoDadosService; // ETag das listagens e do Dashboard
+
+    private final Validator validator; // Validação item a item do lançamento em lote
+
+    @PersistenceContext
+    private EntityManager entityManager; // flush/clear por lote no lançamento em lote
+
+    @Value("${application.vendas.lote.max-itens:50000}")
+    private int maxItensLote;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+
+    // Limites da listagem paginada (GET /api/vendas)
+    private static final int LIMITE_PADRAO_LISTAGEM = 50;
+    private static final int LIMITE_MAXIMO_LISTAGEM = 500;
 
     /**
      * Lança uma nova Venda no sistema para um Vendedor específico.
@@ -53,6 +90,7 @@ public class VendaService {
      * @throws EntityNotFoundException se o vendedor não for encontrado para esta
      * empresa.
      */
+    @Timed(value = "comissoes.vendas", extraTags = { "operacao", "lancar" })
     @Transactional // Garante a atomicidade
     public Venda lancar(VendaRequestDTO dto) {
 
@@ -64,20 +102,9 @@ public class VendaService {
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Vendedor não encontrado com o ID: " + dto.getVendedorId() + " para esta empresa."));
 
-        // 3. Pega o percentual de comissão do Vendedor
-        BigDecimal percentualComissao = vendedor.getPercentualComissao();
-        if (percentualComissao == null) {
-            // Poderia lançar um erro ou assumir 0, vamos assumir 0 por segurança
-            percentualComissao = BigDecimal.ZERO;
-            // Log.warn("Vendedor ID {} sem percentual de comissão definido.",
-            // vendedor.getId()); // Adicionar logging seria bom
-        }
-
-        // 4. Calcula o valor da comissão
-        BigDecimal valorComissao = dto.getValorVenda()
-                .multiply(percentualComissao) // valorVenda * percentual
-                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP); // divide por 100, com 2 casas decimais e
-                                                                         // arredondamento padrão
+        // 3. e 4. Calcula o valor da comissão com o percentual do Vendedor
+        BigDecimal valorComissao = CalculadoraComissao.calcular(
+                dto.getValorVenda(), vendedor.getPercentualComissao());
 
         // 5. Cria a entidade Venda
         // --- MUDANÇA AQUI ---
@@ -89,117 +116,164 @@ public class VendaService {
                 .status(VendaStatus.CONFIRMADA) // 2. Define o status como CONFIRMADA
                 .build();
 
-        return vendaRepository.save(novaVenda);
+        Venda vendaSalva = vendaRepository.save(novaVenda);
+
+        // 6. Grava o evento no outbox (na mesma transação): o Dashboard e os contadores
+        //    do vendedor são atualizados depois, pelo VendaEventoDispatcher
+        vendaEventoRepository.save(VendaEvento.criada(vendaSalva));
+        versaoDadosService.invalidar(empresaId);
+        return vendaSalva;
     }
 
     /**
-     * Lista todas as Vendas pertencentes à empresa do usuário ADMIN logado.
-     * Garante a segurança Multi-Tenant.
+     * Lança várias Vendas de uma vez para a empresa do Admin logado (ex: sincronização do ERP).
+     * - Todos os vendedores citados são resolvidos com UMA consulta (IN);
+     * - Cada item é validado individualmente: itens inválidos viram erro no resultado,
+     *   sem impedir o lançamento dos demais;
+     * - Os INSERTs saem em lotes JDBC (sequence pooled + hibernate.jdbc.batch_size),
+     *   e o contexto de persistência é limpo a cada lote para não acumular entidades.
      *
-     * @return Lista de DTOs VendaResponseDTO.
+     * @param dtos As vendas a lançar.
+     * @return O resultado por item (ID criado ou mensagem de erro).
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o limite.
      */
-    @Transactional(readOnly = true)
-    public List<VendaResponseDTO> listar() {
+    @Transactional
+    public VendaLoteResultadoDTO lancarEmLote(List<VendaRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos uma venda.");
+        }
+        if (dtos.size() > maxItensLote) {
+            throw new IllegalArgumentException("No máximo " + maxItensLote + " vendas por requisição.");
+        }
+
         // 1. Pega o ID da Empresa do ADMIN logado
         Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
+        Empresa empresa = empresaRepository.getReferenceById(empresaId);
 
-        List<Venda> vendas = vendaRepository.findByEmpresaIdComVendedor(empresaId);
+        // 2. Resolve todos os vendedores do lote (apenas os desta empresa)
+        Set<Long> vendedorIds = new HashSet<>();
+        dtos.forEach(dto -> {
+            if (dto != null && dto.getVendedorId() != null) {
+                vendedorIds.add(dto.getVendedorId());
+            }
+        });
+        Map<Long, Vendedor> vendedoresPorId = new HashMap<>();
+        vendedorRepository.findByEmpresaIdAndIdIn(empresaId, vendedorIds)
+                .forEach(v -> vendedoresPorId.put(v.getId(), v));
+
+        // 3. Valida, calcula a comissão e persiste item a item
+        List<VendaLoteResultadoDTO.Item> resultados = new ArrayList<>(dtos.size());
+        int sucesso = 0;
+        int pendentesNoLote = 0;
+        for (int i = 0; i < dtos.size(); i++) {
+            VendaRequestDTO dto = dtos.get(i);
+
+            String erro = validarItemLote(dto, vendedoresPorId);
+            if (erro != null) {
+                resultados.add(VendaLoteResultadoDTO.Item.erro(i, erro));
+                continue;
+            }
 
-        // 2. Usa o método do repositório que filtra por empresa_id
-        return vendas.stream()
-                .map(VendaResponseDTO::fromEntity)
-                .toList();
+            Vendedor vendedor = vendedoresPorId.get(dto.getVendedorId());
+            Venda novaVenda = Venda.builder()
+                    .valorVenda(dto.getValorVenda())
+                    .descricaoVenda(dto.getDescricaoVenda())
+                    .valorComissaoCalculado(
+                            CalculadoraComissao.calcular(dto.getValorVenda(), vendedor.getPercentualComissao()))
+                    .vendedor(vendedor)
+                    .empresa(empresa)
+                    .status(VendaStatus.CONFIRMADA) // Mesmo status do lançamento individual do Admin
+                    .build();
+            entityManager.persist(novaVenda); // O ID já vem do bloco reservado da sequence
+            entityManager.persist(VendaEvento.criada(novaVenda)); // Evento do outbox, no mesmo lote JDBC
+
+            resultados.add(VendaLoteResultadoDTO.Item.sucesso(i, novaVenda.getId()));
+            sucesso++;
+
+            // 4. A cada lote: envia os INSERTs e solta as entidades da memória
+            if (++pendentesNoLote == tamanhoLoteJdbc) {
+                entityManager.flush();
+                entityManager.clear();
+                pendentesNoLote = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        if (sucesso > 0) {
+            versaoDadosService.invalidar(empresaId);
+        }
+
+        return new VendaLoteResultadoDTO(dtos.size(), sucesso, dtos.size() - sucesso, resultados);
+    }
+
+    /**
+     * Valida um item do lote (Bean Validation + vendedor da empresa).
+     *
+     * @return A mensagem de erro, ou null se o item é válido.
+     */
+    private String validarItemLote(VendaRequestDTO dto, Map<Long, Vendedor> vendedoresPorId) {
+        if (dto == null) {
+            return "Item vazio.";
+        }
+        Set<ConstraintViolation<VendaRequestDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+        }
+        if (!vendedoresPorId.containsKey(dto.getVendedorId())) {
+            return "Vendedor não encontrado com o ID: " + dto.getVendedorId() + " para esta empresa.";
+        }
+        return null;
     }
 
     /**
-     * Gera o Dashboard de Vendas completo para a empresa do Admin logado (Mês Atual e Rankings).
-     * @return O DTO DashboardResponseDTO preenchido.
+     * Lista as Vendas da empresa do usuário ADMIN logado, com filtros opcionais
+     * e paginação por cursor (keyset) em (dataVenda DESC, id DESC).
+     * Garante a segurança Multi-Tenant.
+     *
+     * @param filtro Os filtros (status, vendedor, período, valor), o cursor e o limite.
+     * @return A página com os DTOs e o cursor da próxima página (null se for a última).
+     * @throws IllegalArgumentException se o cursor for inválido.
      */
+    @ConsultaRelatorio
     @Transactional(readOnly = true)
-    public DashboardResponseDTO gerarDashboard() {
+    public VendaPaginaDTO listar(VendaFiltroDTO filtro) {
+        // 1. Pega o ID da Empresa do ADMIN logado
         Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
-        
-        // --- 1. Busca Métricas Gerais do Mês (SQL Nativo) ---
-        List<Object[]> totaisMesResult = vendaRepository.findTotaisDoMes(empresaId);
-        
-        // Mapeamento dos resultados escalares
-        BigDecimal totalVendasMes = BigDecimal.ZERO;
-        BigDecimal totalComissoesMes = BigDecimal.ZERO;
-        Long qtdVendasMes = 0L;
-
-        if (totaisMesResult != null && !totaisMesResult.isEmpty() && totaisMesResult.get(0).length == 3) {
-            Object[] result = totaisMesResult.get(0);
-            totalVendasMes = (BigDecimal) result[0];
-            totalComissoesMes = (BigDecimal) result[1];
-            // O COUNT() no SQL nativo pode retornar um BigInteger ou Long.
-            // Para segurança, tratamos como Long.
-            if (result[2] instanceof Number) {
-                qtdVendasMes = ((Number) result[2]).longValue();
-            } else {
-                 qtdVendasMes = 0L;
-            }
+
+        // 2. Normaliza o limite e decodifica o cursor (se houver)
+        int limite = filtro.getLimite() == null || filtro.getLimite() <= 0
+                ? LIMITE_PADRAO_LISTAGEM
+                : Math.min(filtro.getLimite(), LIMITE_MAXIMO_LISTAGEM);
+        LocalDateTime cursorData = null;
+        Long cursorId = null;
+        if (filtro.getCursor() != null && !filtro.getCursor().isBlank()) {
+            String[] partes = decodificarCursor(filtro.getCursor());
+            cursorData = LocalDateTime.parse(partes[0]);
+            cursorId = Long.valueOf(partes[1]);
         }
-        
-        // --- 2. Calcula Média da Venda ---
-        BigDecimal mediaVendaMes = BigDecimal.ZERO;
-        if (qtdVendasMes > 0) {
-            mediaVendaMes = totalVendasMes.divide(new BigDecimal(qtdVendasMes), 2, RoundingMode.HALF_UP);
+
+        // 3. Busca uma linha a mais para saber se existe próxima página
+        List<VendaListagemProjection> linhas = vendaRepository.buscarPagina(
+                empresaId, filtro, cursorData, cursorId, limite + 1);
+        boolean temProxima = linhas.size() > limite;
+        if (temProxima) {
+            linhas = linhas.subList(0, limite);
         }
 
-        // --- 2.1 Calcula Média da Comissão ---  // <-- ADICIONAR ESTE BLOCO
-        BigDecimal mediaComissoesMes = BigDecimal.ZERO;
-        if (qtdVendasMes > 0) {
-            mediaComissoesMes = totalComissoesMes.divide(new BigDecimal(qtdVendasMes), 2, RoundingMode.HALF_UP);
+        // 4. O cursor aponta para a última venda desta página
+        String proximoCursor = null;
+        if (temProxima) {
+            VendaListagemProjection ultima = linhas.get(linhas.size() - 1);
+            proximoCursor = codificarCursor(ultima.getDataVenda(), ultima.getId());
         }
 
-        // --- 3. Ranking de Vendedores (SQL Nativo) ---
-        List<VendedorRankingDTO> rankingVendedores = vendaRepository.findRankingVendedores(empresaId).stream()
-            .map(obj -> new VendedorRankingDTO(
-                (String) obj[0], // nomeVendedor
-                (Long) obj[1],   // idVendedor
-                (BigDecimal) obj[2], // valorTotal
-                ((Number) obj[3]).longValue() // qtdVendas (CAST para Long)
-            )).toList();
-
-        // --- 4. Maiores e Últimas Vendas (HQL com JOIN FETCH) ---
-        // Usamos PageRequest para limitar os resultados (ex: top 5)
-        PageRequest limit5 = PageRequest.of(0, 5);
-        
-        List<Venda> maioresVendasEntities = vendaRepository.findMaioresVendas(empresaId, limit5);
-        List<Venda> ultimasVendasEntities = vendaRepository.findUltimasVendas(empresaId, limit5);
-        
-        // Mapeamento usando o método fromEntity do DTO
-        List<VendaDetalheDTO> maioresVendas = maioresVendasEntities.stream()
-            .map(VendaDetalheDTO::fromEntity)
-            .toList();
-            
-        List<VendaDetalheDTO> ultimasVendas = ultimasVendasEntities.stream()
-            .map(VendaDetalheDTO::fromEntity)
-            .toList();
-        
-        // --- 5. Histórico Vendas Mensal (SQL Nativo) ---
-        // Reutilizamos a query que retorna List<Object[]> e mapeamos para HistoricoRendimentoDTO
-        List<HistoricoRendimentoDTO> historicoVendasMensal = vendaRepository.findHistoricoVendasMensal(empresaId).stream()
-            .map(obj -> new HistoricoRendimentoDTO(
-                (String) obj[0],        // mesAno
-                (BigDecimal) obj[1],    // valorVendido
-                (BigDecimal) obj[2]     // valorComissao
-            ))
-            .toList();
-
-
-        // --- 6. Constrói e Retorna o DTO Principal ---
-        return DashboardResponseDTO.builder()
-                .totalVendasMes(totalVendasMes)
-                .totalComissoesMes(totalComissoesMes)
-                .qtdVendasMes(qtdVendasMes)
-                .mediaVendaMes(mediaVendaMes)
-                .mediaComissaoMes(mediaComissoesMes)
-                .rankingVendedores(rankingVendedores)
-                .maioresVendas(maioresVendas)
-                .ultimasVendas(ultimasVendas)
-                .historicoVendasMensal(historicoVendasMensal)
-                .build();
+        List<VendaResponseDTO> itens = linhas.stream()
+                .map(VendaResponseDTO::fromProjection)
+                .toList();
+        return new VendaPaginaDTO(itens, proximoCursor);
     }
 
     /**
@@ -216,44 +290,115 @@ public class VendaService {
         // 1. Pega o ID da Empresa do ADMIN logado
         Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
 
-        // 2. Busca a Venda, garantindo que ela pertença à empresa logada
-        // Precisamos buscar a Venda e o Vendedor LAZY (se não tiver JOIN FETCH, a transação deve estar aberta)
-        Venda vendaExistente = vendaRepository.findByEmpresaId(empresaId)
-                .stream()
-                .filter(v -> v.getId().equals(idVenda))
-                .findFirst()
+        // 2. Busca SÓ a Venda pedida, garantindo que ela pertença à empresa logada
+        Venda vendaExistente = vendaRepository.findByEmpresaIdAndId(empresaId, idVenda)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Venda não encontrada com o ID: " + idVenda + " para esta empresa."));
-        
-        // 3. Atualiza os campos: valorVenda e descricaoVenda
-        BigDecimal novoValorVenda = dto.getValorVenda();
-        vendaExistente.setValorVenda(novoValorVenda);
-        vendaExistente.setDescricaoVenda(dto.getDescricaoVenda());
-        
-        // 4. Recalcula a Comissão
-        // O Vendedor é LAZY, acessamos aqui dentro da transação:
-        Vendedor vendedor = vendaExistente.getVendedor();
-        if (vendedor == null) {
-            throw new IllegalStateException("Venda não associada a um vendedor válido.");
+
+        // 3. Aplica a edição (valor, descrição e nova comissão)
+        VendaEvento evento = aplicarEdicao(vendaExistente, dto.getValorVenda(),
+                dto.getDescricaoVenda(), dto.getVersao());
+
+        // 4. Flush para o UPDATE (e a nova versao) acontecer antes de montar a resposta
+        Venda vendaAtualizada = vendaRepository.saveAndFlush(vendaExistente);
+        if (evento != null) {
+            vendaEventoRepository.save(evento);
         }
+        versaoDadosService.invalidar(empresaId); // A descrição também aparece na listagem
+
+        // 5. Retorna o DTO de resposta
+        return VendaResponseDTO.fromEntity(vendaAtualizada);
+    }
+
+    /**
+     * Atualiza várias vendas em uma única transação (PUT /api/vendas/batch).
+     * As vendas são buscadas com UMA consulta (IN) e os UPDATEs vão ao banco
+     * em lotes JDBC (hibernate.jdbc.batch_size).
+     *
+     * @param dto A lista de edições (id, valorVenda, descricaoVenda, versao).
+     * @return Os DTOs das vendas atualizadas, na ordem recebida.
+     * @throws EntityNotFoundException se alguma venda não pertencer à empresa logada.
+     * @throws IllegalArgumentException se a mesma venda aparecer mais de uma vez.
+     */
+    @Transactional
+    public List<VendaResponseDTO> atualizarVendasEmLote(VendaLoteUpdateRequestDTO dto) {
+        // 1. Pega o ID da Empresa do ADMIN logado
+        Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
 
-        BigDecimal percentualComissao = vendedor.getPercentualComissao();
-        if (percentualComissao == null) {
-            percentualComissao = BigDecimal.ZERO;
+        // 2. Valida IDs repetidos
+        List<Long> ids = dto.getItens().stream().map(VendaLoteUpdateRequestDTO.Item::getId).toList();
+        Set<Long> idsUnicos = new HashSet<>(ids);
+        if (idsUnicos.size() != ids.size()) {
+            throw new IllegalArgumentException("A mesma venda não pode ser editada duas vezes no mesmo lote.");
         }
-        
-        // Novo Cálculo
-        BigDecimal novoValorComissao = novoValorVenda
-                .multiply(percentualComissao)
-                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
 
-        vendaExistente.setValorComissaoCalculado(novoValorComissao);
+        // 3. Busca todas as vendas do lote (já com vendedor) em uma consulta
+        Map<Long, Venda> vendasPorId = new HashMap<>();
+        vendaRepository.findByEmpresaIdAndIdInComVendedor(empresaId, idsUnicos)
+                .forEach(v -> vendasPorId.put(v.getId(), v));
+
+        // 4. Aplica as edições (se faltar alguma venda, nada é gravado)
+        List<VendaEvento> eventos = new ArrayList<>();
+        List<Venda> vendasAtualizadas = new ArrayList<>();
+        for (VendaLoteUpdateRequestDTO.Item item : dto.getItens()) {
+            Venda venda = vendasPorId.get(item.getId());
+            if (venda == null) {
+                throw new EntityNotFoundException(
+                        "Venda não encontrada com o ID: " + item.getId() + " para esta empresa.");
+            }
+            VendaEvento evento = aplicarEdicao(venda, item.getValorVenda(), item.getDescricaoVenda(), item.getVersao());
+            if (evento != null) {
+                eventos.add(evento);
+            }
+            vendasAtualizadas.add(venda);
+        }
 
-        // 5. Salva (o save é necessário para garantir o flush, embora @Transactional // faça o trabalho)
-        Venda vendaAtualizada = vendaRepository.save(vendaExistente);
+        // 5. Flush: os UPDATEs (com checagem de versão) saem em lote
+        vendaRepository.flush();
+        vendaEventoRepository.saveAll(eventos);
+        versaoDadosService.invalidar(empresaId);
 
-        // 6. Retorna o DTO de resposta
-        return VendaResponseDTO.fromEntity(vendaAtualizada);
+        return vendasAtualizadas.stream()
+                .map(VendaResponseDTO::fromEntity)
+                .toList();
+    }
+
+    /**
+     * Aplica a edição em uma venda já carregada: confere a versão informada,
+     * atualiza valor/descrição e recalcula a comissão.
+     *
+     * @return O evento VALOR_ALTERADO para o outbox, ou null se o valor não mudou.
+     * @throws ObjectOptimisticLockingFailureException se a versão informada estiver desatualizada.
+     */
+    private VendaEvento aplicarEdicao(Venda venda, BigDecimal novoValorVenda, String novaDescricao,
+            Long versaoEsperada) {
+        // 1. O cliente editou uma versão antiga? (alguém alterou a venda depois da leitura)
+        if (versaoEsperada != null && !versaoEsperada.equals(venda.getVersao())) {
+            throw new ObjectOptimisticLockingFailureException(Venda.class, venda.getId());
+        }
+
+        // 2. O Vendedor é LAZY, acessamos aqui dentro da transação
+        Vendedor vendedor = venda.getVendedor();
+        if (vendedor == null) {
+            throw new IllegalStateException("Venda não associada a um vendedor válido.");
+        }
+
+        // Guarda os valores antigos para aplicar só a diferença nos agregados
+        BigDecimal valorAnterior = venda.getValorVenda();
+        BigDecimal comissaoAnterior = venda.getValorComissaoCalculado();
+
+        // 3. Atualiza os campos e recalcula a comissão
+        venda.setValorVenda(novoValorVenda);
+        venda.setDescricaoVenda(novaDescricao);
+        venda.setValorComissaoCalculado(
+                CalculadoraComissao.calcular(novoValorVenda, vendedor.getPercentualComissao()));
+
+        // 4. Só a descrição mudou? Os agregados não são afetados
+        if (valorAnterior.compareTo(venda.getValorVenda()) == 0
+                && comissaoAnterior.compareTo(venda.getValorComissaoCalculado()) == 0) {
+            return null;
+        }
+        return VendaEvento.valorAlterado(venda, valorAnterior, comissaoAnterior);
     }
 
     // ========================================================================
@@ -268,6 +413,7 @@ public class VendaService {
      * @return A entidade Venda que foi salva (com status PENDENTE).
      * @throws EntityNotFoundException se o usuário logado não for um vendedor.
      */
+    @Timed(value = "comissoes.vendas", extraTags = { "operacao", "lancar_pelo_vendedor" })
     @Transactional
     public Venda lancarPeloVendedor(VendaVendedorRequestDTO dto) {
 
@@ -281,16 +427,9 @@ public class VendaService {
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Nenhum perfil de vendedor encontrado para o usuário logado."));
 
-        // 3. Pega o percentual de comissão deste vendedor
-        BigDecimal percentualComissao = vendedor.getPercentualComissao();
-        if (percentualComissao == null) {
-            percentualComissao = BigDecimal.ZERO;
-        }
-
-        // 4. Calcula o valor da comissão
-        BigDecimal valorComissao = dto.getValorVenda()
-                .multiply(percentualComissao)
-                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+        // 3. e 4. Calcula o valor da comissão com o percentual deste vendedor
+        BigDecimal valorComissao = CalculadoraComissao.calcular(
+                dto.getValorVenda(), vendedor.getPercentualComissao());
 
         // 5. Cria a entidade Venda
         Venda novaVenda = Venda.builder()
@@ -301,7 +440,12 @@ public class VendaService {
                 .status(VendaStatus.PENDENTE) // 6. Venda do Vendedor é PENDENTE
                 .build();
 
-        return vendaRepository.save(novaVenda);
+        Venda vendaSalva = vendaRepository.save(novaVenda);
+
+        // 7. Grava o evento no outbox (na mesma transação)
+        vendaEventoRepository.save(VendaEvento.criada(vendaSalva));
+        versaoDadosService.invalidar(empresaId);
+        return vendaSalva;
     }
 
     /**
@@ -337,6 +481,7 @@ public class VendaService {
      * @throws EntityNotFoundException se a venda não for encontrada.
      * @throws IllegalStateException se a venda não estiver PENDENTE.
      */
+    @Timed(value = "comissoes.vendas", extraTags = { "operacao", "aprovar" })
     @Transactional
     public Venda aprovarVenda(Long vendaId) {
         Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
@@ -354,10 +499,16 @@ public class VendaService {
         }
 
         // 3. Atualiza o status
+        VendaStatus statusAnterior = venda.getStatus();
         venda.setStatus(VendaStatus.CONFIRMADA);
 
         // 4. Salva a Venda (JPA faz o UPDATE)
-        return vendaRepository.save(venda);
+        Venda vendaSalva = vendaRepository.save(venda);
+
+        // 5. Grava a mudança de status no outbox (na mesma transação)
+        vendaEventoRepository.save(VendaEvento.mudancaStatus(vendaSalva, statusAnterior));
+        versaoDadosService.invalidar(empresaId);
+        return vendaSalva;
     }
 
     /**
@@ -369,6 +520,7 @@ public class VendaService {
      * @return A Venda atualizada com o status CANCELADA.
      * @throws EntityNotFoundException se a venda não for encontrada.
      */
+    @Timed(value = "comissoes.vendas", extraTags = { "operacao", "cancelar" })
     @Transactional
     public Venda cancelarVenda(Long vendaId) {
         Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
@@ -385,9 +537,40 @@ public class VendaService {
         }
 
         // 3. Atualiza o status
+        VendaStatus statusAnterior = venda.getStatus();
         venda.setStatus(VendaStatus.CANCELADA);
 
         // 4. Salva a Venda
-        return vendaRepository.save(venda);
+        Venda vendaSalva = vendaRepository.save(venda);
+
+        // 5. Grava a mudança de status no outbox (na mesma transação)
+        vendaEventoRepository.save(VendaEvento.mudancaStatus(vendaSalva, statusAnterior));
+        versaoDadosService.invalidar(empresaId);
+        return vendaSalva;
+    }
+
+    // ========================================================================
+    // CURSOR DA LISTAGEM (opaco para o cliente: Base64 de "dataVenda|id")
+    // ========================================================================
+
+    private static String codificarCursor(LocalDateTime dataVenda, Long id) {
+        String valor = dataVenda + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodificarCursor(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\|");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+            // Valida o formato aqui para devolver 400 (e não 500)
+            LocalDateTime.parse(partes[0]);
+            Long.valueOf(partes[1]);
+            return partes;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido.", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,224 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.andrebrandao.comissoes_api.config.datasource.TempoLimiteComandoService;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.MovimentoVenda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaEvento;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendedorEstatisticas;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorEstatisticasRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Mantém os contadores por vendedor (VendedorEstatisticas).
+ *
+ * Os mesmos movimentos (MovimentoVenda) que alimentam o resumo do Dashboard
+ * são aplicados aqui, pelo consumo do outbox (VendaEventoService). A reconciliação
+ * recalcula os contadores a partir da tabela venda (inicialização e verificação periódica).
+ */
+@Service
+@RequiredArgsConstructor
+public class VendedorEstatisticasService {
+
+    private final VendedorEstatisticasRepository vendedorEstatisticasRepository;
+    private final VendaRepository vendaRepository;
+    private final VendedorRepository vendedorRepository;
+    private final VendaEventoRepository vendaEventoRepository;
+    private final VersaoDadosService versaoDadosService;
+    private final TempoLimiteComandoService tempoLimiteComandoService;
+
+    /**
+     * Busca os contadores de um vendedor (uma linha, pela chave primária).
+     *
+     * @return Os contadores, ou uma linha zerada se o vendedor ainda não tiver uma.
+     */
+    @Transactional(readOnly = true)
+    public VendedorEstatisticas buscar(Vendedor vendedor) {
+        return vendedorEstatisticasRepository.findById(vendedor.getId())
+                .orElseGet(() -> VendedorEstatisticas.vazia(vendedor.getId(), empresaId(vendedor)));
+    }
+
+    /**
+     * Busca os contadores de todos os vendedores da empresa, indexados pelo ID do vendedor.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, VendedorEstatisticas> buscarPorEmpresa(Long empresaId) {
+        Map<Long, VendedorEstatisticas> porVendedor = new HashMap<>();
+        for (VendedorEstatisticas e : vendedorEstatisticasRepository.findByEmpresaId(empresaId)) {
+            porVendedor.put(e.getVendedorId(), e);
+        }
+        return porVendedor;
+    }
+
+    /**
+     * Cria a linha zerada de um vendedor recém-cadastrado.
+     */
+    @Transactional
+    public void inicializar(Vendedor vendedor) {
+        vendedorEstatisticasRepository.save(VendedorEstatisticas.vazia(vendedor.getId(), empresaId(vendedor)));
+    }
+
+    /**
+     * Aplica os movimentos nos contadores dos vendedores, dentro da transação de quem chamou
+     * (o consumo de um lote do outbox).
+     *
+     * @param movimentos Os deltas gerados pelas operações sobre vendas.
+     */
+    @Transactional
+    public void registrarMovimentos(Collection<MovimentoVenda> movimentos) {
+        // 1. Consolida os deltas por vendedor (TreeMap = ordem fixa de lock, sem deadlock)
+        Map<Long, VendedorEstatisticas> deltas = new TreeMap<>();
+        for (MovimentoVenda m : movimentos) {
+            VendedorEstatisticas delta = deltas.computeIfAbsent(m.getVendedorId(),
+                    id -> VendedorEstatisticas.vazia(id, m.getEmpresaId()));
+            somar(delta, m.getStatus(), m.getQtdVendas(), m.getValorVenda(), m.getValorComissao());
+        }
+
+        // 2. Aplica cada delta na linha do vendedor (com lock), criando-a se ainda não existir
+        deltas.forEach((vendedorId, delta) -> {
+            VendedorEstatisticas atual = vendedorEstatisticasRepository.findByIdParaAtualizar(vendedorId)
+                    .orElseGet(() -> VendedorEstatisticas.vazia(vendedorId, delta.getEmpresaId()));
+
+            atual.setQtdVendas(atual.getQtdVendas() + delta.getQtdVendas());
+            atual.setValorTotalVendas(atual.getValorTotalVendas().add(delta.getValorTotalVendas()));
+            atual.setValorTotalComissao(atual.getValorTotalComissao().add(delta.getValorTotalComissao()));
+            atual.setQtdPendentes(atual.getQtdPendentes() + delta.getQtdPendentes());
+            atual.setQtdConfirmadas(atual.getQtdConfirmadas() + delta.getQtdConfirmadas());
+            atual.setQtdCanceladas(atual.getQtdCanceladas() + delta.getQtdCanceladas());
+            vendedorEstatisticasRepository.save(atual);
+        });
+    }
+
+    /**
+     * Recalcula os contadores de todos os vendedores da empresa a partir da tabela venda
+     * (mais os totais das vendas arquivadas) e corrige as linhas divergentes (ou ausentes).
+     *
+     * Tudo é lido no MESMO snapshot (REPEATABLE READ): as vendas cujo evento ainda
+     * está no outbox são descontadas, pois o despachante aplicará o delta delas depois,
+     * sobre o valor já corrigido. As linhas da empresa são travadas antes da leitura;
+     * se o despachante alterar alguma delas no meio, a transação falha e a
+     * reconciliação pode ser repetida.
+     *
+     * @param empresaId O ID da empresa.
+     * @return Quantos vendedores estavam divergentes (0 = tudo certo).
+     */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int reconciliar(Long empresaId) {
+        // 0. Percorre todas as vendas da empresa: sem o limite curto por comando do pool
+        tempoLimiteComandoService.ampliarParaTarefaLonga();
+
+        // 1. Trava as linhas atuais da empresa
+        Map<Long, VendedorEstatisticas> atuais = new HashMap<>();
+        for (VendedorEstatisticas e : vendedorEstatisticasRepository.findByEmpresaIdParaAtualizar(empresaId)) {
+            atuais.put(e.getVendedorId(), e);
+        }
+
+        // 2. Recalcula a partir das vendas (todo vendedor da empresa começa zerado)
+        Map<Long, VendedorEstatisticas> esperados = new TreeMap<>();
+        for (Vendedor vendedor : vendedorRepository.findByEmpresaId(empresaId)) {
+            esperados.put(vendedor.getId(), VendedorEstatisticas.vazia(vendedor.getId(), empresaId));
+        }
+        for (Object[] obj : vendaRepository.findAgregadoPorVendedorEStatus(empresaId)) {
+            Long vendedorId = (Long) obj[0];
+            VendedorEstatisticas esperado = esperados.computeIfAbsent(vendedorId,
+                    id -> VendedorEstatisticas.vazia(id, empresaId));
+            somar(esperado, (VendaStatus) obj[1], ((Number) obj[2]).longValue(),
+                    obj[3] != null ? (BigDecimal) obj[3] : BigDecimal.ZERO,
+                    obj[4] != null ? (BigDecimal) obj[4] : BigDecimal.ZERO);
+        }
+
+        // 2.1. Soma os totais das vendas arquivadas (partições fora da tabela venda)
+        for (Object[] obj : vendaRepository.findAgregadoArquivadoPorVendedorEStatus(empresaId)) {
+            VendedorEstatisticas esperado = esperados.computeIfAbsent(((Number) obj[0]).longValue(),
+                    id -> VendedorEstatisticas.vazia(id, empresaId));
+            somar(esperado, VendaStatus.valueOf((String) obj[1]), ((Number) obj[2]).longValue(),
+                    (BigDecimal) obj[3], (BigDecimal) obj[4]);
+        }
+
+        // 2.2. Desconta os eventos ainda não aplicados (a venda já está na tabela)
+        for (VendaEvento evento : vendaEventoRepository.findByEmpresaId(empresaId)) {
+            for (MovimentoVenda m : evento.movimentos()) {
+                MovimentoVenda inverso = m.negado();
+                VendedorEstatisticas esperado = esperados.computeIfAbsent(m.getVendedorId(),
+                        id -> VendedorEstatisticas.vazia(id, empresaId));
+                somar(esperado, inverso.getStatus(), inverso.getQtdVendas(),
+                        inverso.getValorVenda(), inverso.getValorComissao());
+            }
+        }
+
+        // 3. Grava apenas o que estiver diferente
+        int divergentes = 0;
+        for (VendedorEstatisticas esperado : esperados.values()) {
+            VendedorEstatisticas atual = atuais.get(esperado.getVendedorId());
+            if (atual == null) {
+                vendedorEstatisticasRepository.save(esperado);
+                divergentes++;
+            } else if (!mesmosValores(atual, esperado)) {
+                atual.setQtdVendas(esperado.getQtdVendas());
+                atual.setValorTotalVendas(esperado.getValorTotalVendas());
+                atual.setValorTotalComissao(esperado.getValorTotalComissao());
+                atual.setQtdPendentes(esperado.getQtdPendentes());
+                atual.setQtdConfirmadas(esperado.getQtdConfirmadas());
+                atual.setQtdCanceladas(esperado.getQtdCanceladas());
+                vendedorEstatisticasRepository.save(atual);
+                divergentes++;
+            }
+        }
+        if (divergentes > 0) {
+            versaoDadosService.invalidar(empresaId); // A listagem de vendedores mudou
+        }
+        return divergentes;
+    }
+
+    /**
+     * IDs das empresas que têm vendedor sem linha de estatísticas (ex: vendedores
+     * cadastrados antes de os contadores existirem).
+     * Sem readOnly de propósito: roda no primário mesmo com a réplica de leitura ligada.
+     */
+    @Transactional
+    public List<Long> empresasPendentesDeInicializacao() {
+        return vendedorEstatisticasRepository.findEmpresaIdsComVendedorSemEstatisticas();
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static void somar(VendedorEstatisticas alvo, VendaStatus status, long qtd,
+            BigDecimal valorVenda, BigDecimal valorComissao) {
+        alvo.setQtdVendas(alvo.getQtdVendas() + qtd);
+        alvo.setValorTotalVendas(alvo.getValorTotalVendas().add(valorVenda));
+        alvo.setValorTotalComissao(alvo.getValorTotalComissao().add(valorComissao));
+        switch (status) {
+            case PENDENTE -> alvo.setQtdPendentes(alvo.getQtdPendentes() + qtd);
+            case CONFIRMADA -> alvo.setQtdConfirmadas(alvo.getQtdConfirmadas() + qtd);
+            case CANCELADA -> alvo.setQtdCanceladas(alvo.getQtdCanceladas() + qtd);
+        }
+    }
+
+    private static boolean mesmosValores(VendedorEstatisticas a, VendedorEstatisticas b) {
+        // compareTo: 10.0 e 10.00 são o mesmo valor
+        return a.getQtdVendas() == b.getQtdVendas()
+                && a.getValorTotalVendas().compareTo(b.getValorTotalVendas()) == 0
+                && a.getValorTotalComissao().compareTo(b.getValorTotalComissao()) == 0
+                && a.getQtdPendentes() == b.getQtdPendentes()
+                && a.getQtdConfirmadas() == b.getQtdConfirmadas()
+                && a.getQtdCanceladas() == b.getQtdCanceladas();
+    }
+
+    private static Long empresaId(Vendedor vendedor) {
+        return vendedor.getEmpresa() != null ? vendedor.getEmpresa().getId() : null;
+    }
+}
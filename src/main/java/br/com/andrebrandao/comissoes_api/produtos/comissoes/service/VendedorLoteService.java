@@ -0,0 +1,442 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorLoteItemDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendedorEstatisticas;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import br.com.andrebrandao.comissoes_api.security.service.TenantService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cadastro de vendedores em lote (POST /api/vendedores/lote), ex: implantação de
+ * uma empresa nova com a planilha de vendedores.
+ *
+ * - Os emails já cadastrados são verificados com UMA consulta (IN), não um findByEmail por item;
+ * - As senhas temporárias são geradas e o hash (BCrypt, caro de propósito) é calculado em
+ *   paralelo, em um pool PRÓPRIO e limitado. Como no login (AutenticacaoService), com a
+ *   fila cheia o pedido é recusado (503) em vez de ocupar a CPU do servidor inteiro;
+ * - O hash é calculado FORA da transação: a conexão com o banco só é usada para os INSERTs,
+ *   que saem em lotes (flush/clear a cada hibernate.jdbc.batch_size itens);
+ * - Cada item é validado individualmente: itens inválidos (ou com email em uso) viram erro
+ *   no resultado, sem impedir o cadastro dos demais.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VendedorLoteService {
+
+    private final UserRepository userRepository;
+    private final EmpresaRepository empresaRepository;
+    private final TenantService tenantService;
+    private final PasswordEncoder passwordEncoder;
+    private final VersaoDadosService versaoDadosService; // ETag das listagens e do Dashboard
+    private final Validator validator; // Validação item a item
+    private final TransactionTemplate transactionTemplate; // Transação só para os INSERTs
+    private final ObjectMapper objectMapper; // O mesmo do Spring MVC
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${application.vendedores.lote.max-itens:5000}")
+    private int maxItensLote;
+
+    // 0 = número de processadores (o BCrypt é limitado por CPU)
+    @Value("${application.vendedores.lote.hash.threads:0}")
+    private int threads;
+
+    // Partes de lote aguardando uma thread livre (cada lote é dividido em até "threads" partes)
+    @Value("${application.vendedores.lote.hash.fila:32}")
+    private int capacidadeFila;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoLoteJdbc;
+
+    private static final String CABECALHO_RESPOSTA_CSV =
+            "indice,idVendedor,idUsuario,nome,email,percentualComissao,senhaTemporaria,erro";
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void iniciar() {
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setThreadNamePrefix("vendedor-lote-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Cadastra os vendedores (e os usuários) na empresa do Admin logado.
+     *
+     * @param dtos Os vendedores a cadastrar (mesmo formato do VendedorRequestDTO).
+     * @return O resultado por item (IDs e senha temporária, ou mensagem de erro), na ordem do envio.
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o limite.
+     * @throws org.springframework.core.task.TaskRejectedException se o pool de hash estiver cheio.
+     */
+    public List<VendedorLoteItemDTO> criarEmLote(List<VendedorRequestDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Informe ao menos um vendedor.");
+        }
+        if (dtos.size() > maxItensLote) {
+            throw new IllegalArgumentException("No máximo " + maxItensLote + " vendedores por requisição.");
+        }
+
+        // 1. Pega o ID da Empresa do ADMIN logado
+        Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
+
+        // 2. Emails já cadastrados (uma consulta para o lote inteiro)
+        Set<String> emails = new HashSet<>();
+        dtos.forEach(dto -> {
+            if (dto != null && dto.getEmail() != null) {
+                emails.add(dto.getEmail());
+            }
+        });
+        Set<String> emailsEmUso = new HashSet<>(userRepository.findEmailsExistentes(emails));
+
+        // 3. Valida cada item (Bean Validation, email em uso, email repetido no próprio lote)
+        Map<Integer, String> erros = new HashMap<>();
+        List<Integer> validos = new ArrayList<>(dtos.size());
+        Set<String> emailsDoLote = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            String erro = validarItemLote(dtos.get(i), emailsEmUso, emailsDoLote);
+            if (erro != null) {
+                erros.put(i, erro);
+            } else {
+                validos.add(i);
+            }
+        }
+
+        // 4. Senhas temporárias e os hashes (em paralelo, fora da transação)
+        List<String> senhas = new ArrayList<>(validos.size());
+        for (int i = 0; i < validos.size(); i++) {
+            senhas.add(RandomStringUtils.randomAlphanumeric(10));
+        }
+        List<String> hashes = gerarHashes(senhas);
+
+        // 5. Persiste em lotes JDBC, em uma única transação
+        List<VendedorLoteItemDTO> resultados = transactionTemplate.execute(status ->
+                persistir(dtos, empresaId, erros, validos, senhas, hashes));
+
+        if (!validos.isEmpty()) {
+            versaoDadosService.invalidar(empresaId);
+        }
+        log.info("Vendedores em lote: {} criados, {} com erro (empresa {})", validos.size(), erros.size(), empresaId);
+        return resultados;
+    }
+
+    /**
+     * Lê o lote em CSV (RFC 4180). A primeira linha é o cabeçalho, com as colunas
+     * nome, email e percentualComissao (em qualquer ordem; colunas extras são ignoradas).
+     *
+     * @param csv O conteúdo do arquivo.
+     * @return Os vendedores, na ordem das linhas (linhas em branco são ignoradas).
+     * @throws IllegalArgumentException se o arquivo estiver mal formado (vira 400).
+     */
+    public List<VendedorRequestDTO> lerCsv(String csv) {
+        String conteudo = csv == null ? "" : csv;
+        if (conteudo.startsWith("\uFEFF")) {
+            conteudo = conteudo.substring(1); // BOM do UTF-8 (arquivos salvos pelo Excel)
+        }
+        List<List<String>> linhas = linhasCsv(conteudo);
+        if (linhas.isEmpty()) {
+            throw new IllegalArgumentException("CSV vazio. A primeira linha deve ser o cabeçalho: nome,email,percentualComissao");
+        }
+
+        // 1. Posição de cada coluna pelo cabeçalho
+        List<String> cabecalho = linhas.get(0);
+        int colNome = coluna(cabecalho, "nome");
+        int colEmail = coluna(cabecalho, "email");
+        int colPercentual = coluna(cabecalho, "percentualcomissao");
+
+        // 2. Uma linha = um vendedor
+        List<VendedorRequestDTO> dtos = new ArrayList<>(linhas.size() - 1);
+        for (int l = 1; l < linhas.size(); l++) {
+            List<String> campos = linhas.get(l);
+            if (campos.size() != cabecalho.size()) {
+                throw new IllegalArgumentException("CSV inválido na linha " + (l + 1) + ": esperadas "
+                        + cabecalho.size() + " colunas, encontradas " + campos.size() + ".");
+            }
+            VendedorRequestDTO dto = new VendedorRequestDTO();
+            dto.setNome(campos.get(colNome).trim());
+            dto.setEmail(campos.get(colEmail).trim());
+            dto.setPercentualComissao(percentual(campos.get(colPercentual), l + 1));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    /**
+     * Escreve o resultado do lote, uma linha por item.
+     *
+     * @param resultados O resultado de criarEmLote.
+     * @param formato    CSV ou NDJSON (um JSON de VendedorLoteItemDTO por linha).
+     * @param saida      O stream de saída (ex: o da resposta HTTP). Não é fechado aqui.
+     */
+    public void escrever(List<VendedorLoteItemDTO> resultados, VendaExportacaoService.Formato formato,
+            OutputStream saida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), 64 * 1024);
+        if (formato == VendaExportacaoService.Formato.CSV) {
+            writer.write(CABECALHO_RESPOSTA_CSV);
+            writer.write('\n');
+        }
+        for (VendedorLoteItemDTO item : resultados) {
+            if (formato == VendaExportacaoService.Formato.CSV) {
+                escreverLinhaCsv(writer, item);
+            } else {
+                writer.write(objectMapper.writeValueAsString(item));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    /**
+     * Valida um item do lote. Um email válido entra em "emailsDoLote" (o primeiro vence).
+     *
+     * @return A mensagem de erro, ou null se o item é válido.
+     */
+    private String validarItemLote(VendedorRequestDTO dto, Set<String> emailsEmUso, Set<String> emailsDoLote) {
+        if (dto == null) {
+            return "Item vazio.";
+        }
+        Set<ConstraintViolation<VendedorRequestDTO>> violacoes = validator.validate(dto);
+        if (!violacoes.isEmpty()) {
+            return violacoes.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(" "));
+        }
+        if (emailsEmUso.contains(dto.getEmail())) {
+            return "O email informado já está em uso.";
+        }
+        if (!emailsDoLote.add(dto.getEmail())) {
+            return "Email repetido no lote.";
+        }
+        return null;
+    }
+
+    /**
+     * Calcula os hashes dividindo as senhas em até "threads" partes, uma tarefa por parte.
+     */
+    private List<String> gerarHashes(List<String> senhas) {
+        if (senhas.isEmpty()) {
+            return List.of();
+        }
+        int partes = Math.min(executor.getMaxPoolSize(), senhas.size());
+        int tamanhoParte = (senhas.size() + partes - 1) / partes;
+
+        List<CompletableFuture<List<String>>> futuros = new ArrayList<>(partes);
+        for (int inicio = 0; inicio < senhas.size(); inicio += tamanhoParte) {
+            List<String> parte = senhas.subList(inicio, Math.min(inicio + tamanhoParte, senhas.size()));
+            futuros.add(executor.submitCompletable(() -> parte.stream().map(passwordEncoder::encode).toList()));
+        }
+
+        List<String> hashes = new ArrayList<>(senhas.size());
+        try {
+            futuros.forEach(futuro -> hashes.addAll(futuro.join()));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        return hashes;
+    }
+
+    private List<VendedorLoteItemDTO> persistir(List<VendedorRequestDTO> dtos, Long empresaId,
+            Map<Integer, String> erros, List<Integer> validos, List<String> senhas, List<String> hashes) {
+        Empresa empresa = empresaRepository.getReferenceById(empresaId);
+        Map<Integer, VendedorLoteItemDTO> criados = new HashMap<>();
+        int pendentesNoLote = 0;
+
+        for (int v = 0; v < validos.size(); v++) {
+            int i = validos.get(v);
+            VendedorRequestDTO dto = dtos.get(i);
+
+            User novoUsuario = User.builder()
+                    .nome(dto.getNome())
+                    .email(dto.getEmail())
+                    .senha(hashes.get(v))
+                    .role(Role.ROLE_VENDEDOR)
+                    .empresa(empresa)
+                    .build();
+            entityManager.persist(novoUsuario);
+
+            Vendedor novoVendedor = Vendedor.builder()
+                    .percentualComissao(dto.getPercentualComissao())
+                    .empresa(empresa)
+                    .usuario(novoUsuario)
+                    .build();
+            entityManager.persist(novoVendedor);
+
+            // Contadores de vendas começam zerados (como no cadastro individual)
+            entityManager.persist(VendedorEstatisticas.vazia(novoVendedor.getId(), empresaId));
+
+            criados.put(i, VendedorLoteItemDTO.sucesso(i, novoVendedor, senhas.get(v)));
+
+            // A cada lote: envia os INSERTs e solta as entidades da memória
+            if (++pendentesNoLote == tamanhoLoteJdbc) {
+                entityManager.flush();
+                entityManager.clear();
+                pendentesNoLote = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Resultado na ordem do envio
+        List<VendedorLoteItemDTO> resultados = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            VendedorLoteItemDTO criado = criados.get(i);
+            resultados.add(criado != null ? criado : VendedorLoteItemDTO.erro(i, dtos.get(i), erros.get(i)));
+        }
+        return resultados;
+    }
+
+    private void escreverLinhaCsv(Writer writer, VendedorLoteItemDTO item) throws IOException {
+        writer.write(String.valueOf(item.getIndice()));
+        writer.write(',');
+        writer.write(item.getIdVendedor() == null ? "" : String.valueOf(item.getIdVendedor()));
+        writer.write(',');
+        writer.write(item.getIdUsuario() == null ? "" : String.valueOf(item.getIdUsuario()));
+        writer.write(',');
+        writer.write(VendaExportacaoService.textoCsv(item.getNome()));
+        writer.write(',');
+        writer.write(VendaExportacaoService.textoCsv(item.getEmail()));
+        writer.write(',');
+        writer.write(item.getPercentualComissao() == null ? "" : item.getPercentualComissao().toPlainString());
+        writer.write(',');
+        writer.write(VendaExportacaoService.textoCsv(item.getSenhaTemporaria()));
+        writer.write(',');
+        writer.write(VendaExportacaoService.textoCsv(item.getErro()));
+        writer.write('\n');
+    }
+
+    private static int coluna(List<String> cabecalho, String nome) {
+        for (int c = 0; c < cabecalho.size(); c++) {
+            if (cabecalho.get(c).trim().toLowerCase(Locale.ROOT).equals(nome)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException(
+                "CSV sem a coluna obrigatória no cabeçalho. Esperado: nome,email,percentualComissao");
+    }
+
+    private static BigDecimal percentual(String valor, int linha) {
+        String texto = valor.trim();
+        if (texto.isEmpty()) {
+            return null; // A Bean Validation acusa o campo obrigatório no item
+        }
+        try {
+            return new BigDecimal(texto);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("CSV inválido na linha " + linha + ": percentualComissao '"
+                    + texto + "' não é um número.");
+        }
+    }
+
+    /**
+     * Divide o conteúdo em linhas e campos: campos entre aspas podem ter vírgulas,
+     * quebras de linha e aspas duplicadas (""). Aceita \n e \r\n.
+     */
+    private static List<List<String>> linhasCsv(String csv) {
+        List<List<String>> linhas = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        boolean linhaVazia = true;
+
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+                linhaVazia = false;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                linhaVazia = false;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                if (!linhaVazia) {
+                    campos.add(campo.toString());
+                    linhas.add(campos);
+                }
+                campos = new ArrayList<>();
+                campo.setLength(0);
+                linhaVazia = true;
+            } else {
+                campo.append(c);
+                if (!Character.isWhitespace(c)) {
+                    linhaVazia = false;
+                }
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("CSV inválido: aspas não fechadas.");
+        }
+        if (!linhaVazia) {
+            campos.add(campo.toString());
+            linhas.add(campos);
+        }
+        return linhas;
+    }
+}
@@ -1,8 +1,8 @@
 package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors; // Import necessário
-import java.math.BigDecimal;
 
 import org.apache.commons.lang3.RandomStringUtils; 
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Import Transactional
 
 // --- IMPORTS OBRIGATÓRIOS ---
+import br.com.andrebrandao.comissoes_api.config.datasource.ConsultaRelatorio;
 import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.HistoricoRendimentoDTO;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorCriadoResponseDTO;
@@ -18,8 +19,9 @@ import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorRequestD
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorUpdateRequestDTO; 
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorResponseDTO; // <-- NOVO
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendedorEstatisticas;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository; // <-- Necessário
-import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.VendedorComVendasProjection; // <-- NOVO
 import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.projection.HistoricoRendimentoProjection;
 import br.com.andrebrandao.comissoes_api.security.model.Role; 
 import br.com.andrebrandao.comissoes_api.security.model.User; 
@@ -43,6 +45,9 @@ public class VendedorService {
     private final PasswordEncoder passwordEncoder;
     private final TenantService tenantService;
     private final EmpresaRepository empresaRepository; // Necessário para getReferenceById
+    private final VendedorEstatisticasService vendedorEstatisticasService; // Contadores de vendas
+    private final VersaoDadosService versaoDadosService; // ETag das listagens e do Dashboard
+    private final VendaResumoMensalRepository vendaResumoMensalRepository; // Histórico mensal do vendedor
 
     // ... método criar() (Mantido, sem alteração na assinatura)
     @Transactional
@@ -72,29 +77,34 @@ public class VendedorService {
                 .build();
         Vendedor vendedorSalvo = vendedorRepository.save(novoVendedor);
 
+        // Contadores de vendas começam zerados
+        vendedorEstatisticasService.inicializar(vendedorSalvo);
+        versaoDadosService.invalidar(empresaId);
+
         return VendedorCriadoResponseDTO.fromEntity(vendedorSalvo, senhaGerada);
     }
 
 
     /**
-     * Lista todos os Vendedores (OTIMIZADO com Projeção).
+     * Lista todos os Vendedores da empresa com seus contadores de vendas.
+     * Duas consultas (vendedores + contadores), sem agregar a tabela venda.
      *
      * @return Lista de DTOs VendedorResponseDTO.
      */
-    @Transactional(readOnly = true) // <-- ADICIONADO: Mantém a sessão ativa para carregar o User
-    public List<VendedorResponseDTO> listar() { // <-- ASSINATURA ALTERADA
+    @ConsultaRelatorio
+    @Transactional(readOnly = true)
+    public List<VendedorResponseDTO> listar() {
         Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
         
-        // 1. Chama a consulta otimizada
-        List<VendedorComVendasProjection> projections = vendedorRepository.findAllWithVendasCount(empresaId);
+        // 1. Vendedores (com o User) e os contadores de todos eles
+        List<Vendedor> vendedores = vendedorRepository.findByEmpresaIdComUsuario(empresaId);
+        Map<Long, VendedorEstatisticas> estatisticas = vendedorEstatisticasService.buscarPorEmpresa(empresaId);
         
-        // 2. Mapeia a lista de Projeções para a lista final de DTOs de Resposta
-        return projections.stream().map(projection -> {
-            Vendedor vendedor = projection.getVendedor();
-            Long qtdVendas = projection.getQtdVendas();
-            BigDecimal valorTotalVendas = projection.getValorTotalVendas();
-            
-            return VendedorResponseDTO.fromEntity(vendedor, qtdVendas, valorTotalVendas);
+        // 2. Mapeia para a lista final de DTOs de Resposta
+        return vendedores.stream().map(vendedor -> {
+            VendedorEstatisticas e = estatisticas.getOrDefault(vendedor.getId(),
+                    VendedorEstatisticas.vazia(vendedor.getId(), empresaId));
+            return VendedorResponseDTO.fromEntity(vendedor, e.getQtdVendas(), e.getValorTotalVendas());
         }).collect(Collectors.toList());
     }
 
@@ -111,18 +121,11 @@ public class VendedorService {
                 .orElseThrow(() -> new EntityNotFoundException(
                         "Vendedor não encontrado com o ID: " + idDoVendedor + " para esta empresa."));
         
-        // Calcula a qtdVendas
-        Long qtdVendas = vendedorRepository.contarVendasPorVendedorId(vendedor.getId());
-        
-        // Calcula o valor total de vendas (NOVO MÉTODO NECESSÁRIO NO REPOSITÓRIO)
-        BigDecimal valorTotalVendas = vendedorRepository.somarVendasPorVendedorId(vendedor.getId()); 
-        
-        // Trata NULL para ZERO, caso o vendedor não tenha vendas
-        if (valorTotalVendas == null) {
-             valorTotalVendas = BigDecimal.ZERO;
-        }
+        // Contadores de vendas (uma linha, pela chave primária)
+        VendedorEstatisticas estatisticas = vendedorEstatisticasService.buscar(vendedor);
+
         // Mapeia a Entidade para o DTO
-        return VendedorResponseDTO.fromEntity(vendedor, qtdVendas, valorTotalVendas);
+        return VendedorResponseDTO.fromEntity(vendedor, estatisticas.getQtdVendas(), estatisticas.getValorTotalVendas());
     }
 
     /**
@@ -142,19 +145,13 @@ public class VendedorService {
         vendedorExistente.setPercentualComissao(dto.getPercentualComissao());
 
         Vendedor vendedorAtualizado = vendedorRepository.save(vendedorExistente);
+        versaoDadosService.invalidar(empresaId);
         
-        // Recalcula a qtdVendas para o DTO de resposta
-        Long qtdVendas = vendedorRepository.contarVendasPorVendedorId(vendedorAtualizado.getId());
-        
-        // Recalcula a valor total de vendas (NOVO MÉTODO NECESSÁRIO NO REPOSITÓRIO)
-        BigDecimal valorTotalVendas = vendedorRepository.somarVendasPorVendedorId(vendedorAtualizado.getId());
-        
-        if (valorTotalVendas == null) {
-             valorTotalVendas = BigDecimal.ZERO;
-        }   
+        // Contadores de vendas para o DTO de resposta
+        VendedorEstatisticas estatisticas = vendedorEstatisticasService.buscar(vendedorAtualizado);
 
         // Mapeia e retorna o DTO
-        return VendedorResponseDTO.fromEntity(vendedorAtualizado, qtdVendas, valorTotalVendas);
+        return VendedorResponseDTO.fromEntity(vendedorAtualizado, estatisticas.getQtdVendas(), estatisticas.getValorTotalVendas());
     }
 
     /**
@@ -163,6 +160,7 @@ public class VendedorService {
      * * @param idDoVendedor O ID do vendedor.
      * @return O DTO VendedorDetalhadoResponseDTO.
      */
+    @ConsultaRelatorio
     @Transactional(readOnly = true)
     public VendedorDetalhadoResponseDTO buscarDetalhesPorId(Long idDoVendedor) {
         Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
@@ -179,15 +177,12 @@ public class VendedorService {
             usuario.getNome(); 
         }
 
-        // 3. Busca métricas de vendas: Contagem e Soma Total (métodos existentes)
-        Long qtdVendas = vendedorRepository.contarVendasPorVendedorId(idDoVendedor);
-        BigDecimal valorTotalVendas = vendedorRepository.somarVendasPorVendedorId(idDoVendedor);
-        if (valorTotalVendas == null) {
-             valorTotalVendas = BigDecimal.ZERO;
-        }
+        // 3. Busca métricas de vendas: contadores materializados do vendedor
+        VendedorEstatisticas estatisticas = vendedorEstatisticasService.buscar(vendedor);
 
-        // 4. Busca o Histórico Mensal (Usando a nova Projection)
-        List<HistoricoRendimentoProjection> projections = vendedorRepository.findHistoricoRendimentosMensais(idDoVendedor);
+        // 4. Busca o Histórico Mensal no resumo materializado (sem varrer a tabela venda)
+        List<HistoricoRendimentoProjection> projections =
+                vendaResumoMensalRepository.findHistoricoPorVendedor(empresaId, idDoVendedor);
 
         // 5. Mapeia a Projection para o DTO de Resposta (HistoricoRendimentoDTO)
         List<HistoricoRendimentoDTO> historico = projections.stream()
@@ -198,6 +193,6 @@ public class VendedorService {
             .collect(Collectors.toList());
 
         // 6. Mapeia e retorna (O método fromEntity calcula a média)
-        return VendedorDetalhadoResponseDTO.fromEntity(vendedor, qtdVendas, valorTotalVendas, historico);
+        return VendedorDetalhadoResponseDTO.fromEntity(vendedor, estatisticas, historico);
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.andrebrandao.comissoes_api.config.datasource.ReplicaComFallbackDataSource;
+import br.com.andrebrandao.comissoes_api.core.util.TransacaoUtils;
+import br.com.andrebrandao.comissoes_api.security.service.TenantService;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Versão dos dados de vendas e vendedores de cada empresa, usada como ETag
+ * nas listagens e no Dashboard (GET condicional com If-None-Match).
+ *
+ * Qualquer alteração em vendas, vendedores ou nos agregados (resumo mensal e
+ * contadores) descarta a versão da empresa após o commit; a próxima leitura
+ * recebe um número novo. Assim, um polling sem mudanças custa apenas um
+ * lookup em hash e responde 304 sem tocar no banco.
+ *
+ * Os números nunca se repetem (contador global + identificador da instância).
+ * Como no ModulosAtivosCacheService, o TTL é uma rede de segurança para o caso
+ * de várias instâncias da API: uma alteração feita em outra instância é
+ * percebida aqui, no máximo, depois do TTL.
+ *
+ * Com a réplica de leitura em uso, o corpo pode vir de uma réplica ainda sem a
+ * última alteração (até atraso-maximo-segundos + verificacao-ms). Nessa janela,
+ * contada a partir da criação da versão, a resposta sai sem ETag: um corpo antigo
+ * nunca fica guardado no cliente sob a versão nova.
+ */
+@Service
+@RequiredArgsConstructor
+public class VersaoDadosService {
+
+    private final TenantService tenantService;
+
+    // Ausente sem application.datasource.replica.enabled=true
+    private final ObjectProvider<ReplicaComFallbackDataSource> replica;
+
+    @Value("${application.cache.versao-dados.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${application.datasource.replica.atraso-maximo-segundos:5}")
+    private double atrasoMaximoReplicaSegundos;
+
+    @Value("${application.datasource.replica.verificacao-ms:1000}")
+    private long verificacaoReplicaMs;
+
+    private final ConcurrentHashMap<Long, Entrada> versoes = new ConcurrentHashMap<>();
+
+    private final AtomicLong contador = new AtomicLong();
+
+    // Diferencia as ETags desta instância (e deste processo) das de outras
+    private final String instancia = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private record Entrada(long versao, long criadaEmMillis, long expiraEmMillis) {
+    }
+
+    /**
+     * ETag dos dados da empresa do usuário logado.
+     * Deve ser obtida ANTES de consultar os dados: se uma alteração acontecer
+     * no meio, a resposta sai com uma ETag que já foi descartada (e não o contrário).
+     *
+     * @return O valor da ETag (sem aspas), ex: "7-k3j9x2-15", ou null enquanto a
+     *         réplica em uso ainda pode estar sem a última alteração (resposta sem ETag).
+     */
+    public String etag() {
+        Long empresaId = tenantService.getEmpresaIdDoUsuarioLogado();
+        Entrada entrada = entradaAtual(empresaId);
+        if (replicaPodeEstarAtrasada(entrada)) {
+            return null;
+        }
+        return empresaId + "-" + instancia + "-" + entrada.versao();
+    }
+
+    /**
+     * Versão atual dos dados da empresa (gera uma nova se não houver ou se expirou).
+     */
+    public long versaoAtual(Long empresaId) {
+        return entradaAtual(empresaId).versao();
+    }
+
+    /**
+     * Descarta a versão dos dados da empresa (após o commit da transação atual).
+     * A versão nova nasce no commit: a janela da réplica conta a partir da alteração.
+     *
+     * @param empresaId O ID da empresa cujos dados mudaram.
+     */
+    public void invalidar(Long empresaId) {
+        TransacaoUtils.executarAposCommit(() -> versoes.put(empresaId, novaEntrada(System.currentTimeMillis())));
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private Entrada entradaAtual(Long empresaId) {
+        long agora = System.currentTimeMillis();
+        return versoes.compute(empresaId, (id, entrada) -> entrada != null && entrada.expiraEmMillis() > agora
+                ? entrada
+                : novaEntrada(agora));
+    }
+
+    private Entrada novaEntrada(long agora) {
+        return new Entrada(contador.incrementAndGet(), agora, agora + ttlSeconds * 1000);
+    }
+
+    /**
+     * True se as leituras vão para a réplica e a versão é recente demais para garantir
+     * que a réplica já a alcançou. Uma versão criada por TTL (alteração em outra
+     * instância, em momento desconhecido) também passa pela janela.
+     */
+    private boolean replicaPodeEstarAtrasada(Entrada entrada) {
+        ReplicaComFallbackDataSource leitura = replica.getIfAvailable();
+        if (leitura == null || !leitura.isReplicaDisponivel()) {
+            return false;
+        }
+        long janelaMs = (long) (atrasoMaximoReplicaSegundos * 1000) + verificacaoReplicaMs;
+        return System.currentTimeMillis() - entrada.criadaEmMillis() < janelaMs;
+    }
+}
@@ -1,7 +1,9 @@
 package br.com.andrebrandao.comissoes_api.security.config;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,8 +12,14 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import br.com.andrebrandao.comissoes_api.config.metrics.TagsMetricas;
+import br.com.andrebrandao.comissoes_api.security.model.UsuarioAutenticado;
 import br.com.andrebrandao.comissoes_api.security.service.CustomUserDetailsService;
 import br.com.andrebrandao.comissoes_api.security.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +39,19 @@ public class JwtAuthFilter extends OncePerRequestFilter { // 3. Filtro especial
     private final CustomUserDetailsService userDetailsService; // 5. Injeta nosso
                                                               // serviço de
                                                               // buscar usuário
+    private final MeterRegistry meterRegistry;
+    private final TagsMetricas tagsMetricas;
+
+    // Token presente, mas inválido (assinatura, expiração, formato): a exceção segue adiante
+    private static final String RESULTADO_INVALIDO = "invalido";
+
+    /**
+     * Modo stateless: monta o principal a partir dos claims do token
+     * (uid, empresaId, role, modulos), sem consultar o banco e com um único parse.
+     * Desligado por padrão (o modo clássico recarrega o User a cada requisição).
+     */
+    @Value("${application.security.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
 
     @Override
     protected void doFilterInternal(
@@ -38,6 +59,41 @@ public class JwtAuthFilter extends OncePerRequestFilter { // 3. Filtro especial
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
+        // 1. Valida o token (se houver) e mede apenas este trecho
+        long inicio = System.nanoTime();
+        String resultado;
+        try {
+            resultado = autenticarPeloToken(request);
+        } catch (RuntimeException e) {
+            registrarTempo(RESULTADO_INVALIDO, System.nanoTime() - inicio, request);
+            throw e;
+        }
+        long duracao = System.nanoTime() - inicio;
+
+        // 10. Passa a requisição (agora autenticada) para o próximo filtro.
+        // O endpoint só é conhecido depois do DispatcherServlet: o tempo é registrado no fim.
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            registrarTempo(resultado, duracao, request);
+        }
+    }
+
+    private void registrarTempo(String resultado, long duracaoNanos, HttpServletRequest request) {
+        Timer.builder("comissoes.seguranca.jwt_filtro")
+                .description("Tempo de validação do token JWT (sem o restante da requisição)")
+                .tags(Tags.of("resultado", resultado, "endpoint", tagsMetricas.endpoint(request)))
+                .register(meterRegistry)
+                .record(duracaoNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Valida o token do cabeçalho "Authorization" e autentica a requisição.
+     *
+     * @return "sem_token", "autenticado" ou "rejeitado" (token válido, mas usuário não confere).
+     *         Se o token for inválido, a exceção do JwtService é propagada.
+     */
+    private String autenticarPeloToken(HttpServletRequest request) {
         // 1. Pega o cabeçalho "Authorization" da requisição
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
@@ -45,15 +101,25 @@ public class JwtAuthFilter extends OncePerRequestFilter { // 3. Filtro especial
 
         // 2. Se o cabeçalho não existir ou não começar com "Bearer ",
         // não é uma requisição autenticada por token.
-        // Apenas passa para o próximo filtro e sai do método.
+        // Apenas passa para o próximo filtro.
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
+            return "sem_token";
         }
 
         // 3. Extrai o token (remove o "Bearer ")
         jwt = authHeader.substring(7); // 7 é o tamanho de "Bearer "
 
+        // 3.1. Modo stateless: um único parse, nenhum SQL.
+        // Tokens antigos (sem os claims novos) caem no fluxo clássico abaixo.
+        if (statelessPrincipal && SecurityContextHolder.getContext().getAuthentication() == null) {
+            Claims claims = jwtService.extractAllClaims(jwt); // Falha se assinatura/expiração forem inválidas
+            UsuarioAutenticado principal = jwtService.buildUsuarioAutenticado(claims);
+            if (principal != null) {
+                autenticar(principal, request);
+                return "autenticado";
+            }
+        }
+
         // 4. Extrai o email de dentro do token usando o JwtService
         userEmail = jwtService.extractUsername(jwt);
 
@@ -68,21 +134,28 @@ public class JwtAuthFilter extends OncePerRequestFilter { // 3. Filtro especial
             if (jwtService.isTokenValid(jwt, userDetails)) {
 
                 // 8. Se for válido, "autentica" o usuário para esta requisição!
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null, // Não precisamos de credenciais (senha) aqui,
-                              // já validamos pelo token
-                        userDetails.getAuthorities());
-
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request));
-
-                // 9. Informa ao Spring Security que este usuário está
-                // autenticado
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                autenticar(userDetails, request);
+                return "autenticado";
             }
         }
-        // 10. Passa a requisição (agora autenticada) para o próximo filtro
-        filterChain.doFilter(request, response);
+        return "rejeitado";
+    }
+
+    /**
+     * Registra o principal no contexto de segurança desta requisição.
+     */
+    private void autenticar(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null, // Não precisamos de credenciais (senha) aqui,
+                      // já validamos pelo token
+                userDetails.getAuthorities());
+
+        authToken.setDetails(
+                new WebAuthenticationDetailsSource().buildDetails(request));
+
+        // 9. Informa ao Spring Security que este usuário está
+        // autenticado
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
\ No newline at end of file
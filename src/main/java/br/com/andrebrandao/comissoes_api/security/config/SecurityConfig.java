@@ -1,8 +1,16 @@
 package br.com.andrebrandao.comissoes_api.security.config;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer; // Importante para o CORS
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -10,10 +18,14 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.cors.CorsConfiguration; // Importe para CORS
 import org.springframework.web.cors.CorsConfigurationSource; // Importe para CORS
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource; // Importe para CORS
@@ -31,6 +43,20 @@ public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
 
+    // Algoritmo dos hashes NOVOS: "bcrypt", "pbkdf2" ou "argon2" (este exige o BouncyCastle no classpath)
+    @Value("${application.security.senha.algoritmo:bcrypt}")
+    private String algoritmoSenha;
+
+    // Custo do BCrypt (log2 das rodadas): cada +1 dobra o tempo de CPU de cada login
+    @Value("${application.security.senha.bcrypt.custo:10}")
+    private int custoBcrypt;
+
+    // Porta real do Actuator (management.server.port, ligada só na rede interna); -1 = mesma porta da API
+    private volatile int portaGerenciamento = -1;
+
+    // Custo gravado no hash do BCrypt (ex: "$2a$10$..." = 10)
+    private static final Pattern CUSTO_BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 
@@ -43,8 +69,17 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/v3/api-docs/**",
-                                "/swagger-ui/**")
+                                "/swagger-ui/**",
+                                // Catálogo público de módulos (vem do cache em memória)
+                                "/api/modulos/catalogo",
+                                // Health check (sem token)
+                                "/actuator/health")
+                        .permitAll()
+                        // Porta de gerenciamento (rede interna): Actuator liberado para o scrape do Prometheus
+                        .requestMatchers(request -> request.getLocalPort() == portaGerenciamento)
                         .permitAll()
+                        // Demais endpoints do Actuator nunca pela porta pública
+                        .requestMatchers("/actuator/**").denyAll()
                         .anyRequest().authenticated())
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -53,6 +88,16 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Guarda a porta em que o servidor de gerenciamento subiu (inclusive management.server.port=0).
+     */
+    @EventListener
+    public void registrarPortaGerenciamento(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            this.portaGerenciamento = event.getWebServer().getPort();
+        }
+    }
+
     // 2. MÉTODO BEAN ESSENCIAL PARA O CORS
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
@@ -75,10 +120,30 @@ public class SecurityConfig {
     // 3. MÉTODO BEAN ESSENCIAL PARA O AdminUserInitializer (O QUE CAUSOU O ERRO)
     /**
      * O Bean que o Spring usará para CRIPTOGRAFAR as senhas.
+     *
+     * Os hashes novos são gravados como "{algoritmo}hash" (application.security.senha.*).
+     * Hashes antigos, sem prefixo, continuam sendo verificados como BCrypt.
+     * Quando o algoritmo ou o custo configurado muda, o hash de cada usuário é
+     * regravado no próximo login bem-sucedido (CustomUserDetailsService.updatePassword).
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // 1. Algoritmos aceitos na verificação (um hash antigo continua valendo)
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcryptComCustoExato(custoBcrypt));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null)) {
+            encoders.put("argon2", Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        }
+        if (!encoders.containsKey(algoritmoSenha)) {
+            throw new IllegalStateException("Algoritmo de senha não suportado: " + algoritmoSenha
+                    + " (disponíveis: " + encoders.keySet() + ")");
+        }
+
+        // 2. Hashes novos usam o algoritmo configurado; os sem prefixo são BCrypt
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algoritmoSenha, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        return encoder;
     }
 
     /**
@@ -88,4 +153,24 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
-}
\ No newline at end of file
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    /**
+     * BCrypt que pede a atualização do hash sempre que o custo gravado for DIFERENTE
+     * do configurado (o padrão do Spring só atualiza para cima). Assim o custo pode
+     * ser reduzido também, se o login estiver pesado demais para os nós.
+     */
+    private static BCryptPasswordEncoder bcryptComCustoExato(int custo) {
+        return new BCryptPasswordEncoder(custo) {
+            @Override
+            public boolean upgradeEncoding(String hash) {
+                if (hash == null) {
+                    return false;
+                }
+                Matcher matcher = CUSTO_BCRYPT.matcher(hash);
+                return matcher.find() && Integer.parseInt(matcher.group(1)) != custo;
+            }
+        };
+    }
+}
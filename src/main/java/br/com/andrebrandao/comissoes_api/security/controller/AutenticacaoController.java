@@ -1,5 +1,7 @@
 package br.com.andrebrandao.comissoes_api.security.controller;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -27,13 +29,16 @@ public class AutenticacaoController {
      * Endpoint de Login.
      * Mapeado para POST /api/auth/login
      *
+     * A thread da requisição é liberada enquanto a senha é verificada no pool
+     * dedicado de login (ver AutenticacaoService); com a fila cheia, responde 503.
+     *
      * @param request O JSON com email e senha (LoginRequest)
      * @return um JSON com o token e permissões (LoginResponse)
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request) {
         // 4. Apenas delega o trabalho para o serviço e retorna a resposta
-        return ResponseEntity.ok(autenticacaoService.login(request));
+        return autenticacaoService.loginAssincrono(request).thenApply(ResponseEntity::ok);
     }
 
     // TODO: Criar um endpoint POST /api/auth/register
@@ -0,0 +1,50 @@
+package br.com.andrebrandao.comissoes_api.security.model;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Principal "leve" montado diretamente a partir dos claims assinados do Token JWT.
+ * Usado quando o modo stateless está ativo (application.security.jwt.stateless-principal),
+ * evitando a busca do User no banco a cada requisição.
+ *
+ * NÃO é uma entidade: quem precisar do User completo (ex: alterar senha)
+ * deve buscá-lo pelo TenantService.getUsuarioLogado().
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class UsuarioAutenticado implements UserDetails {
+
+    private final Long id;
+    private final String nome;
+    private final String email;
+    private final Role role;
+    private final Long empresaId;
+    private final Set<String> modulos; // Chaves dos módulos ativos no momento do login
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        // A senha nunca viaja no token
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return this.email;
+    }
+}
@@ -1,8 +1,12 @@
 package br.com.andrebrandao.comissoes_api.security.repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import br.com.andrebrandao.comissoes_api.security.model.Role;
 import br.com.andrebrandao.comissoes_api.security.model.User;
@@ -21,6 +25,40 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Busca o User pelo email já com a Empresa (JOIN FETCH), em UMA consulta.
+     * Usado no login e no JwtAuthFilter (via CustomUserDetailsService): o usuário
+     * autenticado já sai pronto para gerar o token, sem carregamentos LAZY depois.
+     * Os módulos ativos vêm do ModulosAtivosCacheService.
+     *
+     * @param email O email a ser buscado.
+     * @return um Optional contendo o User (com a Empresa) ou vazio.
+     */
+    @Query("SELECT u FROM User u JOIN FETCH u.empresa WHERE u.email = :email")
+    Optional<User> findComEmpresaByEmail(@Param("email") String email);
+
+    /**
+     * Dos emails informados, devolve os que já estão cadastrados (uma consulta com IN).
+     * Usado no cadastro de vendedores em lote, no lugar de um findByEmail por item.
+     *
+     * @param emails Os emails a verificar.
+     * @return Os emails já em uso.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    /**
+     * Troca apenas o hash da senha (UPDATE direto, sem carregar a entidade).
+     * Usado na atualização transparente do hash após um login bem-sucedido.
+     *
+     * @param id O ID do usuário.
+     * @param senha O novo hash (já com o prefixo do algoritmo, ex: "{bcrypt}").
+     * @return A quantidade de linhas alteradas.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.senha = :senha WHERE u.id = :id")
+    int atualizarSenha(@Param("id") Long id, @Param("senha") String senha);
+
     /**
      * Conta o número de Usuários associados a uma Empresa específica.
      * Query Mágica: "SELECT COUNT(u) FROM User u WHERE u.empresa.id = ?"
@@ -46,4 +84,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Uma Lista de usuários com esse role na empresa.
      */
     List<User> findByEmpresaIdAndRole(Long empresaId, Role role); // <-- NOVO MÉTODO (retorna Lista)
-}
\ No newline at end of file
+
+    /**
+     * Busca os Usuários com um Role específico de VÁRIAS empresas em uma única consulta.
+     * Query Mágica: "SELECT u FROM User u WHERE u.empresa.id IN (?) AND u.role = ?"
+     * @param empresaIds Os IDs das Empresas.
+     * @param role O Role a ser buscado (ex: Role.ROLE_ADMIN).
+     * @return Os usuários (agrupe por getEmpresa().getId()).
+     */
+    List<User> findByEmpresaIdInAndRole(Collection<Long> empresaIds, Role role);
+}
@@ -1,21 +1,31 @@
 package br.com.andrebrandao.comissoes_api.security.service;
 
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
-import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.service.ModulosAtivosCacheService;
 import br.com.andrebrandao.comissoes_api.security.dto.LoginRequest;
 import br.com.andrebrandao.comissoes_api.security.dto.LoginResponse;
 import br.com.andrebrandao.comissoes_api.security.model.User;
-import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 
 /**
  * Serviço que orquestra a lógica de autenticação.
+ *
+ * A verificação da senha (BCrypt) é cara de propósito e usa CPU. Para que uma
+ * rajada de logins não ocupe todas as threads de requisição, o login roda em um
+ * pool PRÓPRIO e limitado (threads + fila); com a fila cheia, a requisição é
+ * recusada na hora (503) em vez de esperar. Como no VendaEventoDispatcher, o pool
+ * não é um bean do Spring, para não substituir o "applicationTaskExecutor".
  */
 @Service
 @RequiredArgsConstructor
@@ -24,12 +34,60 @@ public class AutenticacaoService {
     // 1. Injeta o gerenciador do Spring que sabe validar senhas
     private final AuthenticationManager authenticationManager;
 
-    // 2. Injeta nosso repositório de usuário para buscar dados completos
-    private final UserRepository userRepository;
-
-    // 3. Injeta nosso serviço que sabe criar o token
+    // 2. Injeta nosso serviço que sabe criar o token
     private final JwtService jwtService;
 
+    // 3. Chaves dos módulos ativos por empresa (cache em memória)
+    private final ModulosAtivosCacheService modulosAtivosCacheService;
+
+    // false = o login roda na própria thread da requisição
+    @Value("${application.security.login.pool.enabled:true}")
+    private boolean poolHabilitado;
+
+    // 0 = número de processadores (o BCrypt é limitado por CPU)
+    @Value("${application.security.login.pool.threads:0}")
+    private int threads;
+
+    @Value("${application.security.login.pool.fila:200}")
+    private int capacidadeFila;
+
+    private ThreadPoolTaskExecutor executor;
+
+    @PostConstruct
+    void iniciar() {
+        if (!poolHabilitado) {
+            return;
+        }
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tamanho);
+        executor.setMaxPoolSize(tamanho);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setThreadNamePrefix("login-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Executa o login no pool dedicado (ou na thread atual, se o pool estiver desligado).
+     *
+     * @param request O DTO com email e senha.
+     * @return o DTO de Resposta com o Token e as Permissões, quando o login terminar.
+     * @throws org.springframework.core.task.TaskRejectedException se a fila do pool estiver cheia.
+     */
+    public CompletableFuture<LoginResponse> loginAssincrono(LoginRequest request) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(login(request));
+        }
+        return executor.submitCompletable(() -> login(request));
+    }
+
     /**
      * Método principal que executa o login.
      *
@@ -37,36 +95,31 @@ public class AutenticacaoService {
      * @return o DTO de Resposta com o Token e as Permissões.
      */
     public LoginResponse login(LoginRequest request) {
-        
+
         // 4. Dispara o processo de autenticação do Spring Security.
         // Ele vai:
-        // a. Chamar nosso CustomUserDetailsService para buscar o usuário pelo email
+        // a. Chamar nosso CustomUserDetailsService para buscar o usuário (com a Empresa)
         // b. Chamar nosso PasswordEncoder para comparar a senha do DTO com a senha
         // criptografada do banco.
         // c. Se a senha ou usuário estiverem errados, ele lança uma exceção aqui.
-        authenticationManager.authenticate(
+        Authentication autenticacao = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
                         request.getSenha()));
 
         // 5. Se chegou até aqui, o usuário e senha estão CORRETOS.
-        // Agora, buscamos o usuário no banco *novamente* para ter o objeto
-        // completo,
-        // incluindo a Empresa e os Módulos.
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado após autenticação"));
-
-        // 6. Geramos o token JWT para este usuário.
-        // O JwtService vai extrair o nome e role de dentro do objeto 'user'.
-        String jwtToken = jwtService.generateToken(user);
-
-        // 7. Esta é a lógica "multi-tenant" crucial.
-        // Pegamos a lista de Módulos Ativos da Empresa do usuário
-        // e transformamos em uma lista de Strings (as "chaves").
-        var permissoes = user.getEmpresa().getModulosAtivos()
-                .stream()
-                .map(Modulo::getChave) // Pega a string "chave" de cada objeto Modulo
-                .collect(Collectors.toSet());
+        // O principal é o próprio User carregado no passo 4 (sem buscar de novo).
+        User user = (User) autenticacao.getPrincipal();
+
+        // 6. Esta é a lógica "multi-tenant" crucial.
+        // As chaves dos Módulos Ativos da Empresa do usuário vêm do cache
+        // (o mesmo usado pelo CustomSecurityService.hasModulo).
+        Set<String> permissoes = modulosAtivosCacheService.getChavesModulosAtivos(user.getEmpresa().getId());
+
+        // 7. Geramos o token JWT para este usuário.
+        // O JwtService vai extrair o nome e role de dentro do objeto 'user'
+        // e gravar as chaves dos módulos como claim (usado no modo stateless).
+        String jwtToken = jwtService.generateToken(user, permissoes);
 
         // 8. Construímos e retornamos nossa Resposta.
         return LoginResponse.builder()
@@ -75,4 +128,4 @@ public class AutenticacaoService {
                 .build();
     }
 
-}
\ No newline at end of file
+}
@@ -1,23 +1,31 @@
 package br.com.andrebrandao.comissoes_api.security.service;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.andrebrandao.comissoes_api.security.model.User;
 import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 
 /**
  * Serviço que busca os detalhes do usuário (UserDetails) no banco de dados.
  * É a ponte entre o Spring Security e o nosso UserRepository.
+ *
+ * Também implementa UserDetailsPasswordService: após um login bem-sucedido com
+ * um hash antigo (outro algoritmo ou outro custo, ver SecurityConfig.passwordEncoder),
+ * o Spring Security gera o hash novo com a senha recém-verificada e chama
+ * updatePassword. Assim o custo/algoritmo muda sem exigir troca de senha.
  */
 @Service // 1. Marca como um Serviço (Bean) do Spring
 @RequiredArgsConstructor // 2. Anotação do Lombok: cria um construtor com os
                          // campos 'final'
-public class CustomUserDetailsService implements UserDetailsService { // 3. Implementa a
-                                                                    // interface do
-                                                                    // Spring
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService { // 3. Implementa as
+                                                                                                // interfaces do
+                                                                                                // Spring
 
     // 4. Injeta o nosso repositório de usuários (JPA)
     private final UserRepository userRepository;
@@ -34,11 +42,28 @@ public class CustomUserDetailsService implements UserDetailsService { // 3. Impl
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 
         // 5. Usa o método customizado que criamos no UserRepository
-        return userRepository.findByEmail(email)
+        //    (já traz a Empresa: o login não precisa buscar o usuário de novo)
+        return userRepository.findComEmpresaByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o email: " + email));
         // 6. Se o usuário for encontrado, ele o retorna.
         // Se não, lança uma exceção (que o Spring Security vai tratar como "Login
         // inválido").
     }
 
-}
\ No newline at end of file
+    /**
+     * Grava o hash atualizado da senha (chamado pelo Spring Security no login).
+     *
+     * @param user O usuário recém-autenticado (a nossa classe 'User').
+     * @param newPassword O novo hash, já no formato "{algoritmo}hash".
+     * @return O mesmo usuário, com o hash novo.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User usuario = (User) user;
+        userRepository.atualizarSenha(usuario.getId(), newPassword);
+        usuario.setSenha(newPassword);
+        return usuario;
+    }
+
+}
@@ -1,8 +1,19 @@
 package br.com.andrebrandao.comissoes_api.security.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
@@ -11,11 +22,15 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import br.com.andrebrandao.comissoes_api.security.model.Role;
 import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.model.UsuarioAutenticado;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 /**
  * Serviço responsável por todas as operações de JSON Web Token (JWT).
@@ -33,6 +48,27 @@ public class JwtService {
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration; // Tempo em segundos (ex: 86400 para 24 horas)
 
+    // Limite de tokens verificados mantidos em memória
+    @Value("${application.security.jwt.cache-max-size:10000}")
+    private int cacheMaxSize;
+
+    // Chave e parser são imutáveis e thread-safe: montados uma única vez
+    private SecretKey signInKey;
+    private JwtParser parser;
+
+    // Cache de claims já verificados, indexado pelo SHA-256 do token.
+    // Cada entrada "morre" junto com o token (exp).
+    private final ConcurrentHashMap<String, ClaimsVerificados> claimsCache = new ConcurrentHashMap<>();
+
+    private record ClaimsVerificados(Claims claims, long expiraEmMillis) {
+    }
+
+    @PostConstruct
+    void init() {
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+    }
+
     /**
      * Extrai o "username" (nosso email) de dentro de um token JWT.
      * * @param token O token JWT.
@@ -49,7 +85,21 @@ public class JwtService {
      * @return Uma string de token JWT.
      */
     public String generateToken(UserDetails userDetails) {
-        return buildToken(userDetails, jwtExpiration);
+        return buildToken(userDetails, List.of(), jwtExpiration);
+    }
+
+    /**
+     * Gera o token incluindo as chaves dos módulos ativos da empresa como claim.
+     * Com os claims "uid", "empresaId", "role" e "modulos" o JwtAuthFilter
+     * consegue montar o principal sem ir ao banco (modo stateless). No modo stateless,
+     * o CustomSecurityService.hasModulo exige o módulo no claim E no cache da empresa.
+     *
+     * @param userDetails Os detalhes do usuário (do Spring Security).
+     * @param modulos     As chaves dos módulos ativos (ex: "COMISSAO_CORE").
+     * @return Uma string de token JWT.
+     */
+    public String generateToken(UserDetails userDetails, Collection<String> modulos) {
+        return buildToken(userDetails, modulos, jwtExpiration);
     }
 
     /**
@@ -75,6 +125,7 @@ public class JwtService {
 
     private String buildToken(
             UserDetails userDetails,
+            Collection<String> modulos,
             long expiration) {
 
         // Vamos adicionar "claims" (informações) customizadas no token
@@ -86,11 +137,14 @@ public class JwtService {
                                                   // username (nosso email)
                 .claim("nome", user.getNome()) // 4. Adiciona o nome do usuário
                 .claim("role", user.getRole().name()) // 5. Adiciona o Role (ex: "ROLE_ADMIN")
+                .claim("uid", user.getId()) // Claims usados pelo principal stateless
+                .claim("empresaId", user.getEmpresa() != null ? user.getEmpresa().getId() : null)
+                .claim("modulos", modulos)
                 .issuedAt(new Date(System.currentTimeMillis())) // Data de criação
                 .expiration(Date.from(Instant.now().plus(expiration, ChronoUnit.SECONDS))) // Data
                                                                                           // de
                                                                                           // expiração
-                .signWith(getSignInKey()) // 6. Assina o token com nossa chave secreta
+                .signWith(signInKey) // 6. Assina o token com nossa chave secreta
                 .compact(); // Constrói a string
     }
 
@@ -102,24 +156,104 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    /**
+     * Monta o principal "leve" (sem banco) a partir dos claims já verificados.
+     *
+     * @param claims Os claims de um token válido (ver extractAllClaims).
+     * @return O UsuarioAutenticado, ou null se o token foi emitido antes dos
+     *         claims "uid"/"empresaId" existirem (nesse caso, use o banco).
+     */
+    public UsuarioAutenticado buildUsuarioAutenticado(Claims claims) {
+        Number uid = claims.get("uid", Number.class);
+        Number empresaId = claims.get("empresaId", Number.class);
+        String role = claims.get("role", String.class);
+        if (uid == null || empresaId == null || role == null) {
+            return null;
+        }
+
+        Set<String> modulos = new HashSet<>();
+        Object claimModulos = claims.get("modulos");
+        if (claimModulos instanceof Collection<?> colecao) {
+            colecao.forEach(chave -> modulos.add(String.valueOf(chave)));
+        }
+
+        return UsuarioAutenticado.builder()
+                .id(uid.longValue())
+                .nome(claims.get("nome", String.class))
+                .email(claims.getSubject())
+                .role(Role.valueOf(role))
+                .empresaId(empresaId.longValue())
+                .modulos(Set.copyOf(modulos))
+                .build();
+    }
+
     /**
      * Lê o token e decodifica todos os "claims" usando a chave secreta.
      * Se a assinatura estiver errada ou o token expirado, falha aqui.
+     *
+     * Tokens já verificados ficam em cache até expirarem: clientes que fazem
+     * polling reutilizam o mesmo token, e não precisamos refazer o HMAC e o
+     * parse do JSON a cada requisição.
+     */
+    public Claims extractAllClaims(String token) {
+        String chave = digest(token);
+        long agora = System.currentTimeMillis();
+
+        // 1. Cache hit (e ainda dentro da validade)
+        ClaimsVerificados emCache = claimsCache.get(chave);
+        if (emCache != null) {
+            if (emCache.expiraEmMillis() > agora) {
+                return emCache.claims();
+            }
+            claimsCache.remove(chave, emCache);
+        }
+
+        // 2. Verificação completa (lança exceção se inválido/expirado)
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+
+        // 3. Só guardamos tokens com expiração (todos os nossos têm)
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            liberarEspacoSeNecessario(agora);
+            claimsCache.put(chave, new ClaimsVerificados(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Mantém o cache dentro do limite: primeiro descarta os expirados e,
+     * se ainda estiver cheio, descarta os que expiram primeiro (um lote de 10%
+     * do limite, para não ordenar o cache a cada token novo). Os tokens em uso
+     * continuam em cache; só os descartados serão re-verificados.
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private void liberarEspacoSeNecessario(long agora) {
+        if (claimsCache.size() < cacheMaxSize) {
+            return;
+        }
+        claimsCache.values().removeIf(entrada -> entrada.expiraEmMillis() <= agora);
+        int excedente = claimsCache.size() - cacheMaxSize + 1;
+        if (excedente <= 0) {
+            return;
+        }
+        claimsCache.entrySet().stream()
+                .sorted(Comparator.comparingLong(entrada -> entrada.getValue().expiraEmMillis()))
+                .limit(Math.max(excedente, cacheMaxSize / 10))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(claimsCache::remove);
     }
 
     /**
-     * Converte nossa string de chave secreta (do properties) em um objeto
-     * SecretKey seguro.
+     * SHA-256 do token: evita guardar o token "cru" como chave em memória.
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 é obrigatório em toda JVM
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
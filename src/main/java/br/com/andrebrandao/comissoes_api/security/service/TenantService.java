@@ -5,6 +5,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.model.UsuarioAutenticado;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Serviço auxiliar (helper) focado em Multi-Tenancy.
@@ -12,8 +15,12 @@ import br.com.andrebrandao.comissoes_api.security.model.User;
  * do usuário que está logado na requisição atual.
  */
 @Service
+@RequiredArgsConstructor
 public class TenantService {
 
+    // Usado apenas no modo stateless, quando o principal não é a entidade User
+    private final UserRepository userRepository;
+
     /**
      * Busca o ID da Empresa (Tenant ID) do usuário atualmente autenticado.
      *
@@ -40,6 +47,11 @@ public class TenantService {
             return ((User) principal).getEmpresa().getId();
         }
 
+        // 3.1. Modo stateless: o ID da empresa já veio assinado no token
+        if (principal instanceof UsuarioAutenticado usuarioAutenticado) {
+            return usuarioAutenticado.getEmpresaId();
+        }
+
         // 4. Se o principal não for um objeto 'User' (ex: um usuário anônimo),
         // lança um erro.
         throw new IllegalStateException("O principal da autenticação não é uma instância de 'User'.");
@@ -62,6 +74,12 @@ public class TenantService {
             return (User) authentication.getPrincipal();
         }
 
+        // Modo stateless: o principal é "leve", então buscamos a entidade pelo ID
+        if (authentication.getPrincipal() instanceof UsuarioAutenticado usuarioAutenticado) {
+            return userRepository.findById(usuarioAutenticado.getId())
+                    .orElseThrow(() -> new IllegalStateException("Usuário do token não existe mais."));
+        }
+
         throw new IllegalStateException("O principal da autenticação não é uma instância de 'User'.");
     }
 }
\ No newline at end of file
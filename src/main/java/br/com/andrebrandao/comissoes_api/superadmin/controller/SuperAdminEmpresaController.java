@@ -1,8 +1,6 @@
 // src/main/java/br/com/andrebrandao/comissoes_api/superadmin/controller/SuperAdminEmpresaController.java
 package br.com.andrebrandao.comissoes_api.superadmin.controller;
 
-import java.util.List;
-
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +9,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -22,7 +21,7 @@ import br.com.andrebrandao.comissoes_api.core.service.EmpresaService;
 import br.com.andrebrandao.comissoes_api.core.dto.AdminUsuarioRequestDTO;
 import br.com.andrebrandao.comissoes_api.security.dto.UsuarioResponseDTO; // Importar DTO
 import br.com.andrebrandao.comissoes_api.security.model.User;
-import br.com.andrebrandao.comissoes_api.core.dto.EmpresaComAdminsDTO;
+import br.com.andrebrandao.comissoes_api.core.dto.EmpresaPaginaDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -44,14 +43,20 @@ public class SuperAdminEmpresaController {
     }
 
     /**
-     * Lista todas as empresas cadastradas, incluindo módulos ativos e usuários admin.
-     * Mapeado para: GET /api/superadmin/empresas
+     * Lista as empresas cadastradas (paginado), incluindo módulos ativos e usuários admin.
+     * Mapeado para: GET /api/superadmin/empresas?busca=&pagina=0&tamanho=20
      *
-     * @return Lista de DTOs EmpresaComAdminsDTO.
+     * @param busca   Parte do nome fantasia, razão social ou CNPJ (opcional).
+     * @param pagina  Número da página, começando em 0.
+     * @param tamanho Itens por página (máximo 100).
+     * @return A página de DTOs EmpresaComAdminsDTO.
      */
-    @GetMapping // <-- Este método
-    public List<EmpresaComAdminsDTO> listarTodasEmpresas() { // <-- TIPO DE RETORNO ALTERADO AQUI
-        return empresaService.listarTodas(); // Agora os tipos coincidem
+    @GetMapping
+    public EmpresaPaginaDTO listarEmpresas(
+        @RequestParam(name = "busca", required = false) String busca,
+        @RequestParam(name = "pagina", defaultValue = "0") int pagina,
+        @RequestParam(name = "tamanho", defaultValue = "20") int tamanho) {
+        return empresaService.listar(busca, pagina, tamanho);
     }
 
     /**
@@ -0,0 +1,94 @@
+-- ==================================
+-- V1: schema inicial (o mesmo que o ddl-auto=update criava a partir das @Entity
+-- originais: IDs IDENTITY, sem índices nem tabelas agregadas)
+-- ==================================
+-- Bancos criados antes das migrações já têm exatamente estas tabelas: o Flyway
+-- registra a versão 1 como baseline (spring.flyway.baseline-on-migrate) sem executar
+-- este script, e as versões seguintes (V2+) criam o restante nos dois casos.
+-- NÃO altere este arquivo: mudanças de schema vão em uma nova versão.
+-- Os nomes das constraints são os gerados pelo Hibernate, para que os dois casos
+-- terminem com o mesmo schema.
+
+-- --- CORE ---
+
+CREATE TABLE modulo (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome VARCHAR(255) NOT NULL UNIQUE,
+    chave VARCHAR(255) NOT NULL UNIQUE,
+    descricao_curta VARCHAR(500),
+    preco_mensal NUMERIC(10,2),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('EM_DESENVOLVIMENTO','EM_TESTE','PRONTO_PARA_PRODUCAO','ARQUIVADO')),
+    is_padrao BOOLEAN DEFAULT FALSE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE empresa (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome_fantasia VARCHAR(255) NOT NULL,
+    razao_social VARCHAR(255),
+    cnpj VARCHAR(255) NOT NULL UNIQUE,
+    data_cadastro TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE empresa_modulos_ativos (
+    empresa_id BIGINT NOT NULL,
+    modulo_id BIGINT NOT NULL,
+    PRIMARY KEY (empresa_id, modulo_id)
+);
+
+CREATE TABLE usuario (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    nome VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    senha VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL CHECK (role IN ('ROLE_SUPER_ADMIN','ROLE_ADMIN','ROLE_VENDEDOR')),
+    empresa_id BIGINT NOT NULL,
+    data_criacao TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- --- MÓDULO DE COMISSÕES ---
+
+CREATE TABLE vendedor (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    percentual_comissao NUMERIC(5,2),
+    empresa_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE venda (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    valor_venda NUMERIC(15,2) NOT NULL,
+    valor_comissao_calculado NUMERIC(10,2) NOT NULL,
+    descricao_venda VARCHAR(255),
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDENTE','CONFIRMADA','CANCELADA')),
+    data_venda TIMESTAMP(6) NOT NULL,
+    vendedor_id BIGINT NOT NULL,
+    empresa_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- --- CHAVES ESTRANGEIRAS ---
+
+ALTER TABLE empresa_modulos_ativos
+    ADD CONSTRAINT FK94biattr9x85ymah5yoaafygx FOREIGN KEY (modulo_id) REFERENCES modulo (id);
+
+ALTER TABLE empresa_modulos_ativos
+    ADD CONSTRAINT FKi2hruhc3jiupmhe7vl0apx2g FOREIGN KEY (empresa_id) REFERENCES empresa (id);
+
+ALTER TABLE usuario
+    ADD CONSTRAINT FK87ckfs30l64gnivnfk7ywp8l6 FOREIGN KEY (empresa_id) REFERENCES empresa (id);
+
+ALTER TABLE vendedor
+    ADD CONSTRAINT FKsq3i5ps68rvbsro2xikwnb1t1 FOREIGN KEY (empresa_id) REFERENCES empresa (id);
+
+ALTER TABLE vendedor
+    ADD CONSTRAINT FKjv0m0xeuhnql0jyd02f48proa FOREIGN KEY (user_id) REFERENCES usuario (id);
+
+ALTER TABLE venda
+    ADD CONSTRAINT FKfboo2vuru86trmyue6ldnomno FOREIGN KEY (empresa_id) REFERENCES empresa (id);
+
+ALTER TABLE venda
+    ADD CONSTRAINT FKg2elbfxxrfufnbt699lao742h FOREIGN KEY (vendedor_id) REFERENCES vendedor (id);
@@ -0,0 +1,26 @@
+-- ==================================
+-- V2: ajustes da tabela venda sobre o schema inicial
+-- ==================================
+-- IF NOT EXISTS: bancos que rodaram versões intermediárias com ddl-auto=update
+-- podem já ter alguns destes objetos.
+
+-- --- IDs (sequence "pooled", allocationSize 50: o Hibernate agrupa os INSERTs) ---
+-- A sequence é avançada para depois dos IDs existentes na V4.
+
+CREATE SEQUENCE IF NOT EXISTS venda_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE venda ALTER COLUMN id DROP IDENTITY;
+
+-- --- LOCK OTIMISTA (@Version) ---
+
+ALTER TABLE venda ADD COLUMN IF NOT EXISTS versao BIGINT DEFAULT 0;
+
+UPDATE venda SET versao = 0 WHERE versao IS NULL;
+
+-- --- ÍNDICES (intervalos de data_venda por empresa/vendedor, ordenação por valor) ---
+
+CREATE INDEX IF NOT EXISTS idx_venda_empresa_data ON venda (empresa_id, data_venda);
+
+CREATE INDEX IF NOT EXISTS idx_venda_vendedor_data ON venda (vendedor_id, data_venda);
+
+CREATE INDEX IF NOT EXISTS idx_venda_empresa_valor ON venda (empresa_id, valor_venda);
@@ -0,0 +1,62 @@
+-- ==================================
+-- V3: tabelas agregadas (contadores por vendedor, resumo mensal) e outbox de eventos de venda
+-- ==================================
+-- IF NOT EXISTS: bancos que rodaram versões intermediárias com ddl-auto=update
+-- podem já ter algumas destas tabelas.
+
+-- --- CONTADORES POR VENDEDOR ---
+
+CREATE TABLE IF NOT EXISTS vendedor_estatisticas (
+    vendedor_id BIGINT NOT NULL,
+    empresa_id BIGINT NOT NULL,
+    qtd_vendas BIGINT NOT NULL,
+    qtd_pendentes BIGINT NOT NULL,
+    qtd_confirmadas BIGINT NOT NULL,
+    qtd_canceladas BIGINT NOT NULL,
+    valor_total_vendas NUMERIC(17,2) NOT NULL,
+    valor_total_comissao NUMERIC(17,2) NOT NULL,
+    PRIMARY KEY (vendedor_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_vendedor_estatisticas_empresa ON vendedor_estatisticas (empresa_id);
+
+-- --- RESUMO MENSAL (Dashboard) ---
+-- Nasce com IDENTITY, como foi mapeado originalmente; a V4 troca pela sequence.
+
+CREATE TABLE IF NOT EXISTS venda_resumo_mensal (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    empresa_id BIGINT NOT NULL,
+    vendedor_id BIGINT NOT NULL,
+    mes_ano VARCHAR(7) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDENTE','CONFIRMADA','CANCELADA')),
+    qtd_vendas BIGINT NOT NULL,
+    valor_total NUMERIC(17,2) NOT NULL,
+    valor_comissao NUMERIC(17,2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_venda_resumo_mensal UNIQUE (empresa_id, vendedor_id, mes_ano, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_venda_resumo_empresa_mes ON venda_resumo_mensal (empresa_id, mes_ano);
+
+-- --- OUTBOX: sem FK para venda (o evento é só um registro do que aconteceu) ---
+
+CREATE SEQUENCE IF NOT EXISTS venda_evento_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS venda_evento (
+    id BIGINT NOT NULL,
+    empresa_id BIGINT NOT NULL,
+    venda_id BIGINT NOT NULL,
+    vendedor_id BIGINT NOT NULL,
+    tipo VARCHAR(20) NOT NULL CHECK (tipo IN ('CRIADA','APROVADA','CANCELADA','VALOR_ALTERADO')),
+    mes_ano VARCHAR(7) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDENTE','CONFIRMADA','CANCELADA')),
+    status_anterior VARCHAR(20) CHECK (status_anterior IN ('PENDENTE','CONFIRMADA','CANCELADA')),
+    valor_venda NUMERIC(15,2) NOT NULL,
+    valor_venda_anterior NUMERIC(15,2),
+    valor_comissao NUMERIC(15,2) NOT NULL,
+    valor_comissao_anterior NUMERIC(15,2),
+    criado_em TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_venda_evento_empresa ON venda_evento (empresa_id, id);
@@ -0,0 +1,17 @@
+-- ==================================
+-- V5: totais das vendas arquivadas (partições de venda movidas para o schema "arquivo")
+-- ==================================
+-- Gravados por VendaParticionamentoService.arquivar() antes de desanexar cada partição.
+-- A reconciliação dos contadores e a reconstrução do resumo mensal somam estes totais
+-- aos da tabela venda, para que as vendas arquivadas continuem contando.
+
+CREATE TABLE IF NOT EXISTS venda_arquivada_resumo (
+    empresa_id BIGINT NOT NULL,
+    vendedor_id BIGINT NOT NULL,
+    mes_ano VARCHAR(7) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDENTE','CONFIRMADA','CANCELADA')),
+    qtd_vendas BIGINT NOT NULL,
+    valor_total NUMERIC(17,2) NOT NULL,
+    valor_comissao NUMERIC(17,2) NOT NULL,
+    PRIMARY KEY (empresa_id, vendedor_id, mes_ano, status)
+);
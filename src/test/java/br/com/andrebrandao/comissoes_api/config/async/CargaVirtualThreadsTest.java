@@ -0,0 +1,209 @@
+package br.com.andrebrandao.comissoes_api.config.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import br.com.andrebrandao.comissoes_api.ComissoesApiApplication;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import br.com.andrebrandao.comissoes_api.security.service.JwtService;
+
+/**
+ * Teste de carga: threads de plataforma x virtual threads no Tomcat.
+ *
+ * Sobe a aplicação duas vezes (uma em cada modo) sobre H2 em modo PostgreSQL, com os
+ * mesmos dados e a mesma sequência de requisições (80% GET /api/vendas, 20% GET
+ * /api/dashboard/empresa), e compara vazão e latência p50/p99. Cada comando SQL espera
+ * "carga.latencia-banco-ms" antes de executar, simulando a ida e volta ao Postgres.
+ *
+ * Não roda no build normal. Para executar:
+ *   mvn -B test -Dtest=CargaVirtualThreadsTest -Dcarga=true
+ * Parâmetros (-D): carga.usuarios, carga.requisicoes, carga.latencia-banco-ms, carga.pool.
+ * O resultado também é gravado em target/carga-virtual-threads.txt.
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class CargaVirtualThreadsTest {
+
+    private static final int USUARIOS = Integer.getInteger("carga.usuarios", 400);
+    private static final int REQUISICOES = Integer.getInteger("carga.requisicoes", 10000);
+    private static final int LATENCIA_BANCO_MS = Integer.getInteger("carga.latencia-banco-ms", 5);
+    private static final int POOL = Integer.getInteger("carga.pool", 50);
+    private static final int AQUECIMENTO = Math.max(REQUISICOES / 10, USUARIOS);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void compararThreadsDePlataformaEVirtuais() throws Exception {
+        Resultado plataforma = executar(false);
+        Resultado virtuais = executar(true);
+
+        String relatorio = String.format(
+                "Carga: %d usuários, %d requisições, latência do banco %d ms, pool %d conexões%n%s%n%s%n",
+                USUARIOS, REQUISICOES, LATENCIA_BANCO_MS, POOL, plataforma, virtuais);
+        System.out.println(">>> " + relatorio);
+        Files.writeString(Path.of("target", "carga-virtual-threads.txt"), relatorio);
+
+        assertThat(plataforma.erros()).isZero();
+        assertThat(virtuais.erros()).isZero();
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private Resultado executar(boolean virtualThreads) throws Exception {
+        String modo = virtualThreads ? "virtual" : "plataforma";
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ComissoesApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:carga_" + modo + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL,
+                        "spring.jpa.show-sql=false",
+                        "application.vendedor-estatisticas.verificacao.enabled=false")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new LatenciaBancoPostProcessor(LATENCIA_BANCO_MS)))
+                .run()) {
+
+            int porta = Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+            String token = popularBanco(contexto);
+
+            // 1. Aquecimento (JIT, pool de conexões, caches): não entra na medição
+            disparar(porta, token, AQUECIMENTO);
+
+            // 2. Medição
+            long inicio = System.nanoTime();
+            Medicao medicao = disparar(porta, token, REQUISICOES);
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            long[] latencias = medicao.latenciasNanos();
+            Arrays.sort(latencias);
+            return new Resultado(modo, REQUISICOES / segundos,
+                    percentilMs(latencias, 0.50), percentilMs(latencias, 0.99), medicao.erros());
+        }
+    }
+
+    /**
+     * Cada usuário virtual faz suas requisições em sequência (laço fechado).
+     */
+    private Medicao disparar(int porta, String token, int total) throws Exception {
+        long[] latencias = new long[total];
+        AtomicInteger proxima = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        try (ExecutorService usuarios = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < USUARIOS; u++) {
+                usuarios.submit(() -> {
+                    int i;
+                    while ((i = proxima.getAndIncrement()) < total) {
+                        // Sequência determinística: 4 listagens para cada dashboard
+                        String caminho = i % 5 == 4 ? "/api/dashboard/empresa" : "/api/vendas?limite=20";
+                        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + caminho))
+                                .header("Authorization", "Bearer " + token)
+                                .GET()
+                                .build();
+                        long inicio = System.nanoTime();
+                        try {
+                            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 200) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            erros.incrementAndGet();
+                        }
+                        latencias[i] = System.nanoTime() - inicio;
+                    }
+                });
+            }
+        }
+        return new Medicao(latencias, erros.get());
+    }
+
+    private String popularBanco(ConfigurableApplicationContext contexto) {
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        contexto.getBean(ModuloRepository.class).save(comissoes);
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Carga");
+        loja.setCnpj("99.888.777/0001-66");
+        loja.setModulosAtivos(Set.of(comissoes));
+        contexto.getBean(EmpresaRepository.class).save(loja);
+
+        UserRepository userRepository = contexto.getBean(UserRepository.class);
+        User admin = userRepository.save(User.builder()
+                .nome("Admin Carga").email("admin@carga.com").senha("x")
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+
+        List<Venda> vendas = new ArrayList<>();
+        for (int v = 0; v < 5; v++) {
+            User usuario = userRepository.save(User.builder()
+                    .nome("Vendedor " + v).email("vendedor" + v + "@carga.com").senha("x")
+                    .role(Role.ROLE_VENDEDOR).empresa(loja).build());
+            Vendedor vendedor = contexto.getBean(VendedorRepository.class).save(Vendedor.builder()
+                    .percentualComissao(new BigDecimal("10.00")).empresa(loja).usuario(usuario).build());
+            for (int i = 1; i <= 40; i++) {
+                vendas.add(Venda.builder()
+                        .valorVenda(new BigDecimal(i * 100))
+                        .valorComissaoCalculado(new BigDecimal(i * 10))
+                        .status(i % 4 == 0 ? VendaStatus.PENDENTE : VendaStatus.CONFIRMADA)
+                        .vendedor(vendedor)
+                        .empresa(loja)
+                        .build());
+            }
+        }
+        contexto.getBean(VendaRepository.class).saveAll(vendas);
+
+        return contexto.getBean(JwtService.class).generateToken(admin, Set.of("COMISSAO_CORE"));
+    }
+
+    private static double percentilMs(long[] ordenadas, double percentil) {
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+
+    private record Medicao(long[] latenciasNanos, int erros) {
+    }
+
+    private record Resultado(String modo, double requisicoesPorSegundo, double p50Ms, double p99Ms, int erros) {
+        @Override
+        public String toString() {
+            return String.format("%-10s | %8.1f req/s | p50 %7.2f ms | p99 %7.2f ms | erros %d",
+                    modo, requisicoesPorSegundo, p50Ms, p99Ms, erros);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.andrebrandao.comissoes_api.config.async;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Usado pelos testes de carga: envolve o DataSource para que cada ida ao banco
+ * (execute, executeQuery, executeUpdate, executeBatch...) espere "latenciaMs",
+ * como na leitura do socket do Postgres, e conta essas idas.
+ * Um lote JDBC (addBatch + executeBatch) conta como uma ida só.
+ */
+public class LatenciaBancoPostProcessor implements BeanPostProcessor {
+
+    private final long latenciaMs;
+    private final AtomicLong idasAoBanco = new AtomicLong();
+
+    public LatenciaBancoPostProcessor(long latenciaMs) {
+        this.latenciaMs = latenciaMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    public long getIdasAoBanco() {
+        return idasAoBanco.get();
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private Object proxy(Class<?> tipo, Object alvo) {
+        return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                (p, metodo, args) -> {
+                    if (metodo.getName().startsWith("execute")) {
+                        idasAoBanco.incrementAndGet();
+                        if (latenciaMs > 0) {
+                            Thread.sleep(latenciaMs);
+                        }
+                    }
+                    Object retorno = invocar(metodo, alvo, args);
+                    if (retorno instanceof Connection conexao && tipo == DataSource.class) {
+                        return proxy(Connection.class, conexao);
+                    }
+                    if (retorno instanceof Statement comando && tipo == Connection.class) {
+                        // Statement, PreparedStatement ou CallableStatement, conforme o método
+                        return proxy(metodo.getReturnType(), comando);
+                    }
+                    return retorno;
+                });
+    }
+
+    private static Object invocar(Method metodo, Object alvo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
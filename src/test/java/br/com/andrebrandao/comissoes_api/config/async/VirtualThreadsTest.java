@@ -0,0 +1,271 @@
+package br.com.andrebrandao.comissoes_api.config.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.andrebrandao.comissoes_api.config.job.VendaEventoDispatcher;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorEstatisticasRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import br.com.andrebrandao.comissoes_api.security.service.JwtService;
+import br.com.andrebrandao.comissoes_api.security.service.TenantService;
+
+/**
+ * Teste de Integração do modo virtual threads (spring.threads.virtual.enabled=true).
+ * Requisições HTTP reais e concorrentes de duas empresas: cada uma deve enxergar só
+ * os seus dados (SecurityContextHolder/TenantService) e os contadores atualizados
+ * pelos serviços @Transactional devem fechar. As tarefas @Async herdam o usuário logado.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadsTest {
+
+    private static final int VENDAS_POR_EMPRESA = 20;
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private ServletWebServerApplicationContext contexto;
+
+    @Autowired
+    private TarefaAssincrona tarefaAssincrona;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private VendaEventoDispatcher vendaEventoDispatcher;
+
+    @Autowired
+    private VendaEventoRepository vendaEventoRepository;
+
+    @Autowired
+    private VendedorEstatisticasRepository vendedorEstatisticasRepository;
+
+    @Autowired
+    private VendaResumoMensalRepository vendaResumoMensalRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private Modulo comissoes;
+    private User adminA;
+    private User adminB;
+    private Vendedor vendedorA;
+    private Vendedor vendedorB;
+
+    /**
+     * Bean só do teste: devolve o que a tarefa @Async enxerga na sua própria thread.
+     */
+    @TestConfiguration
+    static class TarefaAssincronaConfig {
+        @Bean
+        TarefaAssincrona tarefaAssincrona(TenantService tenantService) {
+            return new TarefaAssincrona(tenantService);
+        }
+    }
+
+    static class TarefaAssincrona {
+        private final TenantService tenantService;
+
+        TarefaAssincrona(TenantService tenantService) {
+            this.tenantService = tenantService;
+        }
+
+        @Async
+        public CompletableFuture<String> empresaEThread() {
+            return CompletableFuture.completedFuture(
+                    tenantService.getEmpresaIdDoUsuarioLogado() + "/" + Thread.currentThread().isVirtual());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        moduloRepository.save(comissoes);
+
+        adminA = criarAdmin("Loja A", "11.111.111/0001-11", "a");
+        adminB = criarAdmin("Loja B", "22.222.222/0001-22", "b");
+        vendedorA = criarVendedor(adminA, "a");
+        vendedorB = criarVendedor(adminB, "b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        limparBanco();
+    }
+
+    @Test
+    void tomcatDeveAtenderComVirtualThreads() {
+        TomcatWebServer webServer = (TomcatWebServer) contexto.getWebServer();
+        assertThat(webServer.getTomcat().getConnector().getProtocolHandler().getExecutor())
+                .isInstanceOf(VirtualThreadExecutor.class);
+    }
+
+    @Test
+    void requisicoesConcorrentes_DevemManterEmpresaETransacoesIsoladas() throws Exception {
+        String tokenA = jwtService.generateToken(adminA, Set.of("COMISSAO_CORE"));
+        String tokenB = jwtService.generateToken(adminB, Set.of("COMISSAO_CORE"));
+
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            // 1. Lançamentos concorrentes intercalados entre as duas empresas
+            List<Future<Integer>> lancamentos = new ArrayList<>();
+            for (int i = 0; i < VENDAS_POR_EMPRESA; i++) {
+                lancamentos.add(clientes.submit(() -> lancar(tokenA, vendedorA.getId())));
+                lancamentos.add(clientes.submit(() -> lancar(tokenB, vendedorB.getId())));
+            }
+            for (Future<Integer> lancamento : lancamentos) {
+                assertThat(lancamento.get(30, TimeUnit.SECONDS)).isEqualTo(201);
+            }
+
+            // 2. Listagens concorrentes: cada token só pode ver as vendas da sua empresa
+            List<Future<List<Integer>>> listagensA = new ArrayList<>();
+            List<Future<List<Integer>>> listagensB = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                listagensA.add(clientes.submit(() -> vendedoresDaListagem(tokenA)));
+                listagensB.add(clientes.submit(() -> vendedoresDaListagem(tokenB)));
+            }
+            for (Future<List<Integer>> listagem : listagensA) {
+                assertThat(listagem.get(30, TimeUnit.SECONDS)).hasSize(VENDAS_POR_EMPRESA)
+                        .containsOnly(vendedorA.getId().intValue());
+            }
+            for (Future<List<Integer>> listagem : listagensB) {
+                assertThat(listagem.get(30, TimeUnit.SECONDS)).hasSize(VENDAS_POR_EMPRESA)
+                        .containsOnly(vendedorB.getId().intValue());
+            }
+        }
+
+        // 3. Os contadores (aplicados a partir do outbox) não podem perder incrementos
+        vendaEventoDispatcher.processarPendentes();
+        assertThat(vendedorEstatisticasRepository.findById(vendedorA.getId()).orElseThrow().getQtdVendas())
+                .isEqualTo(VENDAS_POR_EMPRESA);
+        assertThat(vendedorEstatisticasRepository.findById(vendedorB.getId()).orElseThrow().getQtdVendas())
+                .isEqualTo(VENDAS_POR_EMPRESA);
+    }
+
+    @Test
+    void tarefaAsync_DeveHerdarUsuarioLogadoEmVirtualThread() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(adminB, null, adminB.getAuthorities()));
+
+        String resultado = tarefaAssincrona.empresaEThread().get(10, TimeUnit.SECONDS);
+
+        assertThat(resultado).isEqualTo(adminB.getEmpresa().getId() + "/true");
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private int lancar(String token, Long vendedorId) throws Exception {
+        String corpo = "{\"vendedorId\":" + vendedorId + ",\"valorVenda\":100.00}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/vendas"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private List<Integer> vendedoresDaListagem(String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/api/vendas?limite=100"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return JsonPath.read(response.body(), "$.itens[*].vendedor.idVendedor");
+    }
+
+    private User criarAdmin(String nome, String cnpj, String sufixo) {
+        Empresa empresa = new Empresa();
+        empresa.setNomeFantasia(nome);
+        empresa.setCnpj(cnpj);
+        empresa.setModulosAtivos(Set.of(comissoes));
+        empresaRepository.save(empresa);
+
+        return userRepository.save(User.builder()
+                .nome("Admin " + nome).email("admin@" + sufixo + ".com").senha("x")
+                .role(Role.ROLE_ADMIN).empresa(empresa).build());
+    }
+
+    private Vendedor criarVendedor(User admin, String sufixo) {
+        User usuario = userRepository.save(User.builder()
+                .nome("Vendedor " + sufixo).email("vendedor@" + sufixo + ".com").senha("x")
+                .role(Role.ROLE_VENDEDOR).empresa(admin.getEmpresa()).build());
+        return vendedorRepository.save(Vendedor.builder()
+                .percentualComissao(new BigDecimal("10.00")).empresa(admin.getEmpresa()).usuario(usuario).build());
+    }
+
+    private void limparBanco() {
+        vendaEventoRepository.deleteAll();
+        vendedorEstatisticasRepository.deleteAll();
+        vendaResumoMensalRepository.deleteAll();
+        vendaRepository.deleteAll();
+        vendedorRepository.deleteAll();
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Teste de Integração do pool de relatórios: os métodos @ConsultaRelatorio usam o pool
+ * "relatorios" (2 conexões) e, com ele esgotado, as escritas continuam no "primario".
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pool_relatorios;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "application.datasource.relatorios.enabled=true",
+        "application.datasource.relatorios.hikari.maximum-pool-size=2",
+        "application.datasource.relatorios.hikari.connection-timeout=250",
+        // Limite por comando do primário (no Postgres, "SET statement_timeout = ..."): só com os pools separados
+        "application.datasource.primario.connection-init-sql=SET @primario = 1",
+        "application.vendedor-estatisticas.verificacao.enabled=false"
+})
+class PoolRelatoriosTest {
+
+    @Autowired
+    private Consultas consultas;
+
+    @Autowired
+    @Qualifier("relatoriosDataSource")
+    private HikariDataSource relatorios;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private HikariDataSource primario;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void deveUsarOPoolDeRelatorios_SoNasConsultasDeRelatorio() {
+        assertThat(consultas.relatorio(null)).isEqualTo(1);
+        assertThat(consultas.leituraComum()).isZero();
+        assertThat(consultas.escrita()).isZero();
+        assertThat(primario.getConnectionInitSql()).isEqualTo("SET @primario = 1");
+    }
+
+    @Test
+    void deveManterAsEscritas_ComOPoolDeRelatoriosEsgotado() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // 1. Dois relatórios "lentos" ocupam todo o pool de relatórios
+            executor.submit(() -> consultas.relatorio(liberar));
+            executor.submit(() -> consultas.relatorio(liberar));
+            // (o Hikari só cria o pool na primeira conexão pedida)
+            while (relatorios.getHikariPoolMXBean() == null || relatorios.getHikariPoolMXBean().getActiveConnections() < 2) {
+                Thread.sleep(10);
+            }
+
+            // 2. Um terceiro relatório espera connection-timeout e desiste; a escrita não espera
+            //    (o GlobalExceptionHandler responde 503 para SQLTransientConnectionException)
+            assertThatThrownBy(() -> consultas.relatorio(null))
+                    .hasRootCauseInstanceOf(SQLTransientConnectionException.class);
+            assertThat(consultas.escrita()).isEqualTo(2);
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void devePublicarOTempoDeEsperaPorPool() {
+        consultas.relatorio(null);
+        consultas.escrita();
+
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "relatorios").timer()).isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", "primario").timer()).isNotNull();
+    }
+
+    @TestConfiguration
+    static class ConsultasConfig {
+        @Bean
+        Consultas consultas() {
+            return new Consultas();
+        }
+    }
+
+    /**
+     * Cada método executa um comando e devolve quantas conexões do pool de relatórios
+     * estão em uso naquele momento.
+     */
+    static class Consultas {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Autowired
+        @Qualifier("relatoriosDataSource")
+        private HikariDataSource relatorios;
+
+        @ConsultaRelatorio
+        @Transactional(readOnly = true)
+        public int relatorio(CountDownLatch aguardar) {
+            int emUso = consultar();
+            if (aguardar != null) {
+                try {
+                    aguardar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return emUso;
+        }
+
+        @Transactional(readOnly = true)
+        public int leituraComum() {
+            return consultar();
+        }
+
+        @Transactional
+        public int escrita() {
+            return consultar();
+        }
+
+        private int consultar() {
+            entityManager.createNativeQuery("SELECT 1").getSingleResult();
+            return relatorios.getHikariPoolMXBean().getActiveConnections();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package br.com.andrebrandao.comissoes_api.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VersaoDadosService;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.UsuarioAutenticado;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Teste de Integração do roteamento para a réplica de leitura, com dois bancos H2:
+ * "roteamento_primario" e "roteamento_replica". O atraso de replicação é simulado
+ * por uma tabela na réplica (consulta-atraso).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:roteamento_primario",
+        "application.datasource.replica.enabled=true",
+        "application.datasource.replica.url=jdbc:h2:mem:roteamento_replica;DB_CLOSE_DELAY=-1",
+        "application.datasource.replica.username=sa",
+        "application.datasource.replica.consulta-atraso=SELECT atraso FROM replica_atraso",
+        "application.datasource.replica.atraso-maximo-segundos=5",
+        // O teste chama verificar() quando precisa
+        "application.datasource.replica.verificacao-ms=3600000",
+        "application.vendedor-estatisticas.verificacao.enabled=false"
+})
+class RoteamentoReplicaTest {
+
+    private static final String PRIMARIO = "ROTEAMENTO_PRIMARIO";
+    private static final String REPLICA = "ROTEAMENTO_REPLICA";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReplicaComFallbackDataSource leituraDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private VersaoDadosService versaoDadosService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_atraso (atraso DOUBLE)");
+        replica.update("DELETE FROM replica_atraso");
+        replica.update("INSERT INTO replica_atraso (atraso) VALUES (0)");
+        leituraDataSource.verificar();
+    }
+
+    @Test
+    void deveLerNaReplica_EEscreverNoPrimario() {
+        assertThat(leituraDataSource.isReplicaDisponivel()).isTrue();
+        assertThat(bancoDaTransacao(true)).isEqualTo(REPLICA);
+        assertThat(bancoDaTransacao(false)).isEqualTo(PRIMARIO);
+    }
+
+    @Test
+    void deveVoltarAoPrimario_QuandoAtrasoPassarDoLimite() {
+        // 1. Réplica 30 s atrás: leituras no primário
+        replica.update("UPDATE replica_atraso SET atraso = 30");
+        leituraDataSource.verificar();
+        assertThat(leituraDataSource.isReplicaDisponivel()).isFalse();
+        assertThat(leituraDataSource.getUltimoAtrasoSegundos()).isEqualTo(30.0);
+        assertThat(bancoDaTransacao(true)).isEqualTo(PRIMARIO);
+        assertThat(meterRegistry.get("comissoes.replica.disponivel").gauge().value()).isZero();
+        assertThat(meterRegistry.get("comissoes.replica.atraso").gauge().value()).isEqualTo(30.0);
+
+        // 2. Alcançou o primário: volta para a réplica
+        replica.update("UPDATE replica_atraso SET atraso = 1");
+        leituraDataSource.verificar();
+        assertThat(bancoDaTransacao(true)).isEqualTo(REPLICA);
+        assertThat(meterRegistry.get("comissoes.replica.disponivel").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("comissoes.replica.atraso").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void deveVoltarAoPrimario_QuandoVerificacaoFalhar() {
+        // Consulta de atraso falhando (ex: réplica fora do ar ou sem permissão)
+        replica.execute("DROP TABLE replica_atraso");
+        leituraDataSource.verificar();
+
+        assertThat(leituraDataSource.isReplicaDisponivel()).isFalse();
+        assertThat(leituraDataSource.getUltimoAtrasoSegundos()).isNull();
+        assertThat(bancoDaTransacao(true)).isEqualTo(PRIMARIO);
+    }
+
+    @Test
+    void deveDelegarGetConnectionComCredenciais_SemDerrubarAReplica() {
+        // O HikariCP não aceita credenciais por conexão: a resposta é a do pool de destino
+        assertThatThrownBy(() -> leituraDataSource.getConnection("sa", ""))
+                .isInstanceOf(SQLFeatureNotSupportedException.class);
+        assertThat(leituraDataSource.isReplicaDisponivel()).isTrue();
+    }
+
+    @Test
+    void deveEscreverNoPrimario_DepoisDeUmaLeituraNaMesmaRequisicao() {
+        // Simula o open-in-view: o mesmo EntityManager em toda a "requisição"
+        EntityManager compartilhado = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(compartilhado));
+        try {
+            assertThat(bancoDaTransacao(true)).isEqualTo(REPLICA);
+            assertThat(bancoDaTransacao(false)).isEqualTo(PRIMARIO);
+            assertThat(bancoDaTransacao(true)).isEqualTo(REPLICA);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            compartilhado.close();
+        }
+    }
+
+    @Test
+    void naoDeveEmitirETag_EnquantoAReplicaPodeEstarSemAUltimaAlteracao() throws Exception {
+        UsuarioAutenticado admin = UsuarioAutenticado.builder()
+                .id(1L).nome("Admin").email("admin@replica.com").role(Role.ROLE_ADMIN)
+                .empresaId(99L).modulos(Set.of()).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+        try {
+            // 1. Alteração agora + leituras na réplica: sem ETag (o corpo pode ser anterior à alteração)
+            versaoDadosService.invalidar(99L);
+            assertThat(versaoDadosService.etag()).isNull();
+
+            // 2. Réplica fora de uso: as leituras vão ao primário e a ETag volta
+            replica.update("UPDATE replica_atraso SET atraso = 30");
+            leituraDataSource.verificar();
+            assertThat(versaoDadosService.etag()).isNotNull();
+
+            // 3. Réplica de volta: sem ETag até passar a janela (atraso máximo + intervalo da verificação)
+            replica.update("UPDATE replica_atraso SET atraso = 0");
+            leituraDataSource.verificar();
+            assertThat(versaoDadosService.etag()).isNull();
+            ReflectionTestUtils.setField(versaoDadosService, "atrasoMaximoReplicaSegundos", 0.2);
+            ReflectionTestUtils.setField(versaoDadosService, "verificacaoReplicaMs", 0L);
+            Thread.sleep(300);
+            assertThat(versaoDadosService.etag()).isNotNull();
+        } finally {
+            ReflectionTestUtils.setField(versaoDadosService, "atrasoMaximoReplicaSegundos", 5.0);
+            ReflectionTestUtils.setField(versaoDadosService, "verificacaoReplicaMs", 3600000L);
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    /**
+     * Nome do banco em que a transação (somente leitura ou não) executou.
+     */
+    private String bancoDaTransacao(boolean somenteLeitura) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(somenteLeitura);
+        return template.execute(status ->
+                (String) entityManager.createNativeQuery("SELECT DATABASE()").getSingleResult());
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.andrebrandao.comissoes_api.config.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.service.VendaEventoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Teste do controle de falhas do VendaEventoDispatcher: falhas seguidas por empresa,
+ * backoff entre as tentativas e métricas. O VendaEventoService é simulado (Mockito).
+ */
+@ExtendWith(OutputCaptureExtension.class)
+class VendaEventoDispatcherTest {
+
+    private static final Long EMPRESA_ID = 7L;
+
+    private VendaEventoService vendaEventoService;
+    private SimpleMeterRegistry meterRegistry;
+    private VendaEventoDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        vendaEventoService = mock(VendaEventoService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(vendaEventoService.empresasPendentes()).thenReturn(List.of(EMPRESA_ID));
+
+        dispatcher = new VendaEventoDispatcher(vendaEventoService, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "habilitado", true);
+        ReflectionTestUtils.setField(dispatcher, "tamanhoLote", 500);
+        ReflectionTestUtils.setField(dispatcher, "threads", 1);
+        ReflectionTestUtils.setField(dispatcher, "capacidadeFila", 10);
+        ReflectionTestUtils.setField(dispatcher, "intervaloMs", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaximoMs", 60000L);
+        dispatcher.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.encerrar();
+    }
+
+    @Test
+    void deveContarFalhasSeguidas_EsperarOBackoff_EZerarAposSucesso() throws Exception {
+        when(vendaEventoService.processarLote(eq(EMPRESA_ID), anyInt()))
+                .thenThrow(new IllegalStateException("banco indisponível"))
+                .thenReturn(0);
+
+        // 1. Primeira falha: contada e publicada nas métricas
+        dispatcher.despachar();
+        aguardar(() -> dispatcher.getFalhasConsecutivas(EMPRESA_ID) == 1);
+        assertThat(meterRegistry.counter("comissoes.outbox.falhas").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("comissoes.outbox.empresas_com_falha").gauge().value()).isEqualTo(1.0);
+
+        // 2. Dentro do backoff (1 s): a empresa não é entregue ao pool de novo
+        dispatcher.despachar();
+        verify(vendaEventoService, times(1)).processarLote(eq(EMPRESA_ID), anyInt());
+
+        // 3. Depois do backoff: nova tentativa; o sucesso zera as falhas
+        Thread.sleep(1100);
+        dispatcher.despachar();
+        aguardar(() -> dispatcher.getFalhasConsecutivas(EMPRESA_ID) == 0);
+        verify(vendaEventoService, times(2)).processarLote(eq(EMPRESA_ID), anyInt());
+        assertThat(meterRegistry.get("comissoes.outbox.empresas_com_falha").gauge().value()).isZero();
+    }
+
+    @Test
+    void deveLogarErroSoNaPrimeiraFalha_DaJanelaDeBackoff(CapturedOutput saida) throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "intervaloMs", 100L);
+        when(vendaEventoService.processarLote(eq(EMPRESA_ID), anyInt()))
+                .thenThrow(new IllegalStateException("banco indisponível"));
+
+        // 1. Primeira falha: ERROR com o stack trace
+        dispatcher.despachar();
+        aguardar(() -> saida.getOut().contains("banco indisponível"));
+        assertThat(saida.getOut()).contains("ERROR").contains("java.lang.IllegalStateException: banco indisponível")
+                .contains("\tat ");
+
+        // 2. Segunda falha, dentro do backoff máximo (60 s): só WARN, sem novo stack trace
+        Thread.sleep(150);
+        int tamanhoAntes = saida.getOut().length();
+        dispatcher.despachar();
+        aguardar(() -> saida.getOut().substring(tamanhoAntes).contains("banco indisponível"));
+        assertThat(dispatcher.getFalhasConsecutivas(EMPRESA_ID)).isEqualTo(2);
+        String segunda = saida.getOut().substring(tamanhoAntes);
+        assertThat(segunda).contains("WARN").doesNotContain("ERROR").doesNotContain("\tat ");
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicao.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("tempo esgotado").isLessThan(limite);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.andrebrandao.comissoes_api.config.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import br.com.andrebrandao.comissoes_api.security.service.JwtService;
+
+/**
+ * Teste de Integração das métricas publicadas em /actuator/prometheus.
+ * Servidor real: a API em uma porta e o Actuator na porta de gerenciamento
+ * (management.server.port), onde o scrape não usa token.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureObservability
+class MetricasPrometheusTest {
+
+    @LocalServerPort
+    private int porta;
+
+    @LocalManagementPort
+    private int portaGerenciamento;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        moduloRepository.save(comissoes);
+
+        Empresa empresa = new Empresa();
+        empresa.setNomeFantasia("Loja Métricas");
+        empresa.setCnpj("66.777.888/0001-99");
+        empresa.setModulosAtivos(Set.of(comissoes));
+        empresaRepository.save(empresa);
+
+        User admin = userRepository.save(User.builder()
+                .nome("Admin Métricas")
+                .email("admin@metricas.com")
+                .senha("nao-usada")
+                .role(Role.ROLE_ADMIN)
+                .empresa(empresa)
+                .build());
+
+        this.token = jwtService.generateToken(admin, Set.of("COMISSAO_CORE"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    @Test
+    void devePublicarMetricasDaAplicacaoDoBancoEDoPool() throws Exception {
+        // 1. Gera tráfego nos caminhos instrumentados (porta da API, com token)
+        assertThat(get(porta, "/api/vendas", token).statusCode()).isEqualTo(200);
+        assertThat(get(porta, "/api/dashboard/empresa", token).statusCode()).isEqualTo(200);
+
+        // 2. Scrape do Prometheus na porta de gerenciamento, sem token
+        HttpResponse<String> scrape = get(portaGerenciamento, "/actuator/prometheus", null);
+        assertThat(scrape.statusCode()).isEqualTo(200);
+        String metricas = scrape.body();
+
+        // 3. Timers da aplicação, com a tag de endpoint (padrão da URL, não a URL crua)
+        assertThat(metricas).contains("comissoes_dashboard_seconds_count");
+        assertThat(metricas).contains("comissoes_seguranca_has_modulo_seconds_count");
+        assertThat(metricas).contains("comissoes_seguranca_modulo_verificacoes_total");
+        assertThat(metricas).containsPattern(
+                "comissoes_seguranca_jwt_filtro_seconds_count\\{[^}]*endpoint=\"GET /api/vendas\"[^}]*resultado=\"autenticado\"");
+
+        // 4. Consultas dos repositórios, Hibernate e HikariCP
+        assertThat(metricas).containsPattern(
+                "spring_data_repository_invocations_seconds_count\\{[^}]*endpoint=\"GET /api/vendas\"[^}]*repository=\"VendaRepository\"");
+        assertThat(metricas).contains("hibernate_");
+        assertThat(metricas).contains("hikaricp_connections");
+    }
+
+    @Test
+    void naoDevePublicarMetricas_NaPortaDaApi() throws Exception {
+        // Nem com o token de um Admin: o Actuator só responde na porta de gerenciamento
+        assertThat(get(porta, "/actuator/prometheus", null).statusCode()).isNotEqualTo(200);
+        assertThat(get(porta, "/actuator/prometheus", token).statusCode()).isNotEqualTo(200);
+        assertThat(get(porta, "/actuator/metrics", token).statusCode()).isNotEqualTo(200);
+
+        // O health check continua na porta de gerenciamento
+        assertThat(get(portaGerenciamento, "/actuator/health", null).statusCode()).isEqualTo(200);
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private HttpResponse<String> get(int portaServidor, String caminho, String tokenJwt) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + portaServidor + caminho));
+        if (tokenJwt != null) {
+            request.header("Authorization", "Bearer " + tokenJwt);
+        }
+        return httpClient.send(request.GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void limparBanco() {
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.andrebrandao.comissoes_api.config.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import br.com.andrebrandao.comissoes_api.ComissoesApiApplication;
+
+/**
+ * Teste das migrações sobre um banco criado ANTES delas (pelo antigo ddl-auto=update):
+ * o banco nasce com o schema original (o mesmo da V1, executado fora do Flyway) e dados,
+ * e a aplicação sobe como em produção (baseline-on-migrate na versão 1).
+ * A V1 é só registrada; V2+ criam o restante e o Hibernate valida as entidades.
+ */
+class MigracaoBancoLegadoTest {
+
+    private static final String URL = "jdbc:h2:mem:migracao_legado;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void deveMigrarBancoComSchemaOriginal_EValidarAsEntidades() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(URL, "sa", "", true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+            // 1. Banco legado: schema original, sem histórico do Flyway, com dados
+            new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__schema_inicial.sql")).execute(dataSource);
+            jdbcTemplate.update("INSERT INTO empresa (nome_fantasia, cnpj, data_cadastro) "
+                    + "VALUES ('Loja Legada', '10.000.000/0001-10', CURRENT_TIMESTAMP)");
+            jdbcTemplate.update("INSERT INTO usuario (nome, email, senha, role, empresa_id, data_criacao) "
+                    + "SELECT 'Vendedor', 'v@legado.com', 'x', 'ROLE_VENDEDOR', id, CURRENT_TIMESTAMP FROM empresa");
+            jdbcTemplate.update("INSERT INTO vendedor (percentual_comissao, empresa_id, user_id) "
+                    + "SELECT 10, empresa_id, id FROM usuario");
+            for (int i = 0; i < 3; i++) {
+                jdbcTemplate.update("INSERT INTO venda (valor_venda, valor_comissao_calculado, status, data_venda, "
+                        + "vendedor_id, empresa_id) SELECT 100, 10, 'CONFIRMADA', CURRENT_TIMESTAMP, id, empresa_id FROM vendedor");
+            }
+            Long ultimaVenda = jdbcTemplate.queryForObject("SELECT MAX(id) FROM venda", Long.class);
+
+            // 2. Sobe a aplicação como em produção (falha se alguma @Entity divergir do schema)
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ComissoesApiApplication.class)
+                    .run("--server.port=0",
+                            "--spring.datasource.url=" + URL,
+                            "--spring.flyway.baseline-on-migrate=true",
+                            "--spring.flyway.baseline-version=1",
+                            "--spring.jpa.show-sql=false",
+                            "--application.vendedor-estatisticas.verificacao.enabled=false")) {
+
+                // 3. V1 registrada como baseline; V2+ aplicadas
+                List<String> versoes = jdbcTemplate.queryForList(
+                        "SELECT version || ':' || type FROM flyway_schema_history "
+                                + "WHERE success AND version IS NOT NULL ORDER BY installed_rank",
+                        String.class);
+                assertThat(versoes).containsExactly("1:BASELINE", "2:SQL", "3:SQL", "4:JDBC", "5:SQL");
+
+                // 4. Dados preservados; versões zeradas; IDs novos depois dos existentes
+                assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM venda WHERE versao = 0", Integer.class))
+                        .isEqualTo(3);
+                assertThat(jdbcTemplate.queryForObject("SELECT nextval('venda_seq')", Long.class) - 49)
+                        .isGreaterThan(ultimaVenda);
+                assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables "
+                        + "WHERE table_name IN ('vendedor_estatisticas', 'venda_resumo_mensal', 'venda_evento')",
+                        Integer.class)).isEqualTo(3);
+            }
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.andrebrandao.comissoes_api.config.migration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Teste da migração V4 (IDENTITY -> sequences "pooled") sobre um banco que já tem dados:
+ * aplica até a V3, grava linhas com os IDs gerados pelo IDENTITY e confere que, depois da V4,
+ * os IDs existentes continuam os mesmos e as sequences entregam blocos acima deles.
+ */
+class SequenciasPooledMigracaoTest {
+
+    @Test
+    void deveComecarAsSequencesDepoisDosIdsExistentes() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:migracao_sequencias;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+            // 1. Banco na V3 com dados (IDs gerados pelo IDENTITY e pela venda_seq antiga)
+            flyway(dataSource).target("3").load().migrate();
+            for (int i = 1; i <= 120; i++) {
+                jdbcTemplate.update("INSERT INTO empresa (nome_fantasia, cnpj, data_cadastro) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                        "Empresa " + i, "cnpj-" + i);
+            }
+            Long ultimaEmpresa = jdbcTemplate.queryForObject("SELECT MAX(id) FROM empresa", Long.class);
+            jdbcTemplate.update("INSERT INTO usuario (nome, email, senha, role, empresa_id, data_criacao) "
+                    + "VALUES ('Vendedor', 'v@migracao.com', 'x', 'ROLE_VENDEDOR', ?, CURRENT_TIMESTAMP)", ultimaEmpresa);
+            jdbcTemplate.update("INSERT INTO vendedor (percentual_comissao, empresa_id, user_id) "
+                    + "SELECT 10, ?, id FROM usuario", ultimaEmpresa);
+            jdbcTemplate.update("INSERT INTO venda (id, valor_venda, valor_comissao_calculado, status, data_venda, "
+                    + "vendedor_id, empresa_id) SELECT 977, 100, 10, 'PENDENTE', CURRENT_TIMESTAMP, id, ? FROM vendedor",
+                    ultimaEmpresa);
+
+            // 2. V4
+            flyway(dataSource).javaMigrations(new V4__SequenciasPooled()).load().migrate();
+
+            // 3. O primeiro bloco de cada sequence ("pooled": valor = topo do bloco) fica acima do maior ID
+            assertThat(jdbcTemplate.queryForObject("SELECT MAX(id) FROM empresa", Long.class)).isEqualTo(ultimaEmpresa);
+            assertThat(inicioDoBloco(jdbcTemplate, "empresa_seq")).isGreaterThan(ultimaEmpresa);
+            assertThat(inicioDoBloco(jdbcTemplate, "usuario_seq")).isGreaterThan(1L);
+            assertThat(inicioDoBloco(jdbcTemplate, "venda_seq")).isGreaterThan(977L);
+            assertThat(inicioDoBloco(jdbcTemplate, "modulo_seq")).isEqualTo(1L);
+
+            // 4. As colunas deixaram de ser IDENTITY: o ID passa a vir sempre do Hibernate
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                    + "WHERE column_name = 'id' AND is_identity = 'YES'", Integer.class)).isZero();
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static FluentConfiguration flyway(SingleConnectionDataSource dataSource) {
+        return Flyway.configure().dataSource(dataSource).locations("classpath:db/migration");
+    }
+
+    private static long inicioDoBloco(JdbcTemplate jdbcTemplate, String sequence) {
+        return jdbcTemplate.queryForObject("SELECT nextval('" + sequence + "')", Long.class) - 49;
+    }
+}
@@ -0,0 +1,135 @@
+package br.com.andrebrandao.comissoes_api.core.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.andrebrandao.comissoes_api.core.dto.ModuloRequestDTO;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.core.service.CatalogoModulosCacheService;
+import br.com.andrebrandao.comissoes_api.core.service.ModuloService;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de Integração do catálogo público (GET /api/modulos/catalogo):
+ * acesso anônimo, servido do cache em memória e atualizado após criar/atualizar módulos.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ModuloPublicoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    @Autowired
+    private ModuloService moduloService;
+
+    @Autowired
+    private CatalogoModulosCacheService catalogoModulosCacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+        moduloService.criar(novoModulo("Módulo de Comissões", "COMISSAO_CORE", ModuloStatus.PRONTO_PARA_PRODUCAO));
+        moduloService.criar(novoModulo("Módulo de Metas", "METAS", ModuloStatus.EM_DESENVOLVIMENTO));
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    @Test
+    void deveServirCatalogoAnonimo_SemConsultarOBanco() throws Exception {
+        // 1. Primeira chamada: carrega o catálogo
+        mockMvc.perform(get("/api/modulos/catalogo"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=60, public"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].chave").value("COMISSAO_CORE"));
+
+        // 2. Chamadas seguintes: nenhuma consulta ao banco
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean estavamHabilitadas = estatisticas.isStatisticsEnabled();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+        try {
+            for (int i = 0; i < 5; i++) {
+                mockMvc.perform(get("/api/modulos/catalogo")).andExpect(status().isOk());
+            }
+            assertThat(estatisticas.getPrepareStatementCount()).isZero();
+        } finally {
+            estatisticas.setStatisticsEnabled(estavamHabilitadas);
+        }
+    }
+
+    @Test
+    void deveAtualizarCatalogo_AoCriarEAtualizarModulo() throws Exception {
+        mockMvc.perform(get("/api/modulos/catalogo")).andExpect(jsonPath("$", hasSize(1)));
+
+        // 1. Novo módulo à venda: aparece sem esperar o TTL
+        moduloService.criar(novoModulo("Relatórios Avançados", "RELATORIOS", ModuloStatus.PRONTO_PARA_PRODUCAO));
+        mockMvc.perform(get("/api/modulos/catalogo"))
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        // 2. Módulo arquivado: sai do catálogo
+        Modulo relatorios = moduloRepository.findAll().stream()
+                .filter(modulo -> modulo.getChave().equals("RELATORIOS")).findFirst().orElseThrow();
+        moduloService.atualizar(relatorios.getId(),
+                novoModulo("Relatórios Avançados", "RELATORIOS", ModuloStatus.ARQUIVADO));
+        mockMvc.perform(get("/api/modulos/catalogo"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].chave").value("COMISSAO_CORE"));
+        assertThat(moduloService.listarTodos()).hasSize(3);
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static ModuloRequestDTO novoModulo(String nome, String chave, ModuloStatus status) {
+        ModuloRequestDTO dto = new ModuloRequestDTO();
+        dto.setNome(nome);
+        dto.setChave(chave);
+        dto.setStatus(status);
+        dto.setPrecoMensal(BigDecimal.TEN);
+        dto.setIsPadrao(false);
+        return dto;
+    }
+
+    private void limparBanco() {
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+        catalogoModulosCacheService.invalidar();
+    }
+}
@@ -0,0 +1,338 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.config.job.VendaEventoDispatcher;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendaStatus;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorEstatisticasRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+
+/**
+ * Teste de Integração da listagem paginada (por cursor) do VendaController
+ * e do GET condicional (ETag) das listagens e do Dashboard.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class VendaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private VendaEventoRepository vendaEventoRepository;
+
+    @Autowired
+    private VendaResumoMensalRepository vendaResumoMensalRepository;
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private VendedorEstatisticasRepository vendedorEstatisticasRepository;
+
+    @Autowired
+    private VendaEventoDispatcher vendaEventoDispatcher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        moduloRepository.save(comissoes);
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Listagem");
+        loja.setCnpj("44.555.666/0001-77");
+        loja.setModulosAtivos(Set.of(comissoes));
+        empresaRepository.save(loja);
+
+        this.admin = userRepository.save(User.builder()
+                .nome("Admin Listagem").email("admin@listagem.com").senha("x")
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+
+        User usuarioVendedor = userRepository.save(User.builder()
+                .nome("Carla").email("carla@listagem.com").senha("x")
+                .role(Role.ROLE_VENDEDOR).empresa(loja).build());
+        Vendedor carla = vendedorRepository.save(Vendedor.builder()
+                .percentualComissao(new BigDecimal("10.00")).empresa(loja).usuario(usuarioVendedor).build());
+
+        // 5 vendas: 3 confirmadas e 2 pendentes
+        for (int i = 1; i <= 5; i++) {
+            vendaRepository.save(Venda.builder()
+                    .valorVenda(new BigDecimal(i * 100))
+                    .valorComissaoCalculado(new BigDecimal(i * 10))
+                    .status(i <= 3 ? VendaStatus.CONFIRMADA : VendaStatus.PENDENTE)
+                    .vendedor(carla)
+                    .empresa(loja)
+                    .build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    @Test
+    void devePercorrerTodasAsPaginas_SemRepetirVendas() throws Exception {
+        // Página 1
+        String pagina1 = mockMvc.perform(get("/api/vendas").param("limite", "2").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(2)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor1 = JsonPath.read(pagina1, "$.proximoCursor");
+
+        // Página 2
+        String pagina2 = mockMvc.perform(get("/api/vendas").param("limite", "2").param("cursor", cursor1)
+                .with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(2)))
+                .andReturn().getResponse().getContentAsString();
+        String cursor2 = JsonPath.read(pagina2, "$.proximoCursor");
+
+        // Página 3 (última)
+        mockMvc.perform(get("/api/vendas").param("limite", "2").param("cursor", cursor2).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.proximoCursor").value(nullValue()));
+    }
+
+    @Test
+    void deveFiltrarPorStatusEValor() throws Exception {
+        mockMvc.perform(get("/api/vendas")
+                .param("status", "CONFIRMADA")
+                .param("valorMin", "200")
+                .with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(2)))
+                .andExpect(jsonPath("$.itens[0].status").value("CONFIRMADA"));
+    }
+
+    @Test
+    void deveRetornar400_QuandoCursorForInvalido() throws Exception {
+        mockMvc.perform(get("/api/vendas").param("cursor", "isso-nao-e-um-cursor").with(user(admin)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveExportarCsv_ComOsFiltrosDaListagem() throws Exception {
+        String csv = mockMvc.perform(get("/api/vendas/export").param("status", "CONFIRMADA").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"vendas.csv\""))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = csv.split("\n");
+        assertThat(linhas).hasSize(4); // Cabeçalho + 3 confirmadas
+        assertThat(linhas[0]).startsWith("id,dataVenda,status");
+        assertThat(linhas[1]).contains(",CONFIRMADA,").contains("carla@listagem.com");
+    }
+
+    @Test
+    void deveExportarNdjson_UmaVendaPorLinha() throws Exception {
+        String ndjson = mockMvc.perform(get("/api/vendas/export").param("format", "ndjson").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = ndjson.split("\n");
+        assertThat(linhas).hasSize(5);
+        assertThat((Integer) JsonPath.read(linhas[0], "$.vendedor.idVendedor")).isNotNull();
+    }
+
+    @Test
+    void deveRetornar400_QuandoFormatoDeExportacaoForInvalido() throws Exception {
+        mockMvc.perform(get("/api/vendas/export").param("format", "xlsx").with(user(admin)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void deveAtualizarVendasEmLote() throws Exception {
+        List<Venda> vendas = vendaRepository.findAll();
+        String corpo = "{\"itens\": ["
+                + "{\"id\": " + vendas.get(0).getId() + ", \"valorVenda\": 1000.00},"
+                + "{\"id\": " + vendas.get(1).getId() + ", \"valorVenda\": 2000.00, \"descricaoVenda\": \"Ajuste\"}"
+                + "]}";
+
+        mockMvc.perform(put("/api/vendas/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo)
+                .with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].valorComissaoCalculado").value(100.00)) // 10% de 1000
+                .andExpect(jsonPath("$[1].descricaoVenda").value("Ajuste"))
+                .andExpect(jsonPath("$[1].versao").value(1));
+    }
+
+    @Test
+    void deveRetornar409_QuandoVersaoEstiverDesatualizada() throws Exception {
+        Venda venda = vendaRepository.findAll().get(0);
+        String corpo = "{\"valorVenda\": 999.00, \"versao\": " + (venda.getVersao() + 1) + "}";
+
+        mockMvc.perform(put("/api/vendas/" + venda.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo)
+                .with(user(admin)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void deveLancarVendasEmLote_ComResultadoPorItem() throws Exception {
+        Long vendedorId = vendedorRepository.findAll().get(0).getId();
+        String corpo = "["
+                + "{\"vendedorId\": " + vendedorId + ", \"valorVenda\": 100.00},"
+                + "{\"vendedorId\": 999999, \"valorVenda\": 50.00},"
+                + "{\"vendedorId\": " + vendedorId + ", \"valorVenda\": -1}"
+                + "]";
+
+        mockMvc.perform(post("/api/vendas/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(corpo)
+                .with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.sucesso").value(1))
+                .andExpect(jsonPath("$.erros").value(2))
+                .andExpect(jsonPath("$.resultados[0].vendaId").isNumber())
+                .andExpect(jsonPath("$.resultados[1].erro").isString())
+                .andExpect(jsonPath("$.resultados[2].erro").isString());
+
+        // 5 do setUp + 1 do lote, e o evento dela no outbox
+        assertThat(vendaRepository.count()).isEqualTo(6);
+        assertThat(vendaEventoRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void deveResponder304_QuandoListagemNaoMudou_E200AposNovaVenda() throws Exception {
+        // 1. Primeira leitura: 200 com ETag (e o navegador deve sempre revalidar)
+        String etag = mockMvc.perform(get("/api/vendas").with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+
+        // 2. Nada mudou: 304 sem corpo
+        mockMvc.perform(get("/api/vendas").header(HttpHeaders.IF_NONE_MATCH, etag).with(user(admin)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // 3. Uma venda nova descarta a versão: 200 com outra ETag
+        Long vendedorId = vendedorRepository.findAll().get(0).getId();
+        mockMvc.perform(post("/api/vendas/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"vendedorId\": " + vendedorId + ", \"valorVenda\": 100.00}]")
+                .with(user(admin)))
+                .andExpect(status().isOk());
+
+        String novaEtag = mockMvc.perform(get("/api/vendas").header(HttpHeaders.IF_NONE_MATCH, etag)
+                .with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(6)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(novaEtag).isNotEqualTo(etag);
+    }
+
+    @Test
+    void deveTrocarEtagDoDashboardEDosVendedores_QuandoOutboxForProcessado() throws Exception {
+        Long vendedorId = vendedorRepository.findAll().get(0).getId();
+        mockMvc.perform(post("/api/vendas/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"vendedorId\": " + vendedorId + ", \"valorVenda\": 100.00}]")
+                .with(user(admin)))
+                .andExpect(status().isOk());
+
+        // 1. Evento ainda no outbox: as versões ficam estáveis
+        String etagDashboard = mockMvc.perform(get("/api/dashboard/empresa").with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String etagVendedores = mockMvc.perform(get("/api/vendedores").with(user(admin)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/dashboard/empresa").header(HttpHeaders.IF_NONE_MATCH, etagDashboard)
+                .with(user(admin)))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/vendedores").header(HttpHeaders.IF_NONE_MATCH, etagVendedores)
+                .with(user(admin)))
+                .andExpect(status().isNotModified());
+
+        // 2. O despachante aplica o evento nos agregados: as duas respostas mudam
+        assertThat(vendaEventoDispatcher.processarPendentes()).isEqualTo(1);
+
+        mockMvc.perform(get("/api/dashboard/empresa").header(HttpHeaders.IF_NONE_MATCH, etagDashboard)
+                .with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalVendasMes").value(100.00));
+        mockMvc.perform(get("/api/vendedores").header(HttpHeaders.IF_NONE_MATCH, etagVendedores)
+                .with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].qtdVendas").value(1));
+    }
+
+    private void limparBanco() {
+        vendaEventoRepository.deleteAll();
+        vendedorEstatisticasRepository.deleteAll();
+        vendaResumoMensalRepository.deleteAll();
+        vendaRepository.deleteAll();
+        vendedorRepository.deleteAll();
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
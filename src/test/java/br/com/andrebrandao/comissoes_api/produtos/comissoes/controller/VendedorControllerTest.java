@@ -0,0 +1,237 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.config.job.VendaEventoDispatcher;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorEstatisticasRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+
+/**
+ * Teste de Integração do cadastro de vendedores em lote (POST /api/vendedores/lote)
+ * e do histórico mensal dos detalhes do vendedor (lido do resumo materializado).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class VendedorControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private VendaEventoRepository vendaEventoRepository;
+
+    @Autowired
+    private VendaResumoMensalRepository vendaResumoMensalRepository;
+
+    @Autowired
+    private VendaEventoDispatcher vendaEventoDispatcher;
+
+    @Autowired
+    private VendedorEstatisticasRepository vendedorEstatisticasRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        moduloRepository.save(comissoes);
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Lote");
+        loja.setCnpj("55.666.777/0001-88");
+        loja.setModulosAtivos(Set.of(comissoes));
+        empresaRepository.save(loja);
+
+        this.admin = userRepository.save(User.builder()
+                .nome("Admin Lote").email("admin@lote.com").senha("x")
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    @Test
+    void deveCriarVendedoresDoJson_EApontarEmailEmUsoERepetido() throws Exception {
+        String corpo = """
+                [
+                  {"nome": "Ana Souza", "email": "ana@lote.com", "percentualComissao": 5.5},
+                  {"nome": "Admin de Novo", "email": "admin@lote.com", "percentualComissao": 3},
+                  {"nome": "Bruno Lima", "email": "bruno@lote.com", "percentualComissao": 7},
+                  {"nome": "Ana Repetida", "email": "ana@lote.com", "percentualComissao": 2},
+                  {"nome": "X", "email": "invalido", "percentualComissao": 1}
+                ]
+                """;
+
+        String resposta = mockMvc.perform(post("/api/vendedores/lote").param("format", "ndjson")
+                .contentType(MediaType.APPLICATION_JSON).content(corpo).with(user(admin)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        // 1. Uma linha por item, na ordem do envio
+        List<JsonNode> itens = resposta.lines().map(this::json).toList();
+        assertThat(itens).hasSize(5);
+        assertThat(itens.get(0).get("erro").isNull()).isTrue();
+        assertThat(itens.get(1).get("erro").asText()).isEqualTo("O email informado já está em uso.");
+        assertThat(itens.get(2).get("erro").isNull()).isTrue();
+        assertThat(itens.get(3).get("erro").asText()).isEqualTo("Email repetido no lote.");
+        assertThat(itens.get(4).get("erro").asText()).contains("Formato de email inválido.");
+
+        // 2. Os criados podem entrar com a senha temporária e já têm os contadores zerados
+        for (JsonNode criado : List.of(itens.get(0), itens.get(2))) {
+            User usuario = userRepository.findByEmail(criado.get("email").asText()).orElseThrow();
+            assertThat(usuario.getRole()).isEqualTo(Role.ROLE_VENDEDOR);
+            assertThat(passwordEncoder.matches(criado.get("senhaTemporaria").asText(), usuario.getSenha())).isTrue();
+            assertThat(vendedorEstatisticasRepository.findById(criado.get("idVendedor").asLong())).isPresent();
+        }
+        assertThat(vendedorRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void deveCriarVendedoresDoCsv_ResponderEmCsv() throws Exception {
+        String csv = "email,nome,percentualComissao\r\n"
+                + "carla@lote.com,\"Silva, Carla\",10\r\n"
+                + "davi@lote.com,\"Davi \"\"DJ\"\" Rocha\",12.5\r\n";
+
+        String resposta = mockMvc.perform(post("/api/vendedores/lote")
+                .contentType("text/csv").content(csv).with(user(admin)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> linhas = resposta.lines().toList();
+        assertThat(linhas).hasSize(3);
+        assertThat(linhas.get(0)).isEqualTo("indice,idVendedor,idUsuario,nome,email,percentualComissao,senhaTemporaria,erro");
+        assertThat(linhas.get(1)).contains(",\"Silva, Carla\",carla@lote.com,10,");
+        assertThat(userRepository.findByEmail("davi@lote.com").orElseThrow().getNome()).isEqualTo("Davi \"DJ\" Rocha");
+    }
+
+    @Test
+    void deveRecusarCsvMalFormado() throws Exception {
+        mockMvc.perform(post("/api/vendedores/lote")
+                .contentType("text/csv").content("nome,email,percentualComissao\n\"Eva,eva@lote.com,5\n")
+                .with(user(admin)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/vendedores/lote")
+                .contentType("text/csv").content("nome,email\nEva,eva@lote.com\n")
+                .with(user(admin)))
+                .andExpect(status().isBadRequest());
+
+        assertThat(vendedorRepository.count()).isZero();
+    }
+
+    @Test
+    void deveMontarHistoricoDoVendedor_APartirDoResumoMensal() throws Exception {
+        Vendedor vendedor = vendedorRepository.save(Vendedor.builder()
+                .percentualComissao(new BigDecimal("10.00"))
+                .empresa(admin.getEmpresa())
+                .usuario(userRepository.save(User.builder()
+                        .nome("Elisa Prado").email("elisa@lote.com").senha("x")
+                        .role(Role.ROLE_VENDEDOR).empresa(admin.getEmpresa()).build()))
+                .build());
+
+        // 1. Duas vendas lançadas; o outbox atualiza o resumo mensal
+        for (String valor : List.of("100.00", "250.00")) {
+            mockMvc.perform(post("/api/vendas").with(user(admin))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"vendedorId\": " + vendedor.getId() + ", \"valorVenda\": " + valor + "}"))
+                    .andExpect(status().isCreated());
+        }
+        vendaEventoDispatcher.processarPendentes();
+
+        // 2. O histórico vem agrupado por mês
+        mockMvc.perform(get("/api/vendedores/{id}/detalhes", vendedor.getId()).with(user(admin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.historicoRendimentos.length()").value(1))
+                .andExpect(jsonPath("$.historicoRendimentos[0].mesAno").value(YearMonth.now().toString()))
+                .andExpect(jsonPath("$.historicoRendimentos[0].valorVendido").value(350.00))
+                .andExpect(jsonPath("$.historicoRendimentos[0].valorComissao").value(35.00));
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private JsonNode json(String linha) {
+        try {
+            return objectMapper.readTree(linha);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void limparBanco() {
+        vendaEventoRepository.deleteAll();
+        vendaResumoMensalRepository.deleteAll();
+        vendaRepository.deleteAll();
+        vendedorEstatisticasRepository.deleteAll();
+        vendedorRepository.deleteAll();
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
@@ -0,0 +1,103 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Verifica, via EXPLAIN, que as consultas do mês usam os índices compostos
+ * da tabela venda (e não uma varredura de todas as vendas da empresa).
+ * O H2 escreve no plano as condições usadas na busca pelo índice (comentário
+ * "idx_...: condições" antes do WHERE): o intervalo em data_venda precisa estar lá,
+ * e não só o empresa_id/vendedor_id (que já escolheria o mesmo índice).
+ */
+@SpringBootTest
+class VendaRepositoryTest {
+
+    // Comentário do H2 com o índice escolhido e as condições da busca nele
+    private static final Pattern CONDICAO_INDICE = Pattern.compile("/\\* public\\.(\\w+): (.*?)\\*/", Pattern.DOTALL);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void totaisDoMes_DeveUsarIndiceEmpresaData() {
+        String plano = explicar(VendaRepository.SQL_TOTAIS_DO_MES);
+
+        assertThat(plano).containsIgnoringCase("IDX_VENDA_EMPRESA_DATA");
+        assertBuscaPeloIntervalo(plano, "idx_venda_empresa_data");
+    }
+
+    @Test
+    void rankingVendedores_DeveUsarIndiceEmpresaData() {
+        String plano = explicar(VendaRepository.SQL_RANKING_VENDEDORES);
+
+        assertThat(plano).containsIgnoringCase("IDX_VENDA_EMPRESA_DATA");
+        assertBuscaPeloIntervalo(plano, "idx_venda_empresa_data");
+    }
+
+    @Test
+    void vendasDoVendedorNoPeriodo_DeveUsarIndiceVendedorData() {
+        String plano = explicar("SELECT COUNT(v.id) FROM venda v " +
+                "WHERE v.vendedor_id = :vendedorId AND v.data_venda >= :inicio AND v.data_venda < :fim");
+
+        assertThat(plano).containsIgnoringCase("IDX_VENDA_VENDEDOR_DATA");
+        assertBuscaPeloIntervalo(plano, "idx_venda_vendedor_data");
+    }
+
+    @Test
+    void filtroPorTexto_NaoUsaODataVendaDoIndice() {
+        // Controle: o filtro antigo (TO_CHAR) escolhe o mesmo índice, mas só pelo empresa_id
+        String plano = explicar("SELECT COUNT(v.id) FROM venda v " +
+                "WHERE v.empresa_id = :empresaId AND TO_CHAR(v.data_venda, 'YYYY-MM') = '2024-06'");
+
+        assertThat(condicaoDoIndice(plano, "idx_venda_empresa_data")).doesNotContain("data_venda");
+    }
+
+    @Test
+    void maioresVendas_DeveUsarIndiceEmpresaValor() {
+        String plano = explicar("SELECT v.id FROM venda v " +
+                "WHERE v.empresa_id = :empresaId ORDER BY v.valor_venda DESC LIMIT 5");
+
+        assertThat(plano).containsIgnoringCase("IDX_VENDA_EMPRESA_VALOR");
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static void assertBuscaPeloIntervalo(String plano, String indice) {
+        assertThat(condicaoDoIndice(plano, indice))
+                .contains("data_venda >= TIMESTAMP '2024-06-01 00:00:00'")
+                .contains("data_venda < TIMESTAMP '2024-07-01 00:00:00'");
+    }
+
+    /**
+     * Condições da busca no índice, como o H2 as escreve no plano.
+     */
+    private static String condicaoDoIndice(String plano, String indice) {
+        Matcher matcher = CONDICAO_INDICE.matcher(plano);
+        while (matcher.find()) {
+            if (matcher.group(1).equalsIgnoreCase(indice)) {
+                return matcher.group(2);
+            }
+        }
+        throw new AssertionError("Índice " + indice + " ausente do plano:\n" + plano);
+    }
+
+    /**
+     * Troca os parâmetros nomeados por literais e roda o EXPLAIN do banco.
+     */
+    private String explicar(String sql) {
+        String sqlComValores = sql
+                .replace(":empresaId", "1")
+                .replace(":vendedorId", "1")
+                .replace(":inicio", "TIMESTAMP '2024-06-01 00:00:00'")
+                .replace(":fim", "TIMESTAMP '2024-07-01 00:00:00'");
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sqlComValores, String.class));
+    }
+}
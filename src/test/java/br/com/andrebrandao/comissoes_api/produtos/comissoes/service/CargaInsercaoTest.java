@@ -0,0 +1,227 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import br.com.andrebrandao.comissoes_api.ComissoesApiApplication;
+import br.com.andrebrandao.comissoes_api.config.async.LatenciaBancoPostProcessor;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorLoteItemDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de carga dos INSERTs: IDs IDENTITY (antes) x sequences "pooled" (depois).
+ *
+ * Sobe a aplicação duas vezes sobre H2 em modo PostgreSQL:
+ * - "identity": schema criado pelo Hibernate e as entidades devolvidas ao IDENTITY
+ *   (src/test/resources/carga/ids-identity.xml);
+ * - "sequence": schema das migrações do Flyway e o mapeamento atual.
+ * Em cada uma, mede VendaService.lancar (uma venda por chamada) e
+ * VendedorLoteService.criarEmLote (cadastro em lote): itens/s e idas ao banco por item.
+ * Cada ida ao banco espera "carga.latencia-banco-ms", simulando a rede até o Postgres.
+ *
+ * Não roda no build normal. Para executar:
+ *   mvn -B test -Dtest=CargaInsercaoTest -Dcarga=true
+ * Parâmetros (-D): carga.insercao.vendas, carga.insercao.vendedores, carga.latencia-banco-ms.
+ * O resultado também é gravado em target/carga-insercao.txt.
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class CargaInsercaoTest {
+
+    private static final int VENDAS = Integer.getInteger("carga.insercao.vendas", 1000);
+    private static final int VENDEDORES = Integer.getInteger("carga.insercao.vendedores", 2000);
+    private static final int LATENCIA_BANCO_MS = Integer.getInteger("carga.latencia-banco-ms", 1);
+    private static final int TAMANHO_LOTE = 500;
+
+    @Test
+    void compararIdentityESequencesPooled() throws Exception {
+        List<Resultado> identity = executar(false);
+        List<Resultado> sequence = executar(true);
+
+        StringBuilder relatorio = new StringBuilder(String.format(
+                "Carga de INSERTs: %d vendas (lancar), %d vendedores (lote de %d), latência do banco %d ms%n",
+                VENDAS, VENDEDORES, TAMANHO_LOTE, LATENCIA_BANCO_MS));
+        for (int i = 0; i < identity.size(); i++) {
+            relatorio.append(identity.get(i)).append('\n').append(sequence.get(i)).append('\n');
+        }
+        System.out.println(">>> " + relatorio);
+        Files.writeString(Path.of("target", "carga-insercao.txt"), relatorio);
+
+        assertThat(identity).allMatch(r -> r.erros() == 0);
+        assertThat(sequence).allMatch(r -> r.erros() == 0);
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private List<Resultado> executar(boolean sequences) {
+        String modo = sequences ? "sequence" : "identity";
+        // Argumentos de linha de comando: têm precedência sobre o application.properties de teste
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:carga_insercao_" + modo + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.jpa.show-sql=false",
+                // Lotes JDBC como em produção (o application.properties de teste não os liga)
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=50",
+                "--spring.jpa.properties.hibernate.order_inserts=true",
+                "--spring.jpa.properties.hibernate.order_updates=true",
+                // Hash barato: a medição é dos INSERTs, não do BCrypt
+                "--application.security.senha.bcrypt.custo=4",
+                "--application.vendedores.lote.max-itens=" + TAMANHO_LOTE,
+                "--application.vendedor-estatisticas.verificacao.enabled=false"));
+        if (!sequences) {
+            argumentos.addAll(List.of(
+                    "--spring.flyway.enabled=false",
+                    "--spring.jpa.hibernate.ddl-auto=create-drop",
+                    "--spring.jpa.mapping-resources=carga/ids-identity.xml"));
+        }
+
+        LatenciaBancoPostProcessor latencia = new LatenciaBancoPostProcessor(LATENCIA_BANCO_MS);
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ComissoesApiApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(latencia))
+                .run(argumentos.toArray(String[]::new))) {
+
+            Vendedor vendedor = popularBanco(contexto);
+            Statistics estatisticas = contexto.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+            try {
+                return List.of(
+                        medirLancamentos(contexto, vendedor, modo, latencia, estatisticas),
+                        medirLoteDeVendedores(contexto, modo, latencia, estatisticas));
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        }
+    }
+
+    private Resultado medirLancamentos(ConfigurableApplicationContext contexto, Vendedor vendedor, String modo,
+            LatenciaBancoPostProcessor latencia, Statistics estatisticas) {
+        VendaService vendaService = contexto.getBean(VendaService.class);
+
+        // 1. Aquecimento (JIT, pool de conexões): não entra na medição
+        for (int i = 0; i < VENDAS / 10; i++) {
+            vendaService.lancar(novaVenda(vendedor, i));
+        }
+
+        estatisticas.clear();
+        long idasAntes = latencia.getIdasAoBanco();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < VENDAS; i++) {
+            vendaService.lancar(novaVenda(vendedor, i));
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        return new Resultado(modo, "lancar", VENDAS / segundos,
+                (double) (latencia.getIdasAoBanco() - idasAntes) / VENDAS,
+                (double) estatisticas.getEntityInsertCount() / VENDAS, 0);
+    }
+
+    private Resultado medirLoteDeVendedores(ConfigurableApplicationContext contexto, String modo,
+            LatenciaBancoPostProcessor latencia, Statistics estatisticas) {
+        VendedorLoteService vendedorLoteService = contexto.getBean(VendedorLoteService.class);
+
+        // 1. Aquecimento: um lote que não entra na medição
+        vendedorLoteService.criarEmLote(novosVendedores("aquecimento", TAMANHO_LOTE));
+
+        estatisticas.clear();
+        long idasAntes = latencia.getIdasAoBanco();
+        int erros = 0;
+        long inicio = System.nanoTime();
+        for (int lote = 0; lote < VENDEDORES / TAMANHO_LOTE; lote++) {
+            for (VendedorLoteItemDTO item : vendedorLoteService.criarEmLote(novosVendedores("lote" + lote, TAMANHO_LOTE))) {
+                if (item.getErro() != null) {
+                    erros++;
+                }
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+        int total = VENDEDORES / TAMANHO_LOTE * TAMANHO_LOTE;
+
+        return new Resultado(modo, "lote", total / segundos,
+                (double) (latencia.getIdasAoBanco() - idasAntes) / total,
+                (double) estatisticas.getEntityInsertCount() / total, erros);
+    }
+
+    private Vendedor popularBanco(ConfigurableApplicationContext contexto) {
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        contexto.getBean(ModuloRepository.class).save(comissoes);
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Carga Inserção");
+        loja.setCnpj("99.666.333/0001-11");
+        loja.setModulosAtivos(Set.of(comissoes));
+        contexto.getBean(EmpresaRepository.class).save(loja);
+
+        UserRepository userRepository = contexto.getBean(UserRepository.class);
+        User admin = userRepository.save(User.builder()
+                .nome("Admin Carga").email("admin@carga-insercao.com").senha("x")
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+        User usuario = userRepository.save(User.builder()
+                .nome("Vendedor Carga").email("vendedor@carga-insercao.com").senha("x")
+                .role(Role.ROLE_VENDEDOR).empresa(loja).build());
+
+        // Os serviços leem a empresa do usuário logado
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+
+        return contexto.getBean(VendedorRepository.class).save(Vendedor.builder()
+                .percentualComissao(new BigDecimal("10.00")).empresa(loja).usuario(usuario).build());
+    }
+
+    private static VendaRequestDTO novaVenda(Vendedor vendedor, int i) {
+        VendaRequestDTO dto = new VendaRequestDTO();
+        dto.setVendedorId(vendedor.getId());
+        dto.setValorVenda(new BigDecimal(100 + i % 900));
+        return dto;
+    }
+
+    private static List<VendedorRequestDTO> novosVendedores(String prefixo, int quantidade) {
+        List<VendedorRequestDTO> dtos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            VendedorRequestDTO dto = new VendedorRequestDTO();
+            dto.setNome("Vendedor " + prefixo + " " + i);
+            dto.setEmail(prefixo + "." + i + "@carga-insercao.com");
+            dto.setPercentualComissao(new BigDecimal("5.00"));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private record Resultado(String modo, String operacao, double itensPorSegundo, double idasAoBancoPorItem,
+            double insertsPorItem, int erros) {
+        @Override
+        public String toString() {
+            return String.format("%-8s | %-6s | %8.1f itens/s | %5.2f idas ao banco/item | %4.1f INSERTs/item | erros %d",
+                    modo, operacao, itensPorSegundo, idasAoBancoPorItem, insertsPorItem, erros);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.andrebrandao.comissoes_api.config.job.VendaEventoDispatcher;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.DashboardResponseDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaUpdateRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+
+/**
+ * Teste de Integração do Dashboard materializado.
+ * O resultado montado a partir do resumo mensal deve ser igual ao das
+ * consultas diretas na tabela venda.
+ */
+@SpringBootTest
+class DashboardServiceTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private VendaService vendaService;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private VendaEventoRepository vendaEventoRepository;
+
+    @Autowired
+    private VendaEventoDispatcher vendaEventoDispatcher;
+
+    @Autowired
+    private VendaResumoMensalRepository vendaResumoMensalRepository;
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    private Long empresaId;
+    private Vendedor ana;
+    private Vendedor bruno;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Dashboard");
+        loja.setCnpj("33.444.555/0001-66");
+        empresaRepository.save(loja);
+        this.empresaId = loja.getId();
+
+        User admin = userRepository.save(User.builder()
+                .nome("Admin Dashboard").email("admin@dashboard.com").senha("x")
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+
+        this.ana = criarVendedor(loja, "Ana", "ana@dashboard.com", "10.00");
+        this.bruno = criarVendedor(loja, "Bruno", "bruno@dashboard.com", "5.00");
+
+        // Simula o Admin logado (o TenantService lê a empresa do principal)
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        ReflectionTestUtils.setField(dashboardService, "materializado", true);
+        limparBanco(); // Os outros testes apagam usuários/empresas sem olhar as vendas
+    }
+
+    @Test
+    void dashboardMaterializado_DeveSerIgualAoDasConsultasDiretas() {
+        // 1. Lançamentos, alteração de valor, aprovação e cancelamento
+        Venda v1 = vendaService.lancar(novaVenda(ana, "1000.00"));
+        vendaService.lancar(novaVenda(ana, "250.00"));
+        Venda v3 = vendaService.lancar(novaVenda(bruno, "800.00"));
+        vendaService.lancar(novaVenda(bruno, "1500.00"));
+
+        VendaUpdateRequestDTO update = new VendaUpdateRequestDTO();
+        update.setValorVenda(new BigDecimal("1200.00"));
+        vendaService.atualizarVenda(v1.getId(), update);
+        vendaService.cancelarVenda(v3.getId());
+
+        // 2. Cada operação gravou um evento no outbox; o despachante aplica todos e esvazia a tabela
+        assertThat(vendaEventoRepository.count()).isEqualTo(6);
+        assertThat(vendaEventoDispatcher.processarPendentes()).isEqualTo(6);
+        assertThat(vendaEventoRepository.count()).isZero();
+
+        // 3. Compara os dois caminhos
+        DashboardResponseDTO materializado = dashboardService.gerarDashboard();
+        ReflectionTestUtils.setField(dashboardService, "materializado", false);
+        DashboardResponseDTO direto = dashboardService.gerarDashboard();
+
+        assertThat(materializado.getQtdVendasMes()).isEqualTo(4L);
+        assertThat(materializado.getTotalVendasMes()).isEqualByComparingTo("3750.00");
+        assertThat(materializado.getTotalVendasMes()).isEqualByComparingTo(direto.getTotalVendasMes());
+        assertThat(materializado.getTotalComissoesMes()).isEqualByComparingTo(direto.getTotalComissoesMes());
+        assertThat(materializado.getRankingVendedores())
+                .extracting("idVendedor")
+                .containsExactlyElementsOf(direto.getRankingVendedores().stream().map(r -> r.getIdVendedor()).toList());
+        assertThat(materializado.getHistoricoVendasMensal()).hasSameSizeAs(direto.getHistoricoVendasMensal());
+        assertThat(materializado.getHistoricoVendasMensal().get(0).getValorVendido())
+                .isEqualByComparingTo(direto.getHistoricoVendasMensal().get(0).getValorVendido());
+    }
+
+    @Test
+    void reconstruirResumo_DeveGerarOMesmoResultadoQueOsMovimentos() {
+        vendaService.lancar(novaVenda(ana, "300.00"));
+        Venda v2 = vendaService.lancar(novaVenda(bruno, "700.00"));
+        vendaService.cancelarVenda(v2.getId());
+        vendaEventoDispatcher.processarPendentes();
+        DashboardResponseDTO antes = dashboardService.gerarDashboard();
+
+        dashboardService.reconstruirResumo(empresaId);
+        DashboardResponseDTO depois = dashboardService.gerarDashboard();
+
+        assertThat(depois.getQtdVendasMes()).isEqualTo(antes.getQtdVendasMes());
+        assertThat(depois.getTotalVendasMes()).isEqualByComparingTo(antes.getTotalVendasMes());
+        assertThat(depois.getTotalComissoesMes()).isEqualByComparingTo(antes.getTotalComissoesMes());
+    }
+
+    @Test
+    void reconstruirResumo_NaoDeveContarDuasVezesEventosAindaNoOutbox() {
+        vendaService.lancar(novaVenda(ana, "300.00"));
+        vendaEventoDispatcher.processarPendentes();
+
+        // 1. Venda gravada, evento ainda pendente durante a reconstrução
+        Venda v2 = vendaService.lancar(novaVenda(bruno, "700.00"));
+        dashboardService.reconstruirResumo(empresaId);
+        vendaService.cancelarVenda(v2.getId());
+        vendaEventoDispatcher.processarPendentes();
+
+        // 2. Depois de aplicados os eventos, o resumo bate com as consultas diretas
+        DashboardResponseDTO materializado = dashboardService.gerarDashboard();
+        ReflectionTestUtils.setField(dashboardService, "materializado", false);
+        DashboardResponseDTO direto = dashboardService.gerarDashboard();
+
+        assertThat(materializado.getQtdVendasMes()).isEqualTo(direto.getQtdVendasMes());
+        assertThat(materializado.getTotalVendasMes()).isEqualByComparingTo("1000.00"); // Todos os status
+        assertThat(materializado.getTotalVendasMes()).isEqualByComparingTo(direto.getTotalVendasMes());
+        assertThat(materializado.getTotalComissoesMes()).isEqualByComparingTo(direto.getTotalComissoesMes());
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private Vendedor criarVendedor(Empresa empresa, String nome, String email, String percentual) {
+        User usuario = userRepository.save(User.builder()
+                .nome(nome).email(email).senha("x")
+                .role(Role.ROLE_VENDEDOR).empresa(empresa).build());
+        return vendedorRepository.save(Vendedor.builder()
+                .percentualComissao(new BigDecimal(percentual))
+                .empresa(empresa)
+                .usuario(usuario)
+                .build());
+    }
+
+    private VendaRequestDTO novaVenda(Vendedor vendedor, String valor) {
+        VendaRequestDTO dto = new VendaRequestDTO();
+        dto.setVendedorId(vendedor.getId());
+        dto.setValorVenda(new BigDecimal(valor));
+        return dto;
+    }
+
+    private void limparBanco() {
+        vendaEventoRepository.deleteAll();
+        vendaResumoMensalRepository.deleteAll();
+        vendaRepository.deleteAll();
+        vendedorRepository.deleteAll();
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
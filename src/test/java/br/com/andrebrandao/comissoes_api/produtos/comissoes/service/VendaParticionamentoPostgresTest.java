@@ -0,0 +1,142 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.andrebrandao.comissoes_api.ComissoesApiApplication;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendedorEstatisticas;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorEstatisticasRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+
+/**
+ * Teste de Integração do particionamento da tabela venda (só existe no Postgres):
+ * conversão, criação de partições com vendas já na partição padrão e arquivamento
+ * (os contadores por vendedor continuam contando as vendas arquivadas).
+ *
+ * Não roda no build normal. APAGA o schema public do banco informado: use um banco descartável.
+ *   mvn -B test -Dtest=VendaParticionamentoPostgresTest \
+ *       -Dpostgres.url=jdbc:postgresql://localhost:5432/comissoes_teste -Dpostgres.usuario=postgres -Dpostgres.senha=...
+ */
+@EnabledIfSystemProperty(named = "postgres.url", matches = ".+")
+class VendaParticionamentoPostgresTest {
+
+    private static final String URL = System.getProperty("postgres.url");
+    private static final String USUARIO = System.getProperty("postgres.usuario", "postgres");
+    private static final String SENHA = System.getProperty("postgres.senha", "postgres");
+    private static final DateTimeFormatter SUFIXO_MES = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Test
+    void deveConverterCriarParticoesEArquivar_SemPerderOsContadores() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(URL, USUARIO, SENHA, true);
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS arquivo CASCADE");
+            jdbcTemplate.execute("DROP SCHEMA public CASCADE");
+            jdbcTemplate.execute("CREATE SCHEMA public");
+
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ComissoesApiApplication.class)
+                    .run("--server.port=0",
+                            "--spring.datasource.url=" + URL,
+                            "--spring.datasource.username=" + USUARIO,
+                            "--spring.datasource.password=" + SENHA,
+                            "--spring.datasource.driverClassName=org.postgresql.Driver",
+                            "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                            "--spring.jpa.show-sql=false",
+                            "--application.vendas.particionamento.enabled=false",
+                            "--application.vendedor-estatisticas.verificacao.enabled=false")) {
+
+                VendaParticionamentoService particionamento = contexto.getBean(VendaParticionamentoService.class);
+                VendedorEstatisticasService estatisticasService = contexto.getBean(VendedorEstatisticasService.class);
+                Vendedor vendedor = popularBanco(contexto);
+                Long empresaId = vendedor.getEmpresa().getId();
+                YearMonth mesAtual = YearMonth.now();
+
+                // 1. Conversão: a venda antiga fica na partição venda_legado
+                inserirVenda(jdbcTemplate, vendedor, mesAtual.minusMonths(12).atDay(10).atStartOfDay(), "300.00");
+                particionamento.converter();
+                assertThat(particionamento.isParticionada()).isTrue();
+                ReflectionTestUtils.setField(particionamento, "mesesAFrente", 1);
+                assertThat(particionamento.criarParticoesFuturas()).containsExactly(
+                        particao(mesAtual), particao(mesAtual.plusMonths(1)));
+
+                // 2. Venda fora de qualquer faixa cai na padrão e muda de partição quando a do mês é criada
+                YearMonth mesFuturo = mesAtual.plusMonths(2);
+                inserirVenda(jdbcTemplate, vendedor, mesFuturo.atDay(5).atStartOfDay(), "200.00");
+                assertThat(contar(jdbcTemplate, "venda_padrao")).isEqualTo(1);
+                ReflectionTestUtils.setField(particionamento, "mesesAFrente", 2);
+                assertThat(particionamento.criarParticoesFuturas()).containsExactly(particao(mesFuturo));
+                assertThat(contar(jdbcTemplate, "venda_padrao")).isZero();
+                assertThat(contar(jdbcTemplate, particao(mesFuturo))).isEqualTo(1);
+
+                // 3. Arquivamento: simula a passagem do tempo (a legado passa a terminar há 11 meses)
+                inserirVenda(jdbcTemplate, vendedor, LocalDateTime.now(), "100.00");
+                jdbcTemplate.execute("ALTER TABLE venda DETACH PARTITION venda_legado");
+                jdbcTemplate.execute("ALTER TABLE venda ATTACH PARTITION venda_legado FOR VALUES FROM (MINVALUE) TO ('"
+                        + mesAtual.minusMonths(11).atDay(1) + "')");
+                assertThat(estatisticasService.reconciliar(empresaId)).isEqualTo(1);
+
+                ReflectionTestUtils.setField(particionamento, "mesesRetencao", 3);
+                assertThat(particionamento.arquivar()).containsExactly("venda_legado");
+                assertThat(contar(jdbcTemplate, "venda")).isEqualTo(2);
+                assertThat(contar(jdbcTemplate, "arquivo.venda_legado")).isEqualTo(1);
+
+                // 4. A reconciliação continua contando a venda arquivada
+                assertThat(estatisticasService.reconciliar(empresaId)).isZero();
+                VendedorEstatisticas estatisticas = contexto.getBean(VendedorEstatisticasRepository.class)
+                        .findById(vendedor.getId()).orElseThrow();
+                assertThat(estatisticas.getQtdVendas()).isEqualTo(3);
+                assertThat(estatisticas.getValorTotalVendas()).isEqualByComparingTo("600.00");
+            }
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private Vendedor popularBanco(ConfigurableApplicationContext contexto) {
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Particionamento");
+        loja.setCnpj("77.888.999/0001-00");
+        contexto.getBean(EmpresaRepository.class).save(loja);
+
+        User usuario = contexto.getBean(UserRepository.class).save(User.builder()
+                .nome("Vendedor Particionamento").email("vendedor@particionamento.com").senha("x")
+                .role(Role.ROLE_VENDEDOR).empresa(loja).build());
+        return contexto.getBean(VendedorRepository.class).save(Vendedor.builder()
+                .percentualComissao(new BigDecimal("10.00")).empresa(loja).usuario(usuario).build());
+    }
+
+    private static void inserirVenda(JdbcTemplate jdbcTemplate, Vendedor vendedor, LocalDateTime data, String valor) {
+        BigDecimal valorVenda = new BigDecimal(valor);
+        jdbcTemplate.update("INSERT INTO venda (id, valor_venda, valor_comissao_calculado, status, data_venda, "
+                + "vendedor_id, empresa_id, versao) VALUES (nextval('venda_seq'), ?, ?, 'CONFIRMADA', ?, ?, ?, 0)",
+                valorVenda, valorVenda.movePointLeft(1), data, vendedor.getId(), vendedor.getEmpresa().getId());
+    }
+
+    private static int contar(JdbcTemplate jdbcTemplate, String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela, Integer.class);
+    }
+
+    private static String particao(YearMonth mes) {
+        return "venda_p" + mes.format(SUFIXO_MES);
+    }
+}
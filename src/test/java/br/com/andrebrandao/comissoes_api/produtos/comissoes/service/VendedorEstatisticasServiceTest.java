@@ -0,0 +1,240 @@
+package br.com.andrebrandao.comissoes_api.produtos.comissoes.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import br.com.andrebrandao.comissoes_api.config.job.VendaEventoDispatcher;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendaUpdateRequestDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorDetalhadoResponseDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.dto.VendedorResponseDTO;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Venda;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.Vendedor;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.model.VendedorEstatisticas;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaEventoRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendaResumoMensalRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorEstatisticasRepository;
+import br.com.andrebrandao.comissoes_api.produtos.comissoes.repository.VendedorRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+
+/**
+ * Teste de Integração dos contadores por vendedor (VendedorEstatisticas).
+ * Os contadores mantidos pelos movimentos devem bater com o recálculo a partir da tabela venda.
+ */
+@SpringBootTest
+class VendedorEstatisticasServiceTest {
+
+    @Autowired
+    private VendedorEstatisticasService vendedorEstatisticasService;
+
+    @Autowired
+    private VendaService vendaService;
+
+    @Autowired
+    private VendedorService vendedorService;
+
+    @Autowired
+    private VendedorEstatisticasRepository vendedorEstatisticasRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private VendaEventoRepository vendaEventoRepository;
+
+    @Autowired
+    private VendaEventoDispatcher vendaEventoDispatcher;
+
+    @Autowired
+    private VendaResumoMensalRepository vendaResumoMensalRepository;
+
+    @Autowired
+    private VendedorRepository vendedorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long empresaId;
+    private Vendedor ana;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Contadores");
+        loja.setCnpj("55.666.777/0001-88");
+        empresaRepository.save(loja);
+        this.empresaId = loja.getId();
+
+        User admin = userRepository.save(User.builder()
+                .nome("Admin Contadores").email("admin@contadores.com").senha("x")
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+
+        User usuarioAna = userRepository.save(User.builder()
+                .nome("Ana").email("ana@contadores.com").senha("x")
+                .role(Role.ROLE_VENDEDOR).empresa(loja).build());
+        this.ana = vendedorRepository.save(Vendedor.builder()
+                .percentualComissao(new BigDecimal("10.00")).empresa(loja).usuario(usuarioAna).build());
+
+        // Simula o Admin logado (o TenantService lê a empresa do principal)
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        limparBanco();
+    }
+
+    @Test
+    void contadores_DevemAcompanharLancamentoAlteracaoECancelamento() {
+        Venda v1 = vendaService.lancar(novaVenda("1000.00"));
+        vendaService.lancar(novaVenda("500.00"));
+        Venda v3 = vendaService.lancar(novaVenda("200.00"));
+
+        VendaUpdateRequestDTO update = new VendaUpdateRequestDTO();
+        update.setValorVenda(new BigDecimal("1200.00"));
+        vendaService.atualizarVenda(v1.getId(), update);
+        vendaService.cancelarVenda(v3.getId());
+        vendaEventoDispatcher.processarPendentes();
+
+        VendedorEstatisticas estatisticas = vendedorEstatisticasRepository.findById(ana.getId()).orElseThrow();
+        assertThat(estatisticas.getQtdVendas()).isEqualTo(3);
+        assertThat(estatisticas.getValorTotalVendas()).isEqualByComparingTo("1900.00");
+        assertThat(estatisticas.getValorTotalComissao()).isEqualByComparingTo("190.00");
+        assertThat(estatisticas.getQtdConfirmadas()).isEqualTo(2);
+        assertThat(estatisticas.getQtdCanceladas()).isEqualTo(1);
+
+        // O recálculo a partir da tabela venda não encontra divergências
+        assertThat(vendedorEstatisticasService.reconciliar(empresaId)).isZero();
+
+        // Os endpoints de vendedor leem os contadores
+        VendedorResponseDTO dto = vendedorService.buscarPorId(ana.getId());
+        assertThat(dto.getQtdVendas()).isEqualTo(3L);
+        assertThat(dto.getValorTotalVendas()).isEqualByComparingTo("1900.00");
+        VendedorDetalhadoResponseDTO detalhes = vendedorService.buscarDetalhesPorId(ana.getId());
+        assertThat(detalhes.getMediaComissao()).isEqualByComparingTo("63.33");
+        assertThat(detalhes.getQtdVendasCanceladas()).isEqualTo(1L);
+    }
+
+    @Test
+    void reconciliar_DeveCorrigirLinhasDivergentesOuAusentes() {
+        vendaService.lancar(novaVenda("400.00"));
+        vendaEventoDispatcher.processarPendentes();
+
+        // 1. Simula uma divergência (ex: alteração direta no banco)
+        VendedorEstatisticas estatisticas = vendedorEstatisticasRepository.findById(ana.getId()).orElseThrow();
+        estatisticas.setQtdVendas(99);
+        vendedorEstatisticasRepository.save(estatisticas);
+
+        assertThat(vendedorEstatisticasService.reconciliar(empresaId)).isEqualTo(1);
+        assertThat(vendedorEstatisticasRepository.findById(ana.getId()).orElseThrow().getQtdVendas()).isEqualTo(1);
+
+        // 2. Linha ausente (vendedor anterior aos contadores)
+        vendedorEstatisticasRepository.deleteAll();
+        assertThat(vendedorEstatisticasService.empresasPendentesDeInicializacao()).containsExactly(empresaId);
+        assertThat(vendedorEstatisticasService.reconciliar(empresaId)).isEqualTo(1);
+        assertThat(vendedorEstatisticasRepository.findById(ana.getId()).orElseThrow().getValorTotalVendas())
+                .isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void reconciliar_DeveDescontarEventosAindaNoOutbox() {
+        vendaService.lancar(novaVenda("300.00"));
+
+        // 1. A venda já está na tabela, mas o evento ainda não foi aplicado:
+        //    a reconciliação cria a linha zerada (o evento ainda vai somar)
+        assertThat(vendedorEstatisticasService.reconciliar(empresaId)).isEqualTo(1);
+        assertThat(vendedorEstatisticasRepository.findById(ana.getId()).orElseThrow().getQtdVendas()).isZero();
+
+        // 2. Depois do despachante, a venda é contada uma única vez
+        vendaEventoDispatcher.processarPendentes();
+        VendedorEstatisticas estatisticas = vendedorEstatisticasRepository.findById(ana.getId()).orElseThrow();
+        assertThat(estatisticas.getQtdVendas()).isEqualTo(1);
+        assertThat(estatisticas.getValorTotalVendas()).isEqualByComparingTo("300.00");
+        assertThat(vendedorEstatisticasService.reconciliar(empresaId)).isZero();
+    }
+
+    @Test
+    void reconciliar_DeveSomarVendasArquivadas() {
+        vendaService.lancar(novaVenda("300.00"));
+        Venda antiga = vendaService.lancar(novaVenda("700.00"));
+        vendaEventoDispatcher.processarPendentes();
+
+        // 1. Simula o arquivamento da venda antiga (VendaParticionamentoService.arquivar):
+        //    os totais vão para venda_arquivada_resumo e a linha sai da tabela venda
+        String mesAno = YearMonth.from(antiga.getDataVenda()).toString();
+        jdbcTemplate.update("INSERT INTO venda_arquivada_resumo (empresa_id, vendedor_id, mes_ano, status, "
+                + "qtd_vendas, valor_total, valor_comissao) VALUES (?, ?, ?, ?, 1, 700.00, 70.00)",
+                empresaId, ana.getId(), mesAno, antiga.getStatus().name());
+        vendaRepository.deleteById(antiga.getId());
+
+        // 2. Os contadores continuam contando a venda arquivada
+        assertThat(vendedorEstatisticasService.reconciliar(empresaId)).isZero();
+        VendedorEstatisticas estatisticas = vendedorEstatisticasRepository.findById(ana.getId()).orElseThrow();
+        assertThat(estatisticas.getQtdVendas()).isEqualTo(2);
+        assertThat(estatisticas.getValorTotalVendas()).isEqualByComparingTo("1000.00");
+
+        // 3. A reconstrução do resumo mensal também
+        dashboardService.reconstruirResumo(empresaId);
+        assertThat(vendaResumoMensalRepository.findAll())
+                .singleElement()
+                .satisfies(linha -> {
+                    assertThat(linha.getMesAno()).isEqualTo(mesAno);
+                    assertThat(linha.getQtdVendas()).isEqualTo(2);
+                    assertThat(linha.getValorTotal()).isEqualByComparingTo("1000.00");
+                });
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private VendaRequestDTO novaVenda(String valor) {
+        VendaRequestDTO dto = new VendaRequestDTO();
+        dto.setVendedorId(ana.getId());
+        dto.setValorVenda(new BigDecimal(valor));
+        return dto;
+    }
+
+    private void limparBanco() {
+        jdbcTemplate.update("DELETE FROM venda_arquivada_resumo");
+        vendaEventoRepository.deleteAll();
+        vendedorEstatisticasRepository.deleteAll();
+        vendaResumoMensalRepository.deleteAll();
+        vendaRepository.deleteAll();
+        vendedorRepository.deleteAll();
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
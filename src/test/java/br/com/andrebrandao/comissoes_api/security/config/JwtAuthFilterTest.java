@@ -0,0 +1,122 @@
+package br.com.andrebrandao.comissoes_api.security.config;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.core.service.EmpresaService;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import br.com.andrebrandao.comissoes_api.security.service.JwtService;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Teste de Integração do JwtAuthFilter no modo stateless
+ * (principal montado apenas a partir dos claims do token).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = "application.security.jwt.stateless-principal=true")
+class JwtAuthFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    @Autowired
+    private EmpresaService empresaService;
+
+    private String token;
+    private Long empresaId;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        moduloRepository.save(comissoes);
+
+        Empresa empresa = new Empresa();
+        empresa.setNomeFantasia("Loja Stateless");
+        empresa.setCnpj("22.333.444/0001-55");
+        empresa.setModulosAtivos(Set.of(comissoes));
+        this.empresaId = empresaRepository.save(empresa).getId();
+
+        User admin = userRepository.save(User.builder()
+                .nome("Admin Stateless")
+                .email("admin@stateless.com")
+                .senha("nao-usada")
+                .role(Role.ROLE_ADMIN)
+                .empresa(empresa)
+                .build());
+
+        this.token = jwtService.generateToken(admin, Set.of("COMISSAO_CORE"));
+    }
+
+    @Test
+    void deveAutenticarPelosClaims_SemBuscarUsuarioNoBanco() throws Exception {
+        // Remove o usuário: se o filtro consultasse o banco, a requisição falharia
+        userRepository.deleteAll();
+
+        mockMvc.perform(get("/api/vendedores")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deveNegarAcesso_QuandoModuloNaoEstaNoToken() throws Exception {
+        String tokenSemModulo = jwtService.generateToken(
+                userRepository.findByEmail("admin@stateless.com").orElseThrow(), Set.of());
+
+        mockMvc.perform(get("/api/vendedores")
+                .header("Authorization", "Bearer " + tokenSemModulo))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void deveNegarAcesso_QuandoModuloFoiRemovidoDepoisDoLogin() throws Exception {
+        // 1. Primeira chamada aquece o cache de módulos da empresa
+        mockMvc.perform(get("/api/vendedores")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // 2. O token ainda lista o módulo, mas a empresa perdeu o acesso
+        empresaService.atualizarModulosAtivos(empresaId, Set.of());
+
+        mockMvc.perform(get("/api/vendedores")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+}
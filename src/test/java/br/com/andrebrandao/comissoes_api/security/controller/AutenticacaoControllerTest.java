@@ -0,0 +1,160 @@
+package br.com.andrebrandao.comissoes_api.security.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de Integração do login (POST /api/auth/login), executado no pool dedicado,
+ * e da atualização transparente do hash da senha.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class AutenticacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        moduloRepository.save(comissoes);
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Login");
+        loja.setCnpj("12.121.212/0001-12");
+        loja.setModulosAtivos(Set.of(comissoes));
+        empresaRepository.save(loja);
+
+        userRepository.save(User.builder()
+                .nome("Admin Login").email("admin@login.com").senha(passwordEncoder.encode("senha123"))
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+
+        // Hash "legado": BCrypt puro (sem prefixo) e com custo diferente do configurado
+        userRepository.save(User.builder()
+                .nome("Admin Legado").email("legado@login.com").senha(new BCryptPasswordEncoder(4).encode("senha123"))
+                .role(Role.ROLE_ADMIN).empresa(loja).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    @Test
+    void deveEmitirTokenComOsModulosDaEmpresa_ComUmaUnicaConsulta() throws Exception {
+        // 1. Primeiro login: carrega as chaves dos módulos no cache
+        login("admin@login.com", "senha123")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isString())
+                .andExpect(jsonPath("$.permissoesModulos", contains("COMISSAO_CORE")));
+
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean estavamHabilitadas = estatisticas.isStatisticsEnabled();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+
+        try {
+            // 2. Com o cache quente: só a busca do usuário (com a empresa)
+            login("admin@login.com", "senha123")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.permissoesModulos", contains("COMISSAO_CORE")));
+
+            // Antes: usuário (autenticação) + usuário de novo + empresa + módulos
+            assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+        } finally {
+            estatisticas.setStatisticsEnabled(estavamHabilitadas);
+        }
+    }
+
+    @Test
+    void deveRegravarHashLegado_NoLoginBemSucedido() throws Exception {
+        login("legado@login.com", "senha123")
+                .andExpect(status().isOk());
+
+        // O hash passou para o formato e o custo configurados, e a senha continua a mesma
+        String hash = userRepository.findByEmail("legado@login.com").orElseThrow().getSenha();
+        assertThat(hash).startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches("senha123", hash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(hash)).isFalse();
+
+        login("legado@login.com", "senha123")
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deveRecusarSenhaErrada() throws Exception {
+        login("admin@login.com", "errada")
+                .andExpect(status().isForbidden());
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private ResultActions login(String email, String senha) throws Exception {
+        MvcResult iniciado = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"senha\": \"" + senha + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(iniciado));
+    }
+
+    private void limparBanco() {
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
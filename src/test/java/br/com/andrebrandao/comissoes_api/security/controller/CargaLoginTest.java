@@ -0,0 +1,230 @@
+package br.com.andrebrandao.comissoes_api.security.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import br.com.andrebrandao.comissoes_api.ComissoesApiApplication;
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de carga do login: BCrypt na thread da requisição x pool dedicado.
+ *
+ * Sobe a aplicação duas vezes (application.security.login.pool.enabled=false/true)
+ * com poucas threads no Tomcat e dispara uma rajada de logins. Enquanto isso, uma
+ * sonda chama GET /actuator/health: sem o pool, ela disputa as threads do Tomcat
+ * com os logins; com o pool, as threads de requisição continuam livres.
+ * Mede logins/s, latência p99 da sonda e comandos SQL por login.
+ *
+ * Não roda no build normal. Para executar:
+ *   mvn -B test -Dtest=CargaLoginTest -Dcarga=true
+ * Parâmetros (-D): carga.login.usuarios, carga.login.total, carga.login.tomcat-threads.
+ * O resultado também é gravado em target/carga-login.txt.
+ */
+@EnabledIfSystemProperty(named = "carga", matches = "true")
+class CargaLoginTest {
+
+    private static final int USUARIOS = Integer.getInteger("carga.login.usuarios", 64);
+    private static final int LOGINS = Integer.getInteger("carga.login.total", 600);
+    private static final int TOMCAT_THREADS = Integer.getInteger("carga.login.tomcat-threads", 16);
+    private static final int AQUECIMENTO = Math.max(LOGINS / 10, USUARIOS);
+    private static final String SENHA = "senha-da-carga";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    @Test
+    void compararLoginNaThreadDaRequisicaoEComPoolDedicado() throws Exception {
+        Resultado semPool = executar(false);
+        Resultado comPool = executar(true);
+
+        String relatorio = String.format(
+                "Carga de login: %d usuários, %d logins, %d threads no Tomcat, %d processadores%n%s%n%s%n",
+                USUARIOS, LOGINS, TOMCAT_THREADS, Runtime.getRuntime().availableProcessors(), semPool, comPool);
+        System.out.println(">>> " + relatorio);
+        Files.writeString(Path.of("target", "carga-login.txt"), relatorio);
+
+        assertThat(semPool.erros()).isZero();
+        assertThat(comPool.erros()).isZero();
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private Resultado executar(boolean pool) throws Exception {
+        String modo = pool ? "pool" : "sem-pool";
+        try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(ComissoesApiApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "spring.datasource.url=jdbc:h2:mem:carga_login_" + modo + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "spring.jpa.show-sql=false",
+                        "application.security.login.pool.enabled=" + pool,
+                        "application.vendedor-estatisticas.verificacao.enabled=false")
+                .run()) {
+
+            int porta = Integer.parseInt(contexto.getEnvironment().getProperty("local.server.port"));
+            popularBanco(contexto);
+
+            // 1. Aquecimento (JIT, pool de conexões, cache de módulos): não entra na medição
+            disparar(porta, AQUECIMENTO);
+
+            Statistics estatisticas = contexto.getBean(EntityManagerFactory.class)
+                    .unwrap(SessionFactory.class).getStatistics();
+            estatisticas.setStatisticsEnabled(true);
+            estatisticas.clear();
+
+            // 2. Medição: rajada de logins + sonda de health em paralelo
+            AtomicBoolean rodando = new AtomicBoolean(true);
+            List<Long> sonda = new ArrayList<>();
+            Thread threadSonda = Thread.ofVirtual().start(() -> sondar(porta, rodando, sonda));
+
+            long inicio = System.nanoTime();
+            Medicao medicao = disparar(porta, LOGINS);
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            rodando.set(false);
+            threadSonda.join();
+
+            long[] latenciasSonda = sonda.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new Resultado(modo, LOGINS / segundos,
+                    percentilMs(medicao.latenciasNanos(), 0.99),
+                    latenciasSonda.length == 0 ? 0 : percentilMs(latenciasSonda, 0.99),
+                    (double) estatisticas.getPrepareStatementCount() / LOGINS,
+                    medicao.erros());
+        }
+    }
+
+    /**
+     * Cada usuário virtual faz seus logins em sequência (laço fechado).
+     */
+    private Medicao disparar(int porta, int total) throws Exception {
+        long[] latencias = new long[total];
+        AtomicInteger proxima = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        try (ExecutorService usuarios = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int u = 0; u < USUARIOS; u++) {
+                usuarios.submit(() -> {
+                    int i;
+                    while ((i = proxima.getAndIncrement()) < total) {
+                        String corpo = "{\"email\": \"usuario" + (i % USUARIOS) + "@carga.com\", \"senha\": \""
+                                + SENHA + "\"}";
+                        HttpRequest request = HttpRequest.newBuilder(
+                                URI.create("http://localhost:" + porta + "/api/auth/login"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                                .build();
+                        long inicio = System.nanoTime();
+                        try {
+                            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status != 200) {
+                                erros.incrementAndGet();
+                            }
+                        } catch (IOException | InterruptedException e) {
+                            erros.incrementAndGet();
+                        }
+                        latencias[i] = System.nanoTime() - inicio;
+                    }
+                });
+            }
+        }
+        long[] ordenadas = latencias.clone();
+        Arrays.sort(ordenadas);
+        return new Medicao(ordenadas, erros.get());
+    }
+
+    /**
+     * Uma requisição leve a cada 20 ms enquanto a rajada durar.
+     */
+    private void sondar(int porta, AtomicBoolean rodando, List<Long> latencias) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + porta + "/actuator/health"))
+                .GET()
+                .build();
+        while (rodando.get()) {
+            long inicio = System.nanoTime();
+            try {
+                httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                latencias.add(System.nanoTime() - inicio);
+                Thread.sleep(20);
+            } catch (IOException | InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void popularBanco(ConfigurableApplicationContext contexto) {
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        contexto.getBean(ModuloRepository.class).save(comissoes);
+
+        Empresa loja = new Empresa();
+        loja.setNomeFantasia("Loja Carga Login");
+        loja.setCnpj("99.777.555/0001-33");
+        loja.setModulosAtivos(Set.of(comissoes));
+        contexto.getBean(EmpresaRepository.class).save(loja);
+
+        // Um hash só (mesma senha): o custo do BCrypt fica na verificação, não na carga
+        String hash = contexto.getBean(PasswordEncoder.class).encode(SENHA);
+        List<User> usuarios = new ArrayList<>();
+        for (int u = 0; u < USUARIOS; u++) {
+            usuarios.add(User.builder()
+                    .nome("Usuário " + u).email("usuario" + u + "@carga.com").senha(hash)
+                    .role(Role.ROLE_ADMIN).empresa(loja).build());
+        }
+        contexto.getBean(UserRepository.class).saveAll(usuarios);
+    }
+
+    private static double percentilMs(long[] ordenadas, double percentil) {
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1_000_000.0;
+    }
+
+    private record Medicao(long[] latenciasNanos, int erros) {
+    }
+
+    private record Resultado(String modo, double loginsPorSegundo, double p99LoginMs, double p99SondaMs,
+            double comandosSqlPorLogin, int erros) {
+        @Override
+        public String toString() {
+            return String.format(
+                    "%-8s | %7.1f logins/s | p99 login %8.2f ms | p99 health %8.2f ms | %.2f SQL/login | erros %d",
+                    modo, loginsPorSegundo, p99LoginMs, p99SondaMs, comandosSqlPorLogin, erros);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.andrebrandao.comissoes_api.security.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+
+/**
+ * Teste do cache de claims verificados do JwtService.
+ * Sem contexto Spring: cada teste monta o serviço com a validade e o limite do cache que precisa.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET_KEY = "osObnAHgpgRkzdjkj2gCkoMNUvfCxXZ9+Fp71dClvr4=";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = novoJwtService(86400, 10_000);
+    }
+
+    @Test
+    void naoDeveServirDoCache_TokenExpirado() throws Exception {
+        // 1. Token de 1 segundo, verificado (e guardado no cache) enquanto válido
+        JwtService curto = novoJwtService(1, 10_000);
+        String token = curto.generateToken(usuario(1L), Set.of("COMISSAO_CORE"));
+        assertThat(curto.extractUsername(token)).isEqualTo("usuario1@jwt.com");
+
+        // 2. Depois do exp: a entrada do cache é descartada e a verificação completa recusa
+        Thread.sleep(2100);
+        assertThatThrownBy(() -> curto.extractUsername(token)).isInstanceOf(ExpiredJwtException.class);
+        assertThat(cache(curto)).isEmpty();
+    }
+
+    @Test
+    void deveRecusarTokenAdulterado_ComOsMesmosClaimsDeUmTokenEmCache() {
+        // 1. Token válido em cache
+        String token = jwtService.generateToken(usuario(1L), Set.of("COMISSAO_CORE"));
+        jwtService.extractAllClaims(token);
+
+        // 2. Mesmo header e payload, assinatura trocada: não é servido pelo cache
+        String[] partes = token.split("\\.");
+        char primeiro = partes[2].charAt(0);
+        String adulterado = partes[0] + "." + partes[1] + "."
+                + (primeiro == 'A' ? 'B' : 'A') + partes[2].substring(1);
+        assertThatThrownBy(() -> jwtService.extractAllClaims(adulterado)).isInstanceOf(SignatureException.class);
+        assertThat(cache(jwtService)).hasSize(1);
+    }
+
+    @Test
+    void deveRespeitarOLimiteDoCache_SemEsvaziarTudo() {
+        JwtService limitado = novoJwtService(86400, 10);
+        String primeiro = limitado.generateToken(usuario(0L), Set.of());
+        limitado.extractAllClaims(primeiro);
+
+        for (long i = 1; i <= 25; i++) {
+            limitado.extractAllClaims(limitado.generateToken(usuario(i), Set.of()));
+            assertThat(cache(limitado)).hasSizeLessThanOrEqualTo(10);
+        }
+
+        // Ao lotar, só algumas entradas saem (as que expiram primeiro): o cache nunca fica vazio
+        assertThat(cache(limitado)).hasSizeGreaterThanOrEqualTo(9);
+    }
+
+    // --- MÉTODOS PRIVADOS AUXILIARES ---
+
+    private static JwtService novoJwtService(long expiracaoSegundos, int cacheMaxSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiracaoSegundos);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", cacheMaxSize);
+        service.init();
+        return service;
+    }
+
+    private static User usuario(Long id) {
+        return User.builder()
+                .id(id)
+                .nome("Usuário " + id)
+                .email("usuario" + id + "@jwt.com")
+                .role(Role.ROLE_ADMIN)
+                .build();
+    }
+
+    private static Map<?, ?> cache(JwtService service) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(service, "claimsCache");
+    }
+}
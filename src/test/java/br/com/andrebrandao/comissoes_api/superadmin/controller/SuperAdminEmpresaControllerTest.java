@@ -0,0 +1,138 @@
+package br.com.andrebrandao.comissoes_api.superadmin.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.andrebrandao.comissoes_api.core.model.Empresa;
+import br.com.andrebrandao.comissoes_api.core.model.Modulo;
+import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
+import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.security.model.Role;
+import br.com.andrebrandao.comissoes_api.security.model.User;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Teste de Integração da listagem paginada do SuperAdminEmpresaController.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SuperAdminEmpresaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Autowired
+    private ModuloRepository moduloRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+
+        Modulo comissoes = new Modulo();
+        comissoes.setNome("Módulo de Comissões");
+        comissoes.setChave("COMISSAO_CORE");
+        comissoes.setStatus(ModuloStatus.PRONTO_PARA_PRODUCAO);
+        comissoes.setPrecoMensal(BigDecimal.ZERO);
+        moduloRepository.save(comissoes);
+
+        // 12 empresas, cada uma com o módulo e 2 admins
+        for (int i = 1; i <= 12; i++) {
+            Empresa empresa = new Empresa();
+            empresa.setNomeFantasia(String.format("Loja %02d", i));
+            empresa.setCnpj(String.format("%02d.000.000/0001-00", i));
+            empresa.setModulosAtivos(Set.of(comissoes));
+            empresaRepository.save(empresa);
+
+            for (int j = 1; j <= 2; j++) {
+                userRepository.save(User.builder()
+                        .nome("Admin " + j).email("admin" + j + "@loja" + i + ".com").senha("x")
+                        .role(Role.ROLE_ADMIN).empresa(empresa).build());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void deveListarPaginaComNumeroFixoDeConsultas() throws Exception {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean estavamHabilitadas = estatisticas.isStatisticsEnabled();
+        estatisticas.setStatisticsEnabled(true);
+        estatisticas.clear();
+
+        try {
+            mockMvc.perform(get("/api/superadmin/empresas").param("tamanho", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens", hasSize(10)))
+                    .andExpect(jsonPath("$.totalItens").value(12))
+                    .andExpect(jsonPath("$.totalPaginas").value(2))
+                    .andExpect(jsonPath("$.itens[0].nomeFantasia").value("Loja 01"))
+                    .andExpect(jsonPath("$.itens[0].usuariosAdmin", hasSize(2)))
+                    .andExpect(jsonPath("$.itens[0].modulosAtivos[0].chave").value("COMISSAO_CORE"));
+
+            // Página + contagem + admins + módulos (antes: 1 + 2 por empresa)
+            assertThat(estatisticas.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+        } finally {
+            estatisticas.setStatisticsEnabled(estavamHabilitadas);
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void deveBuscarPorNomeOuCnpj() throws Exception {
+        mockMvc.perform(get("/api/superadmin/empresas").param("busca", "loja 07"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].nomeFantasia").value("Loja 07"));
+
+        mockMvc.perform(get("/api/superadmin/empresas").param("busca", "03.000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].cnpj").value("03.000.000/0001-00"));
+    }
+
+    @Test
+    @WithMockUser(roles = "SUPER_ADMIN")
+    void deveRetornar400_QuandoPaginaForNegativa() throws Exception {
+        mockMvc.perform(get("/api/superadmin/empresas").param("pagina", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void limparBanco() {
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
+        moduloRepository.deleteAll();
+    }
+}
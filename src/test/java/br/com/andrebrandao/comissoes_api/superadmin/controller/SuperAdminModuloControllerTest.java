@@ -13,7 +13,9 @@ import com.fasterxml.jackson.databind.ObjectMapper; // Para converter DTO em JSO
 
 import br.com.andrebrandao.comissoes_api.core.dto.ModuloRequestDTO;
 import br.com.andrebrandao.comissoes_api.core.model.ModuloStatus;
+import br.com.andrebrandao.comissoes_api.core.repository.EmpresaRepository;
 import br.com.andrebrandao.comissoes_api.core.repository.ModuloRepository;
+import br.com.andrebrandao.comissoes_api.security.repository.UserRepository;
 
 // Importes estáticos para os testes (Arrange, Act, Assert)
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -40,9 +42,18 @@ class SuperAdminModuloControllerTest {
     private ModuloRepository moduloRepository; // Para checar o banco *depois* da
                                                // requisição
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
     // 4. Limpa o banco de dados ANTES de CADA teste
+    // (empresas de outros testes podem referenciar módulos, então saem antes)
     @BeforeEach
     void setUp() {
+        userRepository.deleteAll();
+        empresaRepository.deleteAll();
         moduloRepository.deleteAll();
     }
 